@@ -0,0 +1,40 @@
+package com.github.tommyettinger.textra;
+
+/**
+ * A reusable, read-only CharSequence over part of a char array, so {@link Font#markup(char[], int, int, Layout)} can
+ * share its parsing with {@link Font#markup(CharSequence, int, int, Layout)} without copying the chars into a String.
+ * Each {@link Layout} has one of these, so markup on different Layouts never shares one.
+ */
+final class CharArrayView implements CharSequence {
+    char[] chars;
+    int offset, length;
+
+    CharArrayView set(char[] chars, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > chars.length)
+            throw new IndexOutOfBoundsException("offset " + offset + ", length " + length + ", array length " + chars.length);
+        this.chars = chars;
+        this.offset = offset;
+        this.length = length;
+        return this;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        return chars[offset + index];
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return new String(chars, offset + start, end - start);
+    }
+
+    @Override
+    public String toString() {
+        return new String(chars, offset, length);
+    }
+}
@@ -0,0 +1,369 @@
+package com.github.tommyettinger.textra;
+
+import com.badlogic.gdx.utils.StreamUtils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+
+/**
+ * Reads the text or XML format of AngelCode BMFont .fnt files one record (a line, or an XML element) at a time,
+ * straight from the bytes of an InputStream, without decoding the file into a String. Each call to {@link #next()}
+ * reads one record, returns its type, and sets the public fields for whichever attributes the record has; attributes
+ * can appear in any order, and any this doesn't know about are skipped. Only {@link #file}, on {@link #PAGE} records,
+ * ever creates a String, so reading a font with tens of thousands of chars allocates little beyond the buffer this was
+ * given.
+ * <br>
+ * Every field this fills is reset to 0 (or null for {@link #file}) at the start of each record. Attributes with
+ * several comma-separated values, like {@code padding=2,2,2,2}, only have their first value read, and quoted values
+ * other than {@code file} are skipped. Numbers are read as decimal ints with an optional sign, quoted or not; anything
+ * after the digits is ignored.
+ * <br>
+ * A file is read as XML if its first non-whitespace char is '&lt;'. Elements this doesn't know, like {@code <font>} and
+ * {@code <pages>}, are returned as {@link #OTHER}, and closing tags, the XML declaration, and comments are skipped.
+ * XML entities aren't decoded, so a page's file name shouldn't use any.
+ */
+public class FntReader implements Closeable {
+    /**
+     * Record types returned by {@link #next()}. {@link #OTHER} is any record this doesn't know, and {@link #END} means
+     * there are no more records.
+     */
+    public static final int END = -1, OTHER = 0, INFO = 1, COMMON = 2, PAGE = 3, CHARS = 4, CHAR = 5, KERNINGS = 6,
+            KERNING = 7;
+
+    private static final byte[][] RECORDS = bytes("info", "common", "page", "chars", "char", "kernings", "kerning");
+    /**
+     * Attribute keys; "chnl" is known only so it can be skipped without comparing it to every other key.
+     */
+    private static final byte[][] KEYS = bytes("id", "x", "y", "width", "height", "xoffset", "yoffset", "xadvance",
+            "page", "chnl", "first", "second", "amount", "count", "pages", "lineHeight", "base", "scaleW", "scaleH",
+            "size", "file");
+    private static final int CHNL = 9, FILE = 20;
+    private static final int[] RECORD_HASHES = hashes(RECORDS), KEY_HASHES = hashes(KEYS);
+    /**
+     * Open-addressing tables from a word's hash to its index plus 1 in RECORDS or KEYS, or 0 for an empty slot.
+     */
+    private static final int[] RECORD_TABLE = table(RECORD_HASHES), KEY_TABLE = table(KEY_HASHES);
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    /**
+     * Set by {@link #CHAR} records (the char's code point) and {@link #PAGE} records (the page index).
+     */
+    public int id;
+    /**
+     * Set by {@link #CHAR} records.
+     */
+    public int x, y, width, height, xoffset, yoffset, xadvance, page;
+    /**
+     * Set by {@link #KERNING} records.
+     */
+    public int first, second, amount;
+    /**
+     * Set by {@link #CHARS} and {@link #KERNINGS} records.
+     */
+    public int count;
+    /**
+     * Set by {@link #COMMON} records.
+     */
+    public int pages, lineHeight, base, scaleW, scaleH;
+    /**
+     * Set by {@link #INFO} records; negative if the font size was given in pixels, as BMFont does for "match char
+     * height".
+     */
+    public int size;
+    /**
+     * Set by {@link #PAGE} records to the texture file name, exactly as it appears in the .fnt file.
+     */
+    public String file;
+
+    private final InputStream in;
+    private byte[] buffer;
+    /**
+     * Bytes before {@code position} have been read; bytes from {@code limit} on haven't been filled. Every record that
+     * starts before {@code lines} ends before it too, either with its terminator or because the stream ended.
+     */
+    private int position, limit, lines;
+    private boolean started, ended, xml;
+    /**
+     * The byte that ends a record: '\n' for the text format, or '&gt;' for XML.
+     */
+    private byte terminator = '\n';
+
+    /**
+     * Reads from the given stream using an 8 KiB buffer.
+     * @param in an InputStream over a .fnt file in the text or XML format; closed by {@link #close()}
+     */
+    public FntReader(InputStream in) {
+        this(in, 8192);
+    }
+
+    /**
+     * Reads from the given stream using a buffer with the given size, which grows if a record is longer than it.
+     * @param in an InputStream over a .fnt file in the text or XML format; closed by {@link #close()}
+     * @param bufferSize how many bytes to read from {@code in} at a time
+     */
+    public FntReader(InputStream in, int bufferSize) {
+        this.in = in;
+        buffer = new byte[Math.max(64, bufferSize)];
+    }
+
+    /**
+     * The words are all ASCII, so each char is one byte; this avoids looking up a Charset, which not every platform
+     * (such as GWT) supports for ASCII.
+     */
+    private static byte[][] bytes(String... words) {
+        byte[][] bytes = new byte[words.length][];
+        for (int i = 0; i < words.length; i++) {
+            final String word = words[i];
+            final byte[] b = bytes[i] = new byte[word.length()];
+            for (int j = 0; j < b.length; j++) {
+                b[j] = (byte) word.charAt(j);
+            }
+        }
+        return bytes;
+    }
+
+    private static int[] hashes(byte[][] words) {
+        int[] hashes = new int[words.length];
+        for (int i = 0; i < words.length; i++) {
+            for (byte b : words[i]) {
+                hashes[i] = hashes[i] * 31 + b;
+            }
+        }
+        return hashes;
+    }
+
+    private static int slot(int hash) {
+        return (hash ^ hash >>> 7 ^ hash >>> 14) & 63;
+    }
+
+    private static int[] table(int[] hashes) {
+        int[] table = new int[64];
+        for (int i = 0; i < hashes.length; i++) {
+            int s = slot(hashes[i]);
+            while (table[s] != 0) s = s + 1 & 63;
+            table[s] = i + 1;
+        }
+        return table;
+    }
+
+    /**
+     * Finds the word in {@code buffer} from {@code start} to {@code end} in words, comparing bytes only when a hash
+     * matches.
+     * @return the index of the word in words, or -1 if it isn't there
+     */
+    private int find(byte[][] words, int[] hashes, int[] table, int hash, int start, int end) {
+        final int length = end - start;
+        outer:
+        for (int s = slot(hash), i; (i = table[s] - 1) >= 0; s = s + 1 & 63) {
+            if (hashes[i] != hash) continue;
+            final byte[] w = words[i];
+            if (w.length != length) continue;
+            for (int j = 0; j < length; j++) {
+                if (w[j] != buffer[start + j]) continue outer;
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Reads more of the stream into the buffer after {@link #limit}, growing the buffer if it is full.
+     */
+    private void read() throws IOException {
+        if (limit == buffer.length) {
+            byte[] bigger = new byte[buffer.length << 1];
+            System.arraycopy(buffer, 0, bigger, 0, limit);
+            buffer = bigger;
+        }
+        final int read = in.read(buffer, limit, buffer.length - limit);
+        if (read < 0) ended = true;
+        else limit += read;
+    }
+
+    /**
+     * Reads the start of the stream to tell if it is XML, and skips a UTF-8 byte order mark if there is one.
+     */
+    private void start() throws IOException {
+        started = true;
+        while (limit < 3 && !ended) read();
+        if (limit >= 3 && buffer[0] == (byte) 0xEF && buffer[1] == (byte) 0xBB && buffer[2] == (byte) 0xBF)
+            position = 3;
+        int i = position;
+        while (true) {
+            while (i < limit && buffer[i] >= 0 && buffer[i] <= ' ') i++;
+            if (i < limit || ended) break;
+            read();
+        }
+        xml = i < limit && buffer[i] == '<';
+        if (xml) terminator = '>';
+        findLines();
+    }
+
+    /**
+     * Sets {@link #lines} to the index after the last terminator in the buffer, if there is one after position.
+     */
+    private void findLines() {
+        if (ended) {
+            lines = limit;
+            return;
+        }
+        for (int i = limit - 1; i >= position; i--) {
+            if (buffer[i] == terminator) {
+                lines = i + 1;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Makes sure the whole record starting at {@link #position} is in the buffer, reading more of the stream if needed.
+     */
+    private void fill() throws IOException {
+        while (position >= lines && !ended) {
+            if (position > 0) {
+                System.arraycopy(buffer, position, buffer, 0, limit - position);
+                limit -= position;
+                lines = 0;
+                position = 0;
+            }
+            read();
+            findLines();
+        }
+    }
+
+    /**
+     * Skips a value starting at {@code i}, including any quoted part, stopping at the whitespace or terminator that
+     * ends it.
+     * @return the index after the value
+     */
+    private int skipValue(int i, int end) {
+        final byte[] buffer = this.buffer;
+        final byte terminator = this.terminator;
+        byte b;
+        while (i < end && ((b = buffer[i]) < 0 || b > ' ') && b != terminator) {
+            i++;
+            if (b == '"' || b == '\'') {
+                final byte quote = b;
+                while (i < end && (b = buffer[i]) != quote && b != '\n') i++;
+                if (i < end && b == quote) i++;
+            }
+        }
+        return i;
+    }
+
+    /**
+     * Reads the next record, setting the fields for each attribute it has and resetting the others.
+     * @return the type of record read, such as {@link #CHAR}, or {@link #END} if there are no more records
+     * @throws RuntimeException if the stream can't be read
+     */
+    public int next() {
+        id = x = y = width = height = xoffset = yoffset = xadvance = page = 0;
+        first = second = amount = count = pages = lineHeight = base = scaleW = scaleH = size = 0;
+        file = null;
+        try {
+            if (!started) start();
+            byte b;
+            while (true) {
+                fill();
+                while (position < lines && (b = buffer[position]) >= 0 && b <= ' ') position++;
+                if (position >= lines) {
+                    if (ended) return END;
+                    continue;
+                }
+                if (!xml) break;
+                if (buffer[position] == '<') {
+                    b = position + 1 < lines ? buffer[position + 1] : 0;
+                    if (b != '?' && b != '!' && b != '/') {
+                        position++;
+                        break;
+                    }
+                    while (position < lines && buffer[position++] != '>') ;
+                } else {
+                    while (position < lines && buffer[position] != '<') position++;
+                }
+            }
+
+            final byte[] buffer = this.buffer;
+            final byte terminator = this.terminator;
+            final int end = lines;
+            int i = position, start = i, hash = 0;
+            for (; i < end && ((b = buffer[i]) < 0 || b > ' ') && b != terminator; i++) {
+                hash = hash * 31 + b;
+            }
+            final int record = find(RECORDS, RECORD_HASHES, RECORD_TABLE, hash, start, i) + 1;
+            while (true) {
+                while (i < end && (b = buffer[i]) != terminator && b >= 0 && b <= ' ') i++;
+                if (i >= end || buffer[i] == terminator) {
+                    position = i + 1;
+                    return record;
+                }
+                start = i;
+                hash = 0;
+                for (; i < end && ((b = buffer[i]) < 0 || b > ' ') && b != '=' && b != terminator; i++) {
+                    hash = hash * 31 + b;
+                }
+                final int key = find(KEYS, KEY_HASHES, KEY_TABLE, hash, start, i);
+                if (i >= end || buffer[i] != '=') continue;
+                i++;
+                if (key < 0 || key == CHNL) {
+                    i = skipValue(i, end);
+                    continue;
+                }
+                final byte quote = i < end && (buffer[i] == '"' || buffer[i] == '\'') ? buffer[i++] : 0;
+                if (key == FILE) {
+                    if (record == PAGE) {
+                        start = i;
+                        while (i < end && (b = buffer[i]) != '\n' && (quote != 0 ? b != quote : b < 0 || b > ' ')) i++;
+                        file = new String(buffer, start, i - start, UTF_8);
+                    }
+                } else {
+                    int n = 0;
+                    final boolean negative = i < end && buffer[i] == '-';
+                    if (negative || i < end && buffer[i] == '+') i++;
+                    for (; i < end && (b = buffer[i]) >= '0' && b <= '9'; i++) {
+                        n = n * 10 + b - '0';
+                    }
+                    if (negative) n = -n;
+                    switch (key) {
+                        case 0: id = n; break;
+                        case 1: x = n; break;
+                        case 2: y = n; break;
+                        case 3: width = n; break;
+                        case 4: height = n; break;
+                        case 5: xoffset = n; break;
+                        case 6: yoffset = n; break;
+                        case 7: xadvance = n; break;
+                        case 8: page = n; break;
+                        case 10: first = n; break;
+                        case 11: second = n; break;
+                        case 12: amount = n; break;
+                        case 13: count = n; break;
+                        case 14: pages = n; break;
+                        case 15: lineHeight = n; break;
+                        case 16: base = n; break;
+                        case 17: scaleW = n; break;
+                        case 18: scaleH = n; break;
+                        case 19: size = n; break;
+                    }
+                }
+                if (quote != 0) {
+                    while (i < end && (b = buffer[i]) != quote && b != '\n') i++;
+                    if (i < end && buffer[i] == quote) i++;
+                }
+                if (i < end && ((b = buffer[i]) < 0 || b > ' ') && b != terminator) i = skipValue(i, end);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Couldn't read font file", e);
+        }
+    }
+
+    /**
+     * Closes the stream this reads from.
+     */
+    @Override
+    public void close() {
+        StreamUtils.closeQuietly(in);
+    }
+}
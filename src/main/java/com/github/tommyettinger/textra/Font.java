@@ -11,8 +11,16 @@ import com.badlogic.gdx.graphics.g2d.DistanceFieldFont;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.graphics.glutils.ShaderProgram;
 import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.utils.*;
 
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.Charset;
 import java.util.Arrays;
 import java.util.BitSet;
 
@@ -31,9 +39,20 @@ import java.util.BitSet;
  * part of libGDX; MSDF fonts are harder to generate, but possible using a tool like
  * <a href="https://github.com/tommyettinger/Glamer">Glamer</a>.
  * <br>
+ * Fonts can be loaded from AngelCode BMFont .fnt files in the text, XML, or binary (version 3) format; which one a
+ * file uses is detected from its contents, not its name. They can also be copied from a libGDX {@link BitmapFont}, or
+ * loaded from a file compiled by {@link #compileFNT(FileHandle, FileHandle, float, float, float, float)}.
+ * <br>
  * This interacts with the {@link Layout} class, with a Layout referencing a Font, and various methods in Font taking
  * a Layout. You usually want to have a Layout for any text you draw repeatedly, and draw that Layout each frame with
  * {@link #drawGlyphs(Batch, Layout, float, float, int)} or a similar method.
+ * <br>
+ * Once a Font is loaded, {@link #markup(String, Layout)} (and its other overloads), {@link #reflow(Layout)}, and
+ * {@link #measure(CharSequence, Measurement)} only read from it, so they are safe to call from any number of threads
+ * at once, including while the render thread draws with this Font, as long as each thread uses its own Layout or
+ * Measurement. The Font itself shouldn't be changed at the same time, such as by {@link #scale(float, float)} or
+ * {@link #putGlyph(char, GlyphRegion)}. The drawing methods share scratch space, and like a Batch, they should only
+ * be used by one thread at a time.
  * @see #markup(String, Layout) The markup() method's documentation covers all the markup tags.
  */
 public class Font implements Disposable {
@@ -61,6 +80,11 @@ public class Font implements Disposable {
          */
         public float xAdvance;
 
+        /**
+         * The {@link GlyphMetrics} this was most recently assigned to, if any; it is invalidated when this changes.
+         */
+        GlyphMetrics metrics;
+
         /**
          * Creates a GlyphRegion from a parent TextureRegion (typically from an atlas), along with the lower-left x and
          * y coordinates, the width, and the height of the GlyphRegion.
@@ -99,6 +123,58 @@ public class Font implements Disposable {
                 xAdvance = -xAdvance; // TODO: not sure if this is the expected behavior...
             }
             if (y) offsetY = -offsetY;
+            invalidate();
+        }
+
+        /**
+         * Marks the precomputed {@link GlyphMetrics} of the Font this belongs to as needing to be recalculated. This is
+         * called automatically when the texture coordinates change, but you need to call it yourself after changing
+         * {@link #offsetX}, {@link #offsetY}, or {@link #xAdvance}.
+         */
+        public void invalidate() {
+            if (metrics != null) metrics.invalidate();
+        }
+
+        @Override
+        public void setRegion(float u, float v, float u2, float v2) {
+            super.setRegion(u, v, u2, v2);
+            invalidate();
+        }
+
+        @Override
+        public void setTexture(Texture texture) {
+            super.setTexture(texture);
+            invalidate();
+        }
+
+        @Override
+        public void setU(float u) {
+            super.setU(u);
+            invalidate();
+        }
+
+        @Override
+        public void setV(float v) {
+            super.setV(v);
+            invalidate();
+        }
+
+        @Override
+        public void setU2(float u2) {
+            super.setU2(u2);
+            invalidate();
+        }
+
+        @Override
+        public void setV2(float v2) {
+            super.setV2(v2);
+            invalidate();
+        }
+
+        @Override
+        public void scroll(float xAmount, float yAmount) {
+            super.scroll(xAmount, yAmount);
+            invalidate();
         }
     }
 
@@ -134,11 +210,23 @@ public class Font implements Disposable {
     //// members section
 
     public IntMap<GlyphRegion> mapping;
+    /**
+     * Precomputed, scaled metrics for each glyph in {@link #mapping}, stored in parallel primitive arrays. This is what
+     * drawing and measuring use, because array lookups are much faster than looking up a char in an {@link IntMap} and
+     * then calling getters on its GlyphRegion. It is rebuilt by {@link #updateGlyphs()}, which is called automatically
+     * when the font loads; if you change {@link #mapping} directly, you must call updateGlyphs() yourself, or use
+     * {@link #putGlyph(char, GlyphRegion)}, which keeps both in sync. Scaling the font rescales this automatically.
+     */
+    protected final GlyphMetrics metrics = new GlyphMetrics();
     public GlyphRegion defaultValue;
     public Array<TextureRegion> parents;
     public DistanceFieldType distanceField = DistanceFieldType.STANDARD;
     public boolean isMono;
-    public IntIntMap kerning;
+    /**
+     * The kerning amount for each pair of chars that has one, keyed by {@link #kerningPair(char, char)}, or null if
+     * this Font has no kerning.
+     */
+    public KerningTable kerning;
     /**
      * When {@link #distanceField} is {@link DistanceFieldType#SDF} or {@link DistanceFieldType#MSDF}, this determines
      * how much the edges of the glyphs should be aliased sharply (higher values) or anti-aliased softly (lower values).
@@ -176,13 +264,21 @@ public class Font implements Disposable {
             UNDERLINE = 1L << 28, STRIKETHROUGH = 1L << 27,
             SUBSCRIPT = 1L << 25, MIDSCRIPT = 2L << 25, SUPERSCRIPT = 3L << 25;
 
+    /**
+     * Scratch space for the vertices of one quad. Only the drawing methods use this, and like a Batch, they should
+     * only be called from one thread at a time.
+     */
     private final float[] vertices = new float[20];
-    private final Layout tempLayout = Pools.obtain(Layout.class);
     /**
-     * Must be in lexicographic order because we use {@link java.util.Arrays#binarySearch(char[], int, int, char)} to
-     * verify if a char is present.
+     * Gathers quads by texture page for {@link #drawGlyphsByPage(Batch, Layout, float, float, int)}; created when
+     * first needed, and only used from the drawing thread, like {@link #vertices}.
      */
-    private final CharArray breakChars = CharArray.with(
+    private LayoutCache pageSorter;
+    /**
+     * Chars that a line can be wrapped after. Every char in {@link #spaceBits} is also here. Stored as a BitSet so
+     * checking a char is a single lookup.
+     */
+    private static final BitSet breakBits = bitsFor(
             '\t',    // horizontal tab
             ' ',     // space
             '-',     // ASCII hyphen-minus
@@ -206,10 +302,9 @@ public class Font implements Disposable {
     );
 
     /**
-     * Must be in lexicographic order because we use {@link java.util.Arrays#binarySearch(char[], int, int, char)} to
-     * verify if a char is present.
+     * Chars that are dropped from the end of a line when it wraps after them.
      */
-    private final CharArray spaceChars = CharArray.with(
+    private static final BitSet spaceBits = bitsFor(
             '\t',    // horizontal tab
             ' ',     // space
             '\u2000',// Unicode space
@@ -225,6 +320,14 @@ public class Font implements Disposable {
             '\u200B' // Unicode space (zero-width)
     );
 
+    private static BitSet bitsFor(char... chars) {
+        BitSet bits = new BitSet(chars[chars.length - 1] + 1);
+        for (char c : chars) {
+            bits.set(c);
+        }
+        return bits;
+    }
+
     /**
      * The standard libGDX vertex shader source, which is also used by the MSDF shader.
      */
@@ -261,6 +364,78 @@ public class Font implements Disposable {
             + "  gl_FragColor = vec4(v_color.rgb, clamp((max(min(sdf.r, sdf.g), min(max(sdf.r, sdf.g), sdf.b)) - 0.5) * u_smoothing + 0.5, 0.0, 1.0) * v_color.a);\n"
             + "}\n";
 
+    /**
+     * Vertex shader source for the bold-aware shaders that {@link #enableShaderBold()} creates; it must be paired with
+     * {@link #sdfBoldFragmentShader} or {@link #msdfBoldFragmentShader}. This is the standard libGDX vertex shader,
+     * except that it also reads whether a glyph is bold: Font adds 2 to the horizontal texture coordinates of bold
+     * glyphs it draws with {@link #boldShader}, and this subtracts that again and passes {@code v_bold} (1.0 for bold,
+     * otherwise 0.0) to the fragment shader, so a bold glyph is one quad instead of several.
+     */
+    public static final String distanceFieldVertexShader = "attribute vec4 " + ShaderProgram.POSITION_ATTRIBUTE + ";\n"
+            + "attribute vec4 " + ShaderProgram.COLOR_ATTRIBUTE + ";\n"
+            + "attribute vec2 " + ShaderProgram.TEXCOORD_ATTRIBUTE + "0;\n"
+            + "uniform mat4 u_projTrans;\n"
+            + "varying vec4 v_color;\n"
+            + "varying vec2 v_texCoords;\n"
+            + "varying float v_bold;\n"
+            + "\n"
+            + "void main() {\n"
+            + "	v_color = " + ShaderProgram.COLOR_ATTRIBUTE + ";\n"
+            + "	v_color.a = v_color.a * (255.0/254.0);\n"
+            + "	v_bold = step(1.5, " + ShaderProgram.TEXCOORD_ATTRIBUTE + "0.x);\n"
+            + "	v_texCoords = vec2(" + ShaderProgram.TEXCOORD_ATTRIBUTE + "0.x - 2.0 * v_bold, " + ShaderProgram.TEXCOORD_ATTRIBUTE + "0.y);\n"
+            + "	gl_Position =  u_projTrans * " + ShaderProgram.POSITION_ATTRIBUTE + ";\n"
+            + "}\n";
+
+    /**
+     * Fragment shader source for MSDF fonts that thickens bold glyphs by lowering the distance threshold; this is
+     * {@link #msdfFragmentShader} with bold support. It must be paired with {@link #distanceFieldVertexShader}, and
+     * is only used if {@link #enableShaderBold()} is called.
+     */
+    public static final String msdfBoldFragmentShader = "#ifdef GL_ES\n"
+            + "	precision mediump float;\n"
+            + "	precision mediump int;\n"
+            + "#endif\n"
+            + "\n"
+            + "uniform sampler2D u_texture;\n"
+            + "uniform float u_smoothing;\n"
+            + "varying vec4 v_color;\n"
+            + "varying vec2 v_texCoords;\n"
+            + "varying float v_bold;\n"
+            + "\n"
+            + "void main() {\n"
+            + "  vec3 sdf = texture2D(u_texture, v_texCoords).rgb;\n"
+            + "  gl_FragColor = vec4(v_color.rgb, clamp((max(min(sdf.r, sdf.g), min(max(sdf.r, sdf.g), sdf.b)) - 0.5 + 0.1 * v_bold) * u_smoothing + 0.5, 0.0, 1.0) * v_color.a);\n"
+            + "}\n";
+
+    /**
+     * Fragment shader source for SDF fonts that thickens bold glyphs by lowering the distance threshold; this is the
+     * shader from {@link DistanceFieldFont#createDistanceFieldShader()} with bold support. It must be paired with
+     * {@link #distanceFieldVertexShader}, and is only used if {@link #enableShaderBold()} is called.
+     */
+    public static final String sdfBoldFragmentShader = "#ifdef GL_ES\n"
+            + "	precision mediump float;\n"
+            + "	precision mediump int;\n"
+            + "#endif\n"
+            + "\n"
+            + "uniform sampler2D u_texture;\n"
+            + "uniform float u_smoothing;\n"
+            + "varying vec4 v_color;\n"
+            + "varying vec2 v_texCoords;\n"
+            + "varying float v_bold;\n"
+            + "\n"
+            + "void main() {\n"
+            + "	if (u_smoothing > 0.0) {\n"
+            + "		float smoothing = 0.25 / u_smoothing;\n"
+            + "		float threshold = 0.5 - 0.1 * v_bold;\n"
+            + "		float distance = texture2D(u_texture, v_texCoords).a;\n"
+            + "		float alpha = smoothstep(threshold - smoothing, threshold + smoothing, distance);\n"
+            + "		gl_FragColor = vec4(v_color.rgb, alpha * v_color.a);\n"
+            + "	} else {\n"
+            + "		gl_FragColor = v_color * texture2D(u_texture, v_texCoords);\n"
+            + "	}\n"
+            + "}\n";
+
     /**
      * The ShaderProgram used to render this font, as used by {@link #enableShader(Batch)}.
      * If this is null, the font will be rendered with the Batch's default shader.
@@ -275,9 +450,47 @@ public class Font implements Disposable {
      * change any of the uniforms.
      */
     public ShaderProgram shader = null;
+    /**
+     * The bold-aware ShaderProgram created by {@link #enableShaderBold()}, or null if that hasn't been called. When
+     * {@link #shaderBold} is true, {@link #enableShader(Batch)} uses this instead of {@link #shader}.
+     */
+    protected ShaderProgram boldShader = null;
+    /**
+     * If true, {@link #enableShader(Batch)} uses {@link #boldShader}, and bold glyphs drawn while it is the Batch's
+     * shader are drawn as one quad that the shader thickens. This is only set to true by {@link #enableShaderBold()},
+     * once that shader has compiled. If false, or if the Batch has any other shader (or glyphs are being cached by a
+     * {@link LayoutCache}, which could be drawn with any shader), bold glyphs are drawn as three overlapping quads,
+     * offset left and right by 1 unit.
+     */
+    public boolean shaderBold = false;
+    /**
+     * If true, {@link #mapping}, {@link #kerning}, and the GlyphRegions in mapping are shared with other Fonts, such
+     * as views of this Font or other Fonts from the same {@link FontRegistry}, and shouldn't be changed in place. This
+     * is set on both the Font that shares its glyphs and the Font that uses them. Methods that change glyphs, like
+     * {@link #putGlyph(char, GlyphRegion)}, copy them first and set this to false.
+     */
+    protected boolean sharedGlyphs = false;
+    /**
+     * The Font whose {@link #parents} and {@link #shader} this uses, or null if this owns them; a Font that doesn't own
+     * its shader doesn't dispose it.
+     */
+    protected Font sharedFrom = null;
+    /**
+     * The FontRegistry this came from, if any; {@link #dispose()} releases this Font back to it.
+     */
+    protected FontRegistry registry = null;
 
     //// font parsing section
 
+    /**
+     * The first 4 bytes of any compiled font file written by
+     * {@link #compileFNT(FileHandle, FileHandle, float, float, float, float)}; these are the ASCII chars "TXF1".
+     */
+    public static final int BINARY_MAGIC = 0x54584631;
+
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
     private static final int[] hexCodes = new int[]
             {-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,
                     -1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,-1,
@@ -337,60 +550,111 @@ public class Font implements Disposable {
     }
 
     /**
-     * Reads in a CharSequence containing only decimal digits (0-9) with an optional sign at the start and returns the
-     * int they represent, reading at most 10 characters (11 if there is a sign) and returning the result if valid, or 0
-     * if nothing could be read. The leading sign can be '+' or '-' if present. This can technically be used to handle
-     * unsigned integers in decimal format, but it isn't the intended purpose. If you do use it for handling unsigned
-     * ints, 2147483647 is normally the highest positive int and -2147483648 the lowest negative one, but if you give
-     * this a number between 2147483647 and {@code 2147483647 + 2147483648}, it will interpret it as a negative number
-     * that fits in bounds using the normal rules for converting between signed and unsigned numbers.
-     * <br>
-     * Should be fairly close to the JDK's Integer.parseInt method, but this also supports CharSequence data instead of
-     * just String data, and allows specifying a start and end. This doesn't throw on invalid input, either, instead
-     * returning 0 if the first char is not a decimal digit, or stopping the parse process early if a non-decimal-digit
-     * char is read before end is reached. If the parse is stopped early, this behaves as you would expect for a number
-     * with less digits, and simply doesn't fill the larger places.
-     * @param cs a CharSequence, such as a String, containing only digits 0-9 with an optional sign
-     * @param start the (inclusive) first character position in cs to read
-     * @param end the (exclusive) last character position in cs to read (this stops after 10 or 11 characters if end is too large, depending on sign)
-     * @return the int that cs represents
+     * An immutable snapshot of the names that have been looked up by {@link #getColor(CharSequence, int, int)}, in an
+     * open-addressing table indexed by the low bits of their hash, which is stored in the parallel {@code hashes}
+     * array. Names are kept whether or not they are in {@link Colors}, so misses don't allocate either. The arrays are
+     * never changed after a table is published, so threads can read it without locking.
      */
-    private static int intFromDec(final CharSequence cs, final int start, int end)
-    {
-        int len, h, lim = 10;
-        if(cs == null || start < 0 || end <=0 || end - start <= 0
-                || (len = cs.length()) - start <= 0 || end > len)
-            return 0;
-        char c = cs.charAt(start);
-        if(c == '-')
-        {
-            len = -1;
-            lim = 11;
-            h = 0;
+    private static final class ColorNameTable {
+        final String[] names;
+        final int[] hashes;
+        final int count;
+
+        ColorNameTable(String[] names, int[] hashes, int count) {
+            this.names = names;
+            this.hashes = hashes;
+            this.count = count;
         }
-        else if(c == '+')
-        {
-            len = 1;
-            lim = 11;
-            h = 0;
+    }
+
+    /**
+     * The current table of color names; a lookup that misses replaces it with a copy that also has the new name.
+     */
+    private static volatile ColorNameTable colorNames = new ColorNameTable(new String[256], new int[256], 0);
+    /**
+     * Held only while replacing {@link #colorNames}, so two threads that miss at once don't lose each other's names.
+     */
+    private static final Object colorNameLock = new Object();
+    /**
+     * The most names {@link #getColor(CharSequence, int, int)} will remember; if more are looked up, it forgets them
+     * all and starts over.
+     */
+    private static final int COLOR_NAME_LIMIT = 4096;
+
+    /**
+     * Looks up a Color in {@link Colors} by name, where the name is the section of {@code text} from {@code start}
+     * (inclusive) to {@code end} (exclusive). This doesn't allocate a String for the name after the first time a given
+     * name has been looked up, because names are hashed in place and compared against a cache of Strings seen before.
+     * The cache only stores names, and each call still gets the current Color from Colors, so changes to Colors are
+     * always reflected. The cache is an immutable table that is replaced when a new name is seen, so lookups of names
+     * seen before never lock, and this is safe to call from any thread.
+     * @param text a CharSequence containing a color name, such as markup text
+     * @param start the first index of the name in text, inclusive
+     * @param end the last index of the name in text, exclusive
+     * @return the Color with that name in {@link Colors}, or null if there is none
+     */
+    public static Color getColor(CharSequence text, int start, int end) {
+        if (start < 0 || end > text.length() || start > end) return null;
+        int h = 0;
+        for (int i = start; i < end; i++) {
+            h = 31 * h + text.charAt(i);
         }
-        else if(c > 102 || (h = hexCodes[c]) < 0 || h > 9)
-            return 0;
-        else
-        {
-            len = 1;
+        final String found = findColorName(colorNames, h, text, start, end);
+        if (found != null) return Colors.get(found);
+        final String name = text.subSequence(start, end).toString();
+        synchronized (colorNameLock) {
+            final ColorNameTable table = colorNames;
+            if (findColorName(table, h, name, 0, name.length()) == null)
+                colorNames = withColorName(table, name, h);
         }
-        int data = h;
-        for (int i = start + 1; i < end && i < start + lim; i++) {
-            if((c = cs.charAt(i)) > 102 || (h = hexCodes[c]) < 0 || h > 9)
-                return data * len;
-            data = data * 10 + h;
+        return Colors.get(name);
+    }
+
+    private static String findColorName(ColorNameTable table, int h, CharSequence text, int start, int end) {
+        final String[] names = table.names;
+        final int mask = names.length - 1;
+        for (int idx = h & mask; names[idx] != null; idx = idx + 1 & mask) {
+            if (table.hashes[idx] == h && regionEquals(names[idx], text, start, end))
+                return names[idx];
         }
-        return data * len;
+        return null;
+    }
+
+    private static boolean regionEquals(String name, CharSequence text, int start, int end) {
+        if (name.length() != end - start) return false;
+        for (int i = 0; start < end; i++, start++) {
+            if (name.charAt(i) != text.charAt(start)) return false;
+        }
+        return true;
     }
 
-    private static int indexAfter(String text, String search, int from){
-        return ((from = text.indexOf(search, from)) < 0 ? text.length() : from + search.length());
+    /**
+     * Copies a table of color names with one name added, forgetting all the others if the table is at
+     * {@link #COLOR_NAME_LIMIT}, and doubling the capacity if it would be more than half full.
+     */
+    private static ColorNameTable withColorName(ColorNameTable table, String name, int h) {
+        final String[] oldNames = table.names;
+        final int[] oldHashes = table.hashes;
+        int capacity = oldNames.length, count = table.count;
+        if (count >= COLOR_NAME_LIMIT) count = 0;
+        else if (count * 2 >= capacity) capacity <<= 1;
+        final String[] names = new String[capacity];
+        final int[] hashes = new int[capacity];
+        final int mask = capacity - 1;
+        if (count != 0) {
+            for (int i = 0; i < oldNames.length; i++) {
+                if (oldNames[i] == null) continue;
+                int idx = oldHashes[i] & mask;
+                while (names[idx] != null) idx = idx + 1 & mask;
+                names[idx] = oldNames[i];
+                hashes[idx] = oldHashes[i];
+            }
+        }
+        int idx = h & mask;
+        while (names[idx] != null) idx = idx + 1 & mask;
+        names[idx] = name;
+        hashes[idx] = h;
+        return new ColorNameTable(names, hashes, count + 1);
     }
 
     //// GWT case checks, hooray for Unicode...
@@ -499,11 +763,62 @@ public class Font implements Disposable {
             mapping.put(e.key, new GlyphRegion(e.value));
         }
         defaultValue = toCopy.defaultValue;
-        kerning = toCopy.kerning == null ? null : new IntIntMap(toCopy.kerning);
+        kerning = toCopy.kerning == null ? null : new KerningTable(toCopy.kerning);
+        updateGlyphs();
 
         // the shader is not copied, because there isn't much point in having different copies of a ShaderProgram.
         if(toCopy.shader != null)
             shader = toCopy.shader;
+        // the bold shader is created again, because this Font disposes its own bold shader.
+        if(toCopy.shaderBold)
+            enableShaderBold();
+    }
+
+    /**
+     * Creates a Font that shares the glyphs, kerning, textures, and shader of {@code toShare} instead of copying them,
+     * starting at the same scale. Only the scaled metrics are calculated for the new Font, so this is much cheaper
+     * than {@link #Font(Font)}; the new Font can be scaled without affecting toShare. The glyphs are shared
+     * copy-on-write: if either Font's glyphs are changed with {@link #putGlyph(char, GlyphRegion)} or
+     * {@link #updateGlyphs()}, that Font copies them first, so the other is unaffected. Disposing the new Font never
+     * disposes the shared shader.
+     * @param toShare another Font, which must stay loaded while the new Font is used
+     * @param registry the FontRegistry that the new Font should be released to when disposed, or null
+     */
+    protected Font(Font toShare, FontRegistry registry){
+        this(toShare, registry, 1f, 1f);
+    }
+
+    /**
+     * Creates a Font that shares the glyphs, kerning, textures, and shader of {@code toShare}, like
+     * {@link #Font(Font, FontRegistry)}, but scaled by the given multipliers relative to toShare; the scaled metrics
+     * are only calculated once, at the new scale.
+     * @param toShare another Font, which must stay loaded while the new Font is used
+     * @param registry the FontRegistry that the new Font should be released to when disposed, or null
+     * @param horizontal how much to multiply the width of each glyph in toShare by
+     * @param vertical how much to multiply the height of each glyph in toShare by
+     */
+    protected Font(Font toShare, FontRegistry registry, float horizontal, float vertical){
+        distanceField = toShare.distanceField;
+        isMono = toShare.isMono;
+        distanceFieldCrispness = toShare.distanceFieldCrispness;
+        parents = toShare.parents;
+        cellWidth = toShare.cellWidth * horizontal;
+        cellHeight = toShare.cellHeight * vertical;
+        scaleX = toShare.scaleX * horizontal;
+        scaleY = toShare.scaleY * vertical;
+        originalCellWidth = toShare.originalCellWidth;
+        originalCellHeight = toShare.originalCellHeight;
+        mapping = toShare.mapping;
+        defaultValue = toShare.defaultValue;
+        kerning = toShare.kerning;
+        sharedGlyphs = true;
+        toShare.sharedGlyphs = true;
+        metrics.share(toShare.metrics, scaleX, scaleY);
+        shader = toShare.shader;
+        boldShader = toShare.boldShader;
+        shaderBold = toShare.shaderBold;
+        sharedFrom = toShare.sharedFrom == null ? toShare : toShare.sharedFrom;
+        this.registry = registry;
     }
 
     /**
@@ -689,6 +1004,58 @@ public class Font implements Disposable {
         loadFNT(fntName, xAdjust, yAdjust, widthAdjust, heightAdjust);
     }
 
+    /**
+     * Constructs a Font by reading in a compiled font file, as produced by
+     * {@link #compileFNT(FileHandle, FileHandle, float, float, float, float)}, and loading any images it specifies.
+     * Any adjustments were already applied when the font was compiled. Does not use a distance field effect.
+     * @param binaryHandle a FileHandle to a compiled font file
+     */
+    public Font(FileHandle binaryHandle) {
+        this(binaryHandle, DistanceFieldType.STANDARD);
+    }
+
+    /**
+     * Constructs a Font by reading in a compiled font file, as produced by
+     * {@link #compileFNT(FileHandle, FileHandle, float, float, float, float)}, and loading any images it specifies.
+     * Any adjustments were already applied when the font was compiled. Uses the specified distance field effect.
+     * @param binaryHandle a FileHandle to a compiled font file
+     * @param distanceField determines how edges are drawn; if unsure, you should use {@link DistanceFieldType#STANDARD}
+     */
+    public Font(FileHandle binaryHandle, DistanceFieldType distanceField) {
+        this(binaryHandle, null, distanceField);
+    }
+
+    /**
+     * Constructs a Font by reading in a compiled font file, as produced by
+     * {@link #compileFNT(FileHandle, FileHandle, float, float, float, float)}, using the given TextureRegion Array
+     * (in order) for the pages it uses, and the specified distance field effect. If textureRegions is null or has
+     * fewer items than the font has pages, the images the compiled font specifies are loaded instead.
+     * @param binaryHandle a FileHandle to a compiled font file
+     * @param textureRegions an Array of TextureRegions that will be used in order as the font uses more pages; may be null
+     * @param distanceField determines how edges are drawn; if unsure, you should use {@link DistanceFieldType#STANDARD}
+     */
+    public Font(FileHandle binaryHandle, Array<TextureRegion> textureRegions, DistanceFieldType distanceField) {
+        this.distanceField = distanceField;
+        if (distanceField == DistanceFieldType.MSDF) {
+            shader = new ShaderProgram(vertexShader, msdfFragmentShader);
+            if (!shader.isCompiled())
+                Gdx.app.error("textramode", "MSDF shader failed to compile: " + shader.getLog());
+        }
+        else if(distanceField == DistanceFieldType.SDF){
+            shader = DistanceFieldFont.createDistanceFieldShader();
+            if(!shader.isCompiled())
+                Gdx.app.error("textramode", "SDF shader failed to compile: " + shader.getLog());
+        }
+        this.parents = textureRegions;
+        if ((distanceField == DistanceFieldType.SDF || distanceField == DistanceFieldType.MSDF)
+                && textureRegions != null)
+        {
+            for(TextureRegion parent : textureRegions)
+                parent.getTexture().setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
+        }
+        loadBinary(binaryHandle);
+    }
+
     /**
      * Constructs a new Font from the existing BitmapFont, using its same Textures and TextureRegions for glyphs, and
      * without a distance field effect.
@@ -735,6 +1102,20 @@ public class Font implements Disposable {
         BitmapFont.BitmapFontData data = bmFont.getData();
         mapping = new IntMap<>(128);
         int minWidth = Integer.MAX_VALUE;
+        // BitmapFont keeps kerning in sparse pages of bytes; counting the pairs first lets kerning be sized once
+        int kerned = 0;
+        for (BitmapFont.Glyph[] page : data.glyphs) {
+            if (page == null) continue;
+            for (BitmapFont.Glyph glyph : page) {
+                if (glyph == null || glyph.kerning == null) continue;
+                for (byte[] kern : glyph.kerning) {
+                    if (kern == null) continue;
+                    for (int i = 0; i < 512; i++) {
+                        if (kern[i] != 0) kerned++;
+                    }
+                }
+            }
+        }
         for (BitmapFont.Glyph[] page : data.glyphs) {
             if (page == null) continue;
             for (BitmapFont.Glyph glyph : page) {
@@ -760,7 +1141,7 @@ public class Font implements Disposable {
                     gr.xAdvance = a;
                     mapping.put(glyph.id & 0xFFFF, gr);
                     if(glyph.kerning != null) {
-                        if(kerning == null) kerning = new IntIntMap(128);
+                        if(kerning == null) kerning = new KerningTable(kerned);
                         for (int b = 0; b < glyph.kerning.length; b++) {
                             byte[] kern = glyph.kerning[b];
                             if(kern != null) {
@@ -781,11 +1162,15 @@ public class Font implements Disposable {
         originalCellWidth = cellWidth;
         originalCellHeight = cellHeight;
         isMono = minWidth == cellWidth && kerning == null;
+        updateGlyphs();
         scale(bmFont.getScaleX(), bmFont.getScaleY());
     }
     /**
      * The gritty parsing code that pulls relevant info from a FNT file and uses it to assemble the
-     * many {@code TextureRegion}s this has for each glyph.
+     * many {@code TextureRegion}s this has for each glyph. Text and XML files are read a line or element at a time with
+     * a {@link FntReader}, so they are never held in memory as a whole, and attributes can be in any order; files in
+     * the BMFont binary format are detected from their first bytes and read by
+     * {@link #loadBMFontBinary(FileHandle, float, float, float, float)} instead.
      * @param fntName the file name of the .fnt file; can be internal or classpath
      * @param xAdjust added to the x-position for each glyph in the font
      * @param yAdjust added to the y-position for each glyph in the font
@@ -794,129 +1179,500 @@ public class Font implements Disposable {
      */
     protected void loadFNT(String fntName, float xAdjust, float yAdjust, float widthAdjust, float heightAdjust) {
         FileHandle fntHandle;
-        String fnt;
-        if ((fntHandle = Gdx.files.internal(fntName)).exists()
-                || (fntHandle = Gdx.files.classpath(fntName)).exists()) {
-            fnt = fntHandle.readString("UTF8");
-        } else {
+        if (!(fntHandle = Gdx.files.internal(fntName)).exists()
+                && !(fntHandle = Gdx.files.classpath(fntName)).exists()) {
             throw new RuntimeException("Missing font file: " + fntName);
         }
-        int idx = indexAfter(fnt, " pages=", 0);
-        int pages = intFromDec(fnt, idx, idx = indexAfter(fnt, "\npage id=", idx));
-        if (parents == null || parents.size < pages) {
-            if (parents == null) parents = new Array<>(true, pages, TextureRegion.class);
-            else parents.clear();
-            FileHandle textureHandle;
-            for (int i = 0; i < pages; i++) {
-                String textureName = fnt.substring(idx = indexAfter(fnt, "file=\"", idx), idx = fnt.indexOf('"', idx));
-                if ((textureHandle = Gdx.files.internal(textureName)).exists()
-                        || (textureHandle = Gdx.files.classpath(textureName)).exists()) {
-                    parents.add(new TextureRegion(new Texture(textureHandle)));
-                    if (distanceField == DistanceFieldType.SDF || distanceField == DistanceFieldType.MSDF)
-                        parents.peek().getTexture().setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
-                } else {
-                    throw new RuntimeException("Missing texture file: " + textureName);
-                }
-
-            }
+        if (isBMFontBinary(fntHandle)) {
+            loadBMFontBinary(fntHandle, xAdjust, yAdjust, widthAdjust, heightAdjust);
+            return;
         }
-        int size = intFromDec(fnt, idx = indexAfter(fnt, "\nchars count=", idx), idx = indexAfter(fnt, "\nchar id=", idx));
-        mapping = new IntMap<>(size);
+        FntReader reader = new FntReader(fntHandle.read());
+        boolean loadPages = parents == null;
         int minWidth = Integer.MAX_VALUE;
-        for (int i = 0; i < size; i++) {
-            int c = intFromDec(fnt, idx, idx = indexAfter(fnt, " x=", idx));
-            int x = intFromDec(fnt, idx, idx = indexAfter(fnt, " y=", idx));
-            int y = intFromDec(fnt, idx, idx = indexAfter(fnt, " width=", idx));
-            int w = intFromDec(fnt, idx, idx = indexAfter(fnt, " height=", idx));
-            int h = intFromDec(fnt, idx, idx = indexAfter(fnt, " xoffset=", idx));
-            int xo = intFromDec(fnt, idx, idx = indexAfter(fnt, " yoffset=", idx));
-            int yo = intFromDec(fnt, idx, idx = indexAfter(fnt, " xadvance=", idx));
-            int a = intFromDec(fnt, idx, idx = indexAfter(fnt, " page=", idx));
-            int p = intFromDec(fnt, idx, idx = indexAfter(fnt, "\nchar id=", idx));
-
-            x += xAdjust;
-            y += yAdjust;
-            a += widthAdjust;
-            h += heightAdjust;
-            minWidth = Math.min(minWidth, a);
-            cellWidth = Math.max(a, cellWidth);
-            cellHeight = Math.max(h, cellHeight);
-            GlyphRegion gr = new GlyphRegion(parents.get(p), x, y, w, h);
-            if(c == 10)
-            {
-                a = 0;
-                gr.offsetX = 0;
-            }
-            else
-                gr.offsetX = xo;
-            gr.offsetY = yo;
-            gr.xAdvance = a;
-            mapping.put(c, gr);
-        }
-        idx = indexAfter(fnt, "\nkernings count=", 0);
-        if(idx < fnt.length()){
-            int kernings = intFromDec(fnt, idx, idx = indexAfter(fnt, "\nkerning first=", idx));
-            kerning = new IntIntMap(kernings);
-            for (int i = 0; i < kernings; i++) {
-                int first = intFromDec(fnt, idx, idx = indexAfter(fnt, " second=", idx));
-                int second = intFromDec(fnt, idx, idx = indexAfter(fnt, " amount=", idx));
-                int amount = intFromDec(fnt, idx, idx = indexAfter(fnt, "\nkerning first=", idx));
-                kerning.put(first << 16 | second, amount);
+        try {
+            for (int record = reader.next(); record != FntReader.END; record = reader.next()) {
+                switch (record) {
+                    case FntReader.COMMON:
+                        if (parents == null) parents = new Array<>(true, reader.pages, TextureRegion.class);
+                        else if (loadPages = parents.size < reader.pages) parents.clear();
+                        break;
+                    case FntReader.PAGE:
+                        if (loadPages) loadPage(reader.file);
+                        break;
+                    case FntReader.CHARS:
+                        mapping = new IntMap<>(Math.max(0, reader.count));
+                        break;
+                    case FntReader.CHAR:
+                        if (mapping == null) mapping = new IntMap<>();
+                        minWidth = Math.min(minWidth, putLoadedGlyph(reader.id, reader.x, reader.y, reader.width,
+                                reader.height, reader.xoffset, reader.yoffset, reader.xadvance, reader.page,
+                                xAdjust, yAdjust, widthAdjust, heightAdjust));
+                        break;
+                    case FntReader.KERNINGS:
+                        kerning = new KerningTable(reader.count);
+                        break;
+                    case FntReader.KERNING:
+                        if (kerning == null) kerning = new KerningTable();
+                        kerning.put(reader.first << 16 | reader.second, reader.amount);
+                        break;
+                }
             }
+        } finally {
+            reader.close();
         }
+        if (mapping == null) mapping = new IntMap<>();
         defaultValue = mapping.get(' ', mapping.get(0));
         originalCellWidth = cellWidth;
         originalCellHeight = cellHeight;
         isMono = minWidth == cellWidth && kerning == null;
+        updateGlyphs();
     }
 
-    //// usage section
-
     /**
-     * Assembles two chars into a kerning pair that can be looked up as a key in {@link #kerning}.
-     * If you give such a pair to {@code kerning}'s {@link IntIntMap#get(int, int)} method, you'll get the amount of
-     * extra space (in the same unit the font uses) this will insert between {@code first} and {@code second}.
-     * @param first the first char
-     * @param second the second char
-     * @return a kerning pair that can be looked up in {@link #kerning}
+     * Checks whether a file starts with the bytes every file in the AngelCode BMFont binary format starts with; this
+     * only reads the first few bytes of the file.
+     * @param fntHandle a FileHandle to a .fnt file in any format
+     * @return true if fntHandle is in the BMFont binary format, of any version
      */
-    public int kerningPair(char first, char second) {
-        return first << 16 | (second & 0xFFFF);
+    public static boolean isBMFontBinary(FileHandle fntHandle) {
+        InputStream in = fntHandle.read();
+        try {
+            return in.read() == 'B' && in.read() == 'M' && in.read() == 'F';
+        } catch (IOException e) {
+            throw new RuntimeException("Couldn't read font file: " + fntHandle, e);
+        } finally {
+            StreamUtils.closeQuietly(in);
+        }
     }
 
     /**
-     * Scales the font by the given horizontal and vertical multipliers.
-     * @param horizontal how much to multiply the width of each glyph by
-     * @param vertical how much to multiply the height of each glyph by
-     * @return this Font, for chaining
+     * Reads a .fnt file in the AngelCode BMFont binary format, version 3, and uses it to assemble the many
+     * {@code TextureRegion}s this has for each glyph, applying the adjustments the same way
+     * {@link #loadFNT(String, float, float, float, float)} does for the text format. The file is a series of blocks,
+     * each with a type and a length; the chars and kerning pairs are fixed-size little-endian records, so they are read
+     * without parsing any text, and the only Strings created are the texture file names (only if this needs to load
+     * the textures itself).
+     * @param fntHandle a FileHandle to a .fnt file in the BMFont binary format
+     * @param xAdjust added to the x-position for each glyph in the font
+     * @param yAdjust added to the y-position for each glyph in the font
+     * @param widthAdjust added to the glyph width for each glyph in the font
+     * @param heightAdjust added to the glyph height for each glyph in the font
      */
-    public Font scale(float horizontal, float vertical) {
-        scaleX *= horizontal;
-        scaleY *= vertical;
-        cellWidth *= horizontal;
-        cellHeight *= vertical;
-        return this;
+    protected void loadBMFontBinary(FileHandle fntHandle, float xAdjust, float yAdjust, float widthAdjust, float heightAdjust) {
+        ByteBuffer data = ByteBuffer.wrap(fntHandle.readBytes()).order(ByteOrder.LITTLE_ENDIAN);
+        if (data.remaining() < 4 || data.get(0) != 'B' || data.get(1) != 'M' || data.get(2) != 'F')
+            throw new RuntimeException("Not a BMFont binary file: " + fntHandle);
+        if (data.get(3) != 3)
+            throw new RuntimeException("Unsupported BMFont binary version " + data.get(3) + ": " + fntHandle);
+        data.position(4);
+        boolean loadPages = parents == null;
+        int minWidth = Integer.MAX_VALUE;
+        while (data.remaining() >= 5) {
+            final int type = data.get(), length = data.getInt(), blockEnd = data.position() + length;
+            switch (type) {
+                case 2: { // common
+                    int pages = data.getShort(data.position() + 8) & 0xFFFF;
+                    if (parents == null) parents = new Array<>(true, pages, TextureRegion.class);
+                    else if (loadPages = parents.size < pages) parents.clear();
+                    break;
+                }
+                case 3: // pages, as null-terminated file names
+                    if (!loadPages) break;
+                    for (int start = data.position(), i = start; i < blockEnd; i++) {
+                        if (data.get(i) == 0) {
+                            loadPage(new String(data.array(), start, i - start, UTF_8));
+                            start = i + 1;
+                        }
+                    }
+                    break;
+                case 4: // chars, 20 bytes each
+                    mapping = new IntMap<>(length / 20);
+                    for (int i = length / 20; i > 0; i--) {
+                        int c = data.getInt();
+                        int x = data.getShort() & 0xFFFF, y = data.getShort() & 0xFFFF;
+                        int w = data.getShort() & 0xFFFF, h = data.getShort() & 0xFFFF;
+                        int xo = data.getShort(), yo = data.getShort(), a = data.getShort();
+                        int p = data.get() & 0xFF;
+                        data.get(); // channel
+                        minWidth = Math.min(minWidth, putLoadedGlyph(c, x, y, w, h, xo, yo, a, p,
+                                xAdjust, yAdjust, widthAdjust, heightAdjust));
+                    }
+                    break;
+                case 5: // kerning pairs, 10 bytes each
+                    kerning = new KerningTable(length / 10);
+                    for (int i = length / 10; i > 0; i--) {
+                        int first = data.getInt(), second = data.getInt();
+                        kerning.put(first << 16 | second, data.getShort());
+                    }
+                    break;
+            }
+            data.position(blockEnd);
+        }
+        if (mapping == null) mapping = new IntMap<>();
+        defaultValue = mapping.get(' ', mapping.get(0));
+        originalCellWidth = cellWidth;
+        originalCellHeight = cellHeight;
+        isMono = minWidth == cellWidth && kerning == null;
+        updateGlyphs();
     }
 
     /**
-     * Scales the font so that it will have the given width and height.
-     * @param width the target width of the font, in world units
-     * @param height the target height of the font, in world units
-     * @return this Font, for chaining
+     * Loads a texture page named by a font file and adds it to {@link #parents}, using linear filtering if this uses
+     * a distance field effect.
+     * @param textureName the texture file name, exactly as the font file gives it; may be internal or classpath
      */
-    public Font scaleTo(float width, float height) {
-        scaleX = width / originalCellWidth;
-        scaleY = height / originalCellHeight;
-        cellWidth  = width;
-        cellHeight = height;
-        return this;
+    private void loadPage(String textureName) {
+        if (parents == null) parents = new Array<>(true, 1, TextureRegion.class);
+        FileHandle textureHandle;
+        if ((textureHandle = Gdx.files.internal(textureName)).exists()
+                || (textureHandle = Gdx.files.classpath(textureName)).exists()) {
+            parents.add(new TextureRegion(new Texture(textureHandle)));
+            if (distanceField == DistanceFieldType.SDF || distanceField == DistanceFieldType.MSDF)
+                parents.peek().getTexture().setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
+        } else {
+            throw new RuntimeException("Missing texture file: " + textureName);
+        }
     }
 
     /**
-     * Calls {@link #setTextureFilter(Texture.TextureFilter, Texture.TextureFilter)} with
-     * {@link com.badlogic.gdx.graphics.Texture.TextureFilter#Linear} for both min and mag filters.
-     * This is the most common usage for setting the texture filters, and is appropriate when you have
-     * a large TextureRegion holding the font and you normally downscale it. This is automatically done
+     * Adds a glyph read from a font file to {@link #mapping}, applying the adjustments and updating the cell size the
+     * same way for every font file format.
+     * @return the glyph's adjusted xAdvance, before it is set to 0 for the newline char
+     */
+    private int putLoadedGlyph(int c, int x, int y, int w, int h, int xo, int yo, int a, int p,
+                               float xAdjust, float yAdjust, float widthAdjust, float heightAdjust) {
+        x += xAdjust;
+        y += yAdjust;
+        a += widthAdjust;
+        h += heightAdjust;
+        cellWidth = Math.max(a, cellWidth);
+        cellHeight = Math.max(h, cellHeight);
+        GlyphRegion gr = new GlyphRegion(parents.get(p), x, y, w, h);
+        if (c == 10) {
+            gr.offsetX = 0;
+            gr.xAdvance = 0;
+        } else {
+            gr.offsetX = xo;
+            gr.xAdvance = a;
+        }
+        gr.offsetY = yo;
+        mapping.put(c, gr);
+        return a;
+    }
+
+    /**
+     * Reads a compiled font file, as written by {@link #compileFNT(FileHandle, FileHandle, float, float, float, float)},
+     * and uses it to assemble the many {@code TextureRegion}s this has for each glyph. The file is memory-mapped if
+     * possible (it won't be for classpath files or files inside a JAR, which are read fully into memory instead), and
+     * is read in one pass without creating any Strings other than the texture file names (only if this needs to load
+     * the textures itself).
+     * @param binaryHandle a FileHandle to a compiled font file
+     */
+    protected void loadBinary(FileHandle binaryHandle) {
+        if (!binaryHandle.exists())
+            throw new RuntimeException("Missing font file: " + binaryHandle);
+        ByteBuffer data;
+        try {
+            data = binaryHandle.map();
+        } catch (GdxRuntimeException e) {
+            data = ByteBuffer.wrap(binaryHandle.readBytes());
+        }
+        data.order(ByteOrder.BIG_ENDIAN);
+        if (data.getInt() != BINARY_MAGIC)
+            throw new RuntimeException("Not a compiled font file: " + binaryHandle);
+        int pages = data.getShort();
+        boolean loadPages = parents == null || parents.size < pages;
+        if (loadPages) {
+            if (parents == null) parents = new Array<>(true, pages, TextureRegion.class);
+            else parents.clear();
+        }
+        FileHandle textureHandle;
+        for (int i = 0; i < pages; i++) {
+            int length = data.getShort() & 0xFFFF;
+            if (!loadPages) {
+                data.position(data.position() + length);
+                continue;
+            }
+            byte[] nameBytes = new byte[length];
+            data.get(nameBytes);
+            String textureName = new String(nameBytes, UTF_8);
+            if ((textureHandle = Gdx.files.internal(textureName)).exists()
+                    || (textureHandle = Gdx.files.classpath(textureName)).exists()) {
+                parents.add(new TextureRegion(new Texture(textureHandle)));
+                if (distanceField == DistanceFieldType.SDF || distanceField == DistanceFieldType.MSDF)
+                    parents.peek().getTexture().setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
+            } else {
+                throw new RuntimeException("Missing texture file: " + textureName);
+            }
+        }
+        int size = data.getInt();
+        mapping = new IntMap<>(size);
+        for (int i = 0; i < size; i++) {
+            int c = data.getInt();
+            int x = data.getShort(), y = data.getShort(), w = data.getShort(), h = data.getShort();
+            int xo = data.getShort(), yo = data.getShort(), a = data.getShort(), p = data.get() & 0xFF;
+            GlyphRegion gr = new GlyphRegion(parents.get(p), x, y, w, h);
+            gr.offsetX = xo;
+            gr.offsetY = yo;
+            gr.xAdvance = a;
+            mapping.put(c, gr);
+        }
+        cellWidth = data.getFloat();
+        cellHeight = data.getFloat();
+        int minWidth = data.getInt();
+        int kernings = data.getInt();
+        if (kernings >= 0) {
+            kerning = new KerningTable(kernings);
+            for (int i = 0; i < kernings; i++) {
+                int pair = data.getInt();
+                kerning.put(pair, data.getShort());
+            }
+        }
+        defaultValue = mapping.get(' ', mapping.get(0));
+        originalCellWidth = cellWidth;
+        originalCellHeight = cellHeight;
+        isMono = minWidth == cellWidth && kerning == null;
+        updateGlyphs();
+    }
+
+    /**
+     * An offline converter that reads a text .fnt file, applies the given adjustments to it just as
+     * {@link #loadFNT(String, float, float, float, float)} would, and writes the resulting glyph and kerning tables
+     * into {@code output} using a compact binary format. The compiled file can be loaded later with
+     * {@link #Font(FileHandle, DistanceFieldType)} or a similar constructor, which is considerably faster than parsing
+     * the text format, especially for large fonts. The adjustments are baked into the compiled file, so the
+     * constructors that read it don't take them again. The texture file names are stored exactly as they appear in the
+     * .fnt file. Glyph positions, sizes, offsets, advances, and kerning amounts are stored as 16-bit values, so the
+     * font's texture pages should be no larger than 32767 pixels on a side.
+     * @param fntHandle a FileHandle to a .fnt file in the text format
+     * @param output a FileHandle that will be overwritten with the compiled font
+     * @param xAdjust how many pixels to offset each character's x-position by, moving to the right
+     * @param yAdjust how many pixels to offset each character's y-position by, moving up
+     * @param widthAdjust how many pixels to add to the used width of each character, using more to the right
+     * @param heightAdjust how many pixels to add to the used height of each character, using more above
+     */
+    public static void compileFNT(FileHandle fntHandle, FileHandle output,
+                                  float xAdjust, float yAdjust, float widthAdjust, float heightAdjust) {
+        if (!fntHandle.exists())
+            throw new RuntimeException("Missing font file: " + fntHandle);
+        Array<String> textureNames = new Array<>(true, 1, String.class);
+        IntArray glyphs = new IntArray(), kernings = null;
+        float cellWidth = 1f, cellHeight = 1f;
+        int minWidth = Integer.MAX_VALUE;
+        FntReader reader = new FntReader(fntHandle.read());
+        try {
+            for (int record = reader.next(); record != FntReader.END; record = reader.next()) {
+                switch (record) {
+                    case FntReader.PAGE:
+                        textureNames.add(reader.file);
+                        break;
+                    case FntReader.CHARS:
+                        glyphs.ensureCapacity(Math.max(0, reader.count) * 9);
+                        break;
+                    case FntReader.CHAR: {
+                        int c = reader.id, x = reader.x, y = reader.y, w = reader.width, h = reader.height;
+                        int xo = reader.xoffset, a = reader.xadvance;
+                        x += xAdjust;
+                        y += yAdjust;
+                        a += widthAdjust;
+                        h += heightAdjust;
+                        minWidth = Math.min(minWidth, a);
+                        cellWidth = Math.max(a, cellWidth);
+                        cellHeight = Math.max(h, cellHeight);
+                        if (c == 10) {
+                            a = 0;
+                            xo = 0;
+                        }
+                        glyphs.addAll(c, x, y, w, h, xo, reader.yoffset, a, reader.page);
+                        break;
+                    }
+                    case FntReader.KERNINGS:
+                        kernings = new IntArray(Math.max(0, reader.count) * 2);
+                        break;
+                    case FntReader.KERNING:
+                        if (kernings == null) kernings = new IntArray();
+                        kernings.add(reader.first << 16 | reader.second, reader.amount);
+                        break;
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(output.write(false), 8192));
+        try {
+            out.writeInt(BINARY_MAGIC);
+            out.writeShort(textureNames.size);
+            for (int i = 0; i < textureNames.size; i++) {
+                byte[] textureName = textureNames.get(i).getBytes(UTF_8);
+                out.writeShort(textureName.length);
+                out.write(textureName);
+            }
+            out.writeInt(glyphs.size / 9);
+            for (int i = 0; i < glyphs.size; i += 9) {
+                out.writeInt(glyphs.get(i));
+                for (int j = 1; j < 8; j++) {
+                    out.writeShort(glyphs.get(i + j));
+                }
+                out.writeByte(glyphs.get(i + 8));
+            }
+            out.writeFloat(cellWidth);
+            out.writeFloat(cellHeight);
+            out.writeInt(minWidth);
+            if (kernings != null) {
+                out.writeInt(kernings.size >> 1);
+                for (int i = 0; i < kernings.size; i += 2) {
+                    out.writeInt(kernings.get(i));
+                    out.writeShort(kernings.get(i + 1));
+                }
+            } else {
+                out.writeInt(-1);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Couldn't write compiled font file: " + output, e);
+        } finally {
+            StreamUtils.closeQuietly(out);
+        }
+    }
+
+    //// usage section
+
+    /**
+     * Assembles two chars into a kerning pair that can be looked up as a key in {@link #kerning}.
+     * If you give such a pair to {@code kerning}'s {@link KerningTable#get(int, int)} method, you'll get the amount of
+     * extra space (in the same unit the font uses) this will insert between {@code first} and {@code second}.
+     * @param first the first char
+     * @param second the second char
+     * @return a kerning pair that can be looked up in {@link #kerning}
+     */
+    public int kerningPair(char first, char second) {
+        return first << 16 | (second & 0xFFFF);
+    }
+
+    /**
+     * Rebuilds the precomputed glyph metrics this uses for drawing and measuring so they match {@link #mapping}. This is
+     * called automatically when a Font is constructed, and {@link #putGlyph(char, GlyphRegion)} updates the metrics
+     * for just one glyph, but if you change the contents of {@link #mapping} directly, you need to call this afterwards.
+     * Only chars in the Basic Multilingual Plane (keys from 0 to 65535) can be drawn, so keys outside that range are
+     * ignored here.
+     * @return this Font, for chaining
+     */
+    public Font updateGlyphs() {
+        if (sharedGlyphs)
+            ownGlyphs();
+        else
+            metrics.assign(mapping, scaleX, scaleY);
+        return this;
+    }
+
+    /**
+     * If this Font shares its glyphs with other Fonts (see {@link #sharedGlyphs}), gives it its own copy of
+     * {@link #mapping}, every GlyphRegion in it, and {@link #kerning}, so they can be changed without affecting the
+     * other Fonts. Otherwise, this does nothing.
+     */
+    protected void ownGlyphs() {
+        if (!sharedGlyphs) return;
+        sharedGlyphs = false;
+        IntMap<GlyphRegion> copy = new IntMap<>(mapping.size);
+        for(IntMap.Entry<GlyphRegion> e : mapping){
+            if(e.value == null) continue;
+            copy.put(e.key, new GlyphRegion(e.value));
+        }
+        mapping = copy;
+        kerning = kerning == null ? null : new KerningTable(kerning);
+        metrics.assign(mapping, scaleX, scaleY);
+    }
+
+    /**
+     * Gets the precomputed, scaled metrics for every glyph in this Font, as parallel arrays indexed by glyph slot.
+     * If any GlyphRegions changed since the metrics were last calculated, this recalculates them first.
+     * @return the GlyphMetrics this uses for drawing and measuring
+     */
+    public GlyphMetrics getMetrics() {
+        metrics.refresh();
+        return metrics;
+    }
+
+    /**
+     * Gets the GlyphRegion for the given char, or null if this Font doesn't have a glyph for it. This uses a paged
+     * table instead of looking up {@code c} in {@link #mapping}, so it is fast enough to call for each glyph drawn.
+     * @param c a char that may have a glyph in this Font
+     * @return the GlyphRegion used to draw c, or null if c has no glyph
+     */
+    public GlyphRegion getGlyph(char c) {
+        return metrics.regions[metrics.slot(c)];
+    }
+
+    /**
+     * Assigns a GlyphRegion to the given char, updating both {@link #mapping} and the precomputed metrics used by
+     * drawing and measuring. If {@code region} is null, this removes any glyph for {@code c} instead. If this Font
+     * shares its glyphs with other Fonts, it copies them first, so the other Fonts are unchanged.
+     * @param c the char that should be drawn using region
+     * @param region the GlyphRegion to draw for c, or null to remove c's glyph
+     * @return this Font, for chaining
+     */
+    public Font putGlyph(char c, GlyphRegion region) {
+        ownGlyphs();
+        if(region == null)
+            mapping.remove(c);
+        else
+            mapping.put(c, region);
+        metrics.put(c, region);
+        return this;
+    }
+
+    /**
+     * Scales the font by the given horizontal and vertical multipliers.
+     * @param horizontal how much to multiply the width of each glyph by
+     * @param vertical how much to multiply the height of each glyph by
+     * @return this Font, for chaining
+     */
+    public Font scale(float horizontal, float vertical) {
+        scaleX *= horizontal;
+        scaleY *= vertical;
+        cellWidth *= horizontal;
+        cellHeight *= vertical;
+        metrics.scale(scaleX, scaleY);
+        return this;
+    }
+
+    /**
+     * Creates a lightweight view of this Font at another size, which shares the glyphs, kerning, textures, and shader
+     * of this Font instead of copying them. This is much cheaper than {@code new Font(font).scale(...)}, in both time
+     * and memory, when the same typeface is needed at several sizes; the view only has its own scaled metrics (five
+     * floats per glyph) and cell size. The view can be scaled further on its own, and if its glyphs are changed with
+     * {@link #putGlyph(char, GlyphRegion)}, it copies them first. Likewise, if this Font's glyphs are changed after
+     * the view is made, this Font copies them first, so the view keeps the glyphs it was made with; the GlyphRegions
+     * themselves are still shared, so texture coordinates changed on one are seen by both. Disposing a view does
+     * nothing to the shared shader, and this Font must not be disposed while views of it are in use.
+     * @param horizontal how much to multiply the width of each glyph in this Font by
+     * @param vertical how much to multiply the height of each glyph in this Font by
+     * @return a new Font that shares everything but its scale with this Font
+     */
+    public Font scaledView(float horizontal, float vertical) {
+        return new Font(this, null, horizontal, vertical);
+    }
+
+    /**
+     * Scales the font so that it will have the given width and height.
+     * @param width the target width of the font, in world units
+     * @param height the target height of the font, in world units
+     * @return this Font, for chaining
+     */
+    public Font scaleTo(float width, float height) {
+        scaleX = width / originalCellWidth;
+        scaleY = height / originalCellHeight;
+        cellWidth  = width;
+        cellHeight = height;
+        metrics.scale(scaleX, scaleY);
+        return this;
+    }
+
+    /**
+     * Calls {@link #setTextureFilter(Texture.TextureFilter, Texture.TextureFilter)} with
+     * {@link com.badlogic.gdx.graphics.Texture.TextureFilter#Linear} for both min and mag filters.
+     * This is the most common usage for setting the texture filters, and is appropriate when you have
+     * a large TextureRegion holding the font and you normally downscale it. This is automatically done
      * for {@link DistanceFieldType#SDF} and {@link DistanceFieldType#MSDF} fonts, but you may also want
      * to use it for {@link DistanceFieldType#STANDARD} fonts when downscaling (they can look terrible
      * if the default {@link com.badlogic.gdx.graphics.Texture.TextureFilter#Nearest} filter is used).
@@ -950,10 +1706,12 @@ public class Font implements Disposable {
      * Must be called before drawing anything with an SDF or MSDF font; does not need to be called for other fonts
      * unless you are mixing them with SDF/MSDF fonts or other shaders. This also resets the Batch color to white, in
      * case it had been left with a different setting before. If this Font is not an MSDF font, then this resets batch's
-     * shader to the default (using {@code batch.setShader(null)}).
+     * shader to the default (using {@code batch.setShader(null)}). If {@link #enableShaderBold()} was called, this uses
+     * {@link #boldShader} instead of {@link #shader}.
      * @param batch the Batch to instruct to use the appropriate shader for this font; should usually be a SpriteBatch
      */
     public void enableShader(Batch batch) {
+        final ShaderProgram shader = shaderBold && boldShader != null ? boldShader : this.shader;
         if(distanceField == DistanceFieldType.MSDF) {
             if (batch.getShader() != shader) {
                 batch.setShader(shader);
@@ -971,6 +1729,31 @@ public class Font implements Disposable {
         batch.setPackedColor(Color.WHITE_FLOAT_BITS);
     }
 
+    /**
+     * Opts in to drawing bold glyphs of this SDF or MSDF font as one quad each, which the shader thickens, instead of
+     * three overlapping quads. This creates {@link #boldShader} from {@link #distanceFieldVertexShader} and
+     * {@link #sdfBoldFragmentShader} or {@link #msdfBoldFragmentShader}, which {@link #enableShader(Batch)} then uses
+     * instead of {@link #shader}; {@link #shader} itself is left alone. Bold glyphs are only drawn as one quad while
+     * the Batch's shader is {@link #boldShader}, so drawing with any other shader still works, just with overdraw.
+     * This does nothing for fonts without a distance field effect, or if the shader fails to compile (which is
+     * logged). Views of this Font made afterwards, such as with {@link #scaledView(float, float)}, share the shader.
+     * @return this Font, for chaining
+     */
+    public Font enableShaderBold() {
+        if (shaderBold || (distanceField != DistanceFieldType.SDF && distanceField != DistanceFieldType.MSDF))
+            return this;
+        ShaderProgram program = new ShaderProgram(distanceFieldVertexShader,
+                distanceField == DistanceFieldType.MSDF ? msdfBoldFragmentShader : sdfBoldFragmentShader);
+        if (!program.isCompiled()) {
+            Gdx.app.error("textramode", "Bold distance field shader failed to compile: " + program.getLog());
+            program.dispose();
+            return this;
+        }
+        boldShader = program;
+        shaderBold = true;
+        return this;
+    }
+
     /**
      * Draws the specified text at the given x,y position (in world space) with a white foreground.
      * @param batch typically a SpriteBatch
@@ -993,7 +1776,7 @@ public class Font implements Disposable {
         batch.setPackedColor(NumberUtils.intToFloatColor(Integer.reverseBytes(color)));
         GlyphRegion current;
         for (int i = 0, n = text.length(); i < n; i++) {
-            batch.draw(current = mapping.get(text.charAt(i)), x + current.offsetX, y + current.offsetY, current.getRegionWidth(), current.getRegionHeight());
+            batch.draw(current = getGlyph(text.charAt(i)), x + current.offsetX, y + current.offsetY, current.getRegionWidth(), current.getRegionHeight());
             x += current.getRegionWidth();
         }
     }
@@ -1033,30 +1816,45 @@ public class Font implements Disposable {
      * @return the number of glyphs drawn
      */
     public int drawMarkupText(Batch batch, String text, float x, float y) {
-        Layout layout = tempLayout;
-        layout.clear();
-        markup(text, tempLayout);
-        final int lines = layout.lines();
-        int drawn = 0;
-        for (int ln = 0; ln < lines; ln++) {
-            Line line = layout.getLine(ln);
-            int n = line.glyphs.size;
-            drawn += n;
-            if (kerning != null) {
-                int kern = -1, amt = 0;
-                long glyph;
-                for (int i = 0; i < n; i++) {
-                    kern = kern << 16 | (int) ((glyph = line.glyphs.get(i)) & 0xFFFF);
-                    amt = kerning.get(kern, 0);
-                    x += drawGlyph(batch, glyph, x + amt, y) + amt;
-                }
-            } else {
-                for (int i = 0; i < n; i++) {
-                    x += drawGlyph(batch, line.glyphs.get(i), x, y);
-                }
-            }
-            y -= cellHeight;
-        }
+        return drawMarkupText(batch, (CharSequence) text, 0, text.length(), x, y);
+    }
+
+    /**
+     * Draws the specified region of text at the given x,y position (in world space), parsing markup as
+     * {@link #drawMarkupText(Batch, String, float, float)} does. This can take a StringBuilder that is reused between
+     * frames, without calling toString() on it.
+     * @param batch typically a SpriteBatch
+     * @param text a String, StringBuilder, or other CharSequence with markup
+     * @param start the first index in text to read, inclusive
+     * @param end the last index in text to read, exclusive
+     * @param x the x position in world space to start drawing the text at (lower left corner)
+     * @param y the y position in world space to start drawing the text at (lower left corner)
+     * @return the number of glyphs drawn
+     */
+    public int drawMarkupText(Batch batch, CharSequence text, int start, int end, float x, float y) {
+        Layout layout = Pools.obtain(Layout.class);
+        markup(text, start, end, layout);
+        final int drawn = drawGlyphs(batch, layout, x, y, Align.left);
+        Pools.free(layout);
+        return drawn;
+    }
+
+    /**
+     * Draws {@code length} chars of text from a char array, starting at {@code offset}, at the given x,y position (in
+     * world space), parsing markup as {@link #drawMarkupText(Batch, String, float, float)} does.
+     * @param batch typically a SpriteBatch
+     * @param text a char array containing markup
+     * @param offset the first index in text to read
+     * @param length how many chars to read from text
+     * @param x the x position in world space to start drawing the text at (lower left corner)
+     * @param y the y position in world space to start drawing the text at (lower left corner)
+     * @return the number of glyphs drawn
+     */
+    public int drawMarkupText(Batch batch, char[] text, int offset, int length, float x, float y) {
+        Layout layout = Pools.obtain(Layout.class);
+        markup(text, offset, length, layout);
+        final int drawn = drawGlyphs(batch, layout, x, y, Align.left);
+        Pools.free(layout);
         return drawn;
     }
 
@@ -1093,6 +1891,140 @@ public class Font implements Disposable {
         return drawn;
     }
 
+    /**
+     * Draws the specified Layout of glyphs with a Batch, positioned exactly as
+     * {@link #drawGlyphs(Batch, Layout, float, float, int)} would draw it, but with the quads sorted by texture page
+     * first. Fonts with more than one page, like Gentium, can otherwise switch textures (and flush a SpriteBatch) on
+     * almost every glyph in mixed text; this draws each page's quads with one call instead, so the Batch switches
+     * texture at most once per page. Quads are gathered into a {@link LayoutCache} owned by this Font every time this
+     * is called, so text that doesn't change is better drawn with a LayoutCache of its own. Quads from different
+     * pages can be drawn in a different order than the text, which only matters if glyphs overlap.
+     * @param batch typically a SpriteBatch
+     * @param glyphs typically returned by {@link #markup(String, Layout)}
+     * @param x the x position in world space to start drawing the glyph at (where this is depends on align)
+     * @param y the y position in world space to start drawing the glyph at (where this is depends on align)
+     * @param align an {@link Align} constant; if {@link Align#left}, x and y refer to the lower left corner
+     * @return the number of glyphs drawn
+     */
+    public int drawGlyphsByPage(Batch batch, Layout glyphs, float x, float y, int align) {
+        if (pageSorter == null) pageSorter = new LayoutCache(this);
+        final LayoutCache sorter = pageSorter;
+        sorter.clear();
+        final float alpha = batch.getColor().a;
+        int drawn = 0;
+        for (int ln = 0, lines = glyphs.lines(); ln < lines; ln++, y -= cellHeight) {
+            drawn += drawLine(null, sorter, glyphs.getLine(ln), x, y, align, alpha);
+        }
+        sorter.draw(batch);
+        return drawn;
+    }
+
+    /**
+     * Draws the part of the specified Layout that can be seen in the rectangle {@code visible}, positioned exactly as
+     * {@link #drawGlyphs(Batch, Layout, float, float, int)} would draw the whole Layout. Lines that are entirely above
+     * or below visible are skipped without looking at their glyphs, and in the other lines, glyphs entirely left or
+     * right of visible aren't drawn, using the stored line widths and kerning to find where each glyph goes. This is
+     * meant for long Layouts inside a ScrollPane or another clipped area, where most of the text can't be seen; a few
+     * glyphs just outside visible may still be drawn.
+     * @param batch typically a SpriteBatch
+     * @param glyphs typically returned by {@link #markup(String, Layout)}
+     * @param x the x position in world space to start drawing the glyph at (where this is depends on align)
+     * @param y the y position in world space to start drawing the glyph at (where this is depends on align)
+     * @param align an {@link Align} constant; if {@link Align#left}, x and y refer to the lower left corner
+     * @param visible the area that can be seen, in the same world coordinates as x and y; if null, draws everything
+     * @return the number of glyphs drawn
+     */
+    public int drawGlyphs(Batch batch, Layout glyphs, float x, float y, int align, Rectangle visible) {
+        if (visible == null) return drawGlyphs(batch, glyphs, x, y, align);
+        final GlyphMetrics m = metrics;
+        if (m.isDirty()) m.refresh();
+        final float bottom = visible.y, top = visible.y + visible.height,
+                minX = visible.x - m.reach, maxX = visible.x + visible.width + m.reach,
+                alpha = batch.getColor().a;
+        int drawn = 0;
+        for (int ln = 0, lines = glyphs.lines(); ln < lines; ln++, y -= cellHeight) {
+            // subscript can move glyphs down by up to half a cell
+            if (y + cellHeight + m.top < bottom) break;
+            if (y + cellHeight * 0.5f + m.bottom > top) continue;
+            final Line line = glyphs.getLine(ln);
+            final int n = line.glyphs.size;
+            drawn += drawRun(batch, null, line.glyphs.items, line.kerning.size == n ? line.kerning.items : null,
+                    0, n, line.width, x, y, align, alpha, minX, maxX);
+        }
+        return drawn;
+    }
+
+    /**
+     * Draws the specified PackedLayout with a Batch at a given x, y position, drawing the full layout.
+     * @param batch typically a SpriteBatch
+     * @param glyphs typically filled by {@link #markup(CharSequence, PackedLayout)}
+     * @param x the x position in world space to start drawing the glyph at (lower left corner)
+     * @param y the y position in world space to start drawing the glyph at (lower left corner)
+     * @return the number of glyphs drawn
+     */
+    public int drawGlyphs(Batch batch, PackedLayout glyphs, float x, float y) {
+        return drawGlyphs(batch, glyphs, x, y, Align.left);
+    }
+
+    /**
+     * Draws the specified PackedLayout with a Batch at a given x, y position, using {@code align} to determine how to
+     * position each line, exactly as {@link #drawGlyphs(Batch, Layout, float, float, int)} draws the Layout it was
+     * packed from.
+     * @param batch typically a SpriteBatch
+     * @param glyphs typically filled by {@link #markup(CharSequence, PackedLayout)}
+     * @param x the x position in world space to start drawing the glyph at (where this is depends on align)
+     * @param y the y position in world space to start drawing the glyph at (where this is depends on align)
+     * @param align an {@link Align} constant; if {@link Align#left}, x and y refer to the lower left corner
+     * @return the number of glyphs drawn
+     */
+    public int drawGlyphs(Batch batch, PackedLayout glyphs, float x, float y, int align) {
+        final long[] items = glyphs.glyphs;
+        final float[] amounts = glyphs.kerning;
+        final int[] starts = glyphs.lineStarts;
+        final float[] widths = glyphs.widths;
+        final float alpha = batch.getColor().a;
+        for (int ln = 0, lines = glyphs.lines; ln < lines; ln++) {
+            drawRun(batch, null, items, amounts, starts[ln], starts[ln + 1], widths[ln], x, y, align, alpha,
+                    Float.NEGATIVE_INFINITY, Float.POSITIVE_INFINITY);
+            y -= cellHeight;
+        }
+        return glyphs.glyphCount;
+    }
+
+    /**
+     * Draws lines {@code firstLine} until {@code endLine} (exclusive) of a VirtualLayout, laying out the entries they
+     * belong to if needed, with line firstLine drawn at the given x, y position and later lines below it, as
+     * {@link #drawGlyphs(Batch, Layout, float, float, int)} positions them. Lines outside that range aren't drawn, and
+     * entries far from it are freed; see {@link VirtualLayout#setVisibleLines(int, int)}.
+     * @param batch typically a SpriteBatch
+     * @param glyphs a VirtualLayout that uses this Font
+     * @param x the x position in world space to start drawing line firstLine at (where this is depends on align)
+     * @param y the y position in world space to start drawing line firstLine at (where this is depends on align)
+     * @param firstLine the first line to draw, inclusive
+     * @param endLine the last line to draw, exclusive
+     * @param align an {@link Align} constant; if {@link Align#left}, x and y refer to the lower left corner
+     * @return the number of glyphs drawn
+     */
+    public int drawGlyphs(Batch batch, VirtualLayout glyphs, float x, float y, int firstLine, int endLine, int align) {
+        firstLine = Math.max(0, firstLine);
+        endLine = Math.min(glyphs.lines(), endLine);
+        if (firstLine >= endLine) return 0;
+        glyphs.setVisibleLines(firstLine, endLine);
+        int drawn = 0;
+        for (int entry = glyphs.entryAtLine(firstLine), entries = glyphs.size(); entry < entries; entry++) {
+            int line = glyphs.firstLineOf(entry);
+            if (line >= endLine) break;
+            final Layout layout = glyphs.getLayout(entry);
+            for (int ln = 0, lines = layout.lines(); ln < lines && line < endLine; ln++, line++) {
+                if (line >= firstLine) {
+                    drawn += drawGlyphs(batch, layout.getLine(ln), x, y, align);
+                    y -= cellHeight;
+                }
+            }
+        }
+        return drawn;
+    }
+
     /**
      * Draws the specified Line of glyphs with a Batch at a given x, y position, drawing the full Line using left
      * alignment.
@@ -1120,29 +2052,119 @@ public class Font implements Disposable {
      */
     public int drawGlyphs(Batch batch, Line glyphs, float x, float y, int align) {
         if(glyphs == null) return 0;
-        int drawn = 0;
+        return drawLine(batch, null, glyphs, x, y, align, batch.getColor().a);
+    }
+
+    /**
+     * Appends the quads for a Line to a {@link LayoutCache} instead of drawing them, positioned as
+     * {@link #drawGlyphs(Batch, Line, float, float, int)} would draw them, using full alpha.
+     */
+    int cacheLine(LayoutCache cache, Line glyphs, float x, float y, int align) {
+        return drawLine(null, cache, glyphs, x, y, align, 1f);
+    }
+
+    private int drawLine(Batch batch, LayoutCache cache, Line glyphs, float x, float y, int align, float alpha) {
+        final int n = glyphs.glyphs.size;
+        return drawRun(batch, cache, glyphs.glyphs.items, glyphs.kerning.size == n ? glyphs.kerning.items : null,
+                0, n, glyphs.width, x, y, align, alpha, Float.NEGATIVE_INFINITY, Float.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Draws the glyphs in {@code items} from index {@code from} until {@code to} as one line; {@code amounts} holds
+     * their baked kerning in font units at the same indices, or is null if kerning should be looked up here. Glyphs whose pen
+     * position is left of minX or right of maxX aren't drawn. Each run of neighboring glyphs with the same color and
+     * the same underline and strikethrough bits gets one stretched underline and/or strikethrough quad, instead of one
+     * per glyph; runs are followed past minX and maxX so their quads are the same as when nothing is culled.
+     * @return how many glyphs were drawn
+     */
+    private int drawRun(Batch batch, LayoutCache cache, long[] items, float[] amounts, int from, int to, float width,
+                        float x, float y, int align, float alpha, float minX, float maxX) {
         if(Align.isCenterHorizontal(align))
-            x -= glyphs.width * 0.5f;
+            x -= width * 0.5f;
         else if(Align.isRight(align))
-            x -= glyphs.width;
-        if(kerning != null) {
-            int kern = -1;
-            float amt = 0;
-            long glyph;
-            for (int i = 0, n = glyphs.glyphs.size; i < n; i++, drawn++) {
-                kern = kern << 16 | (int) ((glyph = glyphs.glyphs.get(i)) & 0xFFFF);
-                amt = kerning.get(kern, 0) * scaleX;
-                x += drawGlyph(batch, glyph, x + amt, y) + amt;
+            x -= width;
+        final GlyphMetrics m = metrics;
+        if (m.isDirty()) m.refresh();
+        final KerningTable kerning = this.kerning;
+        int drawn = 0, kern = -1;
+        long glyph, decoration, run = 0L;
+        float amt = 0f, gx, left, advance, runStart = 0f, runEnd = 0f;
+        for (int i = from; i < to; i++) {
+            glyph = items[i];
+            if(kerning != null) {
+                if(amounts != null)
+                    amt = amounts[i] * scaleX;
+                else {
+                    kern = kern << 16 | (int) (glyph & 0xFFFF);
+                    amt = kerning.get(kern, 0) * scaleX;
+                }
             }
-        }
-        else {
-            for (int i = 0, n = glyphs.glyphs.size; i < n; i++, drawn++) {
-                x += drawGlyph(batch, glyphs.glyphs.get(i), x, y);
+            gx = x + amt;
+            decoration = (glyph & (UNDERLINE | STRIKETHROUGH)) == 0L ? 0L
+                    : glyph & (0xFFFFFFFF00000000L | UNDERLINE | STRIKETHROUGH);
+            // past maxX, glyphs are only followed to find where an unfinished underline or strikethrough ends
+            if(gx > maxX && (run == 0L || decoration != run)) break;
+            // the decoration starts where the glyph's image does, as drawGlyph() places it
+            left = isMono ? gx : gx + m.offsetX[m.slot((char) glyph)];
+            if(decoration != run) {
+                if(run != 0L && runEnd >= minX) drawRunDecoration(batch, cache, run, alpha, runStart, runEnd, y);
+                run = decoration;
+                runStart = left;
             }
+            if(gx < minX || gx > maxX)
+                advance = xAdvance(glyph);
+            else {
+                advance = drawGlyph(batch, cache, glyph & ~(UNDERLINE | STRIKETHROUGH), gx, y, alpha);
+                drawn++;
+            }
+            runEnd = left + advance;
+            x += advance + amt;
         }
+        if(run != 0L && runEnd >= minX) drawRunDecoration(batch, cache, run, alpha, runStart, runEnd, y);
         return drawn;
     }
 
+    private void drawRunDecoration(Batch batch, LayoutCache cache, long run, float alpha, float start, float end,
+                                   float y) {
+        final float color = NumberUtils.intBitsToFloat(((int)(alpha * 127.999f) << 25)
+                | (0xFFFFFF & Integer.reverseBytes((int) (run >>> 32))));
+        drawDecoration(batch, cache, run, color, start, end - start, y);
+    }
+
+    /**
+     * Fills in {@link Line#kerning} for each Line in {@code layout}, starting at line {@code startLine}, so drawing
+     * doesn't need to look up kerning pairs. The amounts are in font units, so they stay correct if {@link #scaleX}
+     * changes after markup; drawing multiplies them by scaleX. This is called automatically at the end of
+     * {@link #markup(String, Layout)}. If this Font has no kerning, this does nothing.
+     * @param layout a Layout that was produced by this Font
+     * @param startLine the index of the first Line in layout that may have changed
+     * @return layout, for chaining
+     */
+    public Layout bakeKerning(Layout layout, int startLine) {
+        return bakeKerning(layout, startLine, 0);
+    }
+
+    /**
+     * Like {@link #bakeKerning(Layout, int)}, but skips the first {@code startGlyph} glyphs of line startLine, which
+     * must already have correct kerning.
+     */
+    private Layout bakeKerning(Layout layout, int startLine, int startGlyph) {
+        if(kerning == null) return layout;
+        if(startLine < 0) startGlyph = 0;
+        for (int ln = Math.max(0, startLine), lines = layout.lines(); ln < lines; ln++, startGlyph = 0) {
+            final Line line = layout.getLine(ln);
+            final int n = line.glyphs.size;
+            final long[] items = line.glyphs.items;
+            final float[] amounts = line.kerning.setSize(n);
+            int kern = startGlyph == 0 ? -1 : (int) (items[startGlyph - 1] & 0xFFFF);
+            for (int i = startGlyph; i < n; i++) {
+                kern = kern << 16 | (int) (items[i] & 0xFFFF);
+                amounts[i] = kerning.get(kern, 0);
+            }
+        }
+        return layout;
+    }
+
     /**
      * Gets the distance to advance the cursor after drawing {@code glyph}, scaled by {@link #scaleX} as if drawing.
      * This handles monospaced fonts correctly and ensures that for variable-width fonts, subscript, midscript, and
@@ -1151,11 +2173,13 @@ public class Font implements Disposable {
      * @return the (possibly non-integer) amount to advance the cursor when you draw the given glyph, not counting kerning
      */
     public float xAdvance(long glyph){
-        GlyphRegion tr = mapping.get((char) glyph);
-        if (tr == null) return 0f;
-        float changedW = tr.xAdvance * scaleX;
+        final GlyphMetrics m = metrics;
+        if (m.isDirty()) m.refresh();
+        final int s = m.slot((char) glyph);
+        if (s == 0) return 0f;
+        float changedW = m.advance[s];
         if (isMono) {
-            changedW += tr.offsetX * scaleX;
+            changedW += m.offsetX[s];
         }
         else if((glyph & SUPERSCRIPT) != 0L){
             changedW *= 0.5f;
@@ -1174,26 +2198,39 @@ public class Font implements Disposable {
      * @return the distance in world units the drawn glyph uses up for width, as in a line of text
      */
     public float drawGlyph(Batch batch, long glyph, float x, float y) {
-        GlyphRegion tr = mapping.get((char) glyph);
-        if (tr == null) return 0f;
-        Texture tex = tr.getTexture();
+        return drawGlyph(batch, null, glyph, x, y, batch.getColor().a);
+    }
+
+    /**
+     * Appends the quads for one glyph to a {@link LayoutCache} instead of drawing them, using full alpha.
+     * @param cache the LayoutCache to add vertices to
+     * @param glyph a long storing a char, format, and color
+     * @param x the x position in world space of the glyph's lower left corner
+     * @param y the y position in world space of the glyph's lower left corner
+     * @return the distance in world units the glyph uses up for width, as in a line of text
+     */
+    float cacheGlyph(LayoutCache cache, long glyph, float x, float y) {
+        return drawGlyph(null, cache, glyph, x, y, 1f);
+    }
+
+    private float drawGlyph(Batch batch, LayoutCache cache, long glyph, float x, float y, float alpha) {
+        final GlyphMetrics m = metrics;
+        if (m.isDirty()) m.refresh();
+        final int s = m.slot((char) glyph);
+        if (s == 0) return 0f;
+        Texture tex = m.textures[s];
         float x0 = 0f, x1 = 0f, x2 = 0f, x3 = 0f;
         float y0 = 0f, y1 = 0f, y2 = 0f, y3 = 0f;
-        float color = NumberUtils.intBitsToFloat(((int)(batch.getColor().a * 127.999f) << 25)
+        float color = NumberUtils.intBitsToFloat(((int)(alpha * 127.999f) << 25)
                 | (0xFFFFFF & Integer.reverseBytes((int) (glyph >>> 32))));
-        final float iw = 1f / tex.getWidth();
-        float u, v, u2, v2;
-        u = tr.getU();
-        v = tr.getV();
-        u2 = tr.getU2();
-        v2 = tr.getV2();
-        float w = tr.getRegionWidth() * scaleX, changedW = tr.xAdvance * scaleX, h = tr.getRegionHeight() * scaleY;
+        final float u = m.u[s], v = m.v[s], u2 = m.u2[s], v2 = m.v2[s];
+        float w = m.width[s], changedW = m.advance[s], h = m.height[s];
         if (isMono) {
-            changedW += tr.offsetX * scaleX;
+            changedW += m.offsetX[s];
         } else {
-            x += tr.offsetX * scaleX;
+            x += m.offsetX[s];
         }
-        float yt = y + cellHeight - h - tr.offsetY * scaleY;
+        float yt = y + cellHeight - h - m.offsetY[s];
         if ((glyph & OBLIQUE) != 0L) {
             x0 += h * 0.2f;
             x1 -= h * 0.2f;
@@ -1204,7 +2241,7 @@ public class Font implements Disposable {
         if (script == SUPERSCRIPT) {
             w *= 0.5f;
             h *= 0.5f;
-            yt = y + cellHeight * 0.625f - h - tr.offsetY * scaleY * 0.5f;
+            yt = y + cellHeight * 0.625f - h - m.offsetY[s] * 0.5f;
             y0 += cellHeight * 0.375f;
             y1 += cellHeight * 0.375f;
             y2 += cellHeight * 0.375f;
@@ -1215,7 +2252,7 @@ public class Font implements Disposable {
         else if (script == SUBSCRIPT) {
             w *= 0.5f;
             h *= 0.5f;
-            yt = y + cellHeight * 0.625f - h - tr.offsetY * scaleY * 0.5f;
+            yt = y + cellHeight * 0.625f - h - m.offsetY[s] * 0.5f;
             y0 -= cellHeight * 0.125f;
             y1 -= cellHeight * 0.125f;
             y2 -= cellHeight * 0.125f;
@@ -1226,7 +2263,7 @@ public class Font implements Disposable {
         else if(script == MIDSCRIPT) {
             w *= 0.5f;
             h *= 0.5f;
-            yt = y + cellHeight * 0.625f - h - tr.offsetY * scaleY * 0.5f;
+            yt = y + cellHeight * 0.625f - h - m.offsetY[s] * 0.5f;
             y0 += cellHeight * 0.125f;
             y1 += cellHeight * 0.125f;
             y2 += cellHeight * 0.125f;
@@ -1258,38 +2295,50 @@ public class Font implements Disposable {
         vertices[17] = color;
         vertices[18] = u2;
         vertices[19] = v;
-        batch.draw(tex, vertices, 0, 20);
-        if ((glyph & BOLD) != 0L) {
-            vertices[0] +=  1f;
-            vertices[5] +=  1f;
-            vertices[10] += 1f;
-            vertices[15] += 1f;
-            batch.draw(tex, vertices, 0, 20);
-            vertices[0] -=  2f;
-            vertices[5] -=  2f;
-            vertices[10] -= 2f;
-            vertices[15] -= 2f;
-            batch.draw(tex, vertices, 0, 20);
-            vertices[0] +=  0.5f;
-            vertices[5] +=  0.5f;
-            vertices[10] += 0.5f;
-            vertices[15] += 0.5f;
-            batch.draw(tex, vertices, 0, 20);
-            vertices[0] +=  1f;
-            vertices[5] +=  1f;
-            vertices[10] += 1f;
-            vertices[15] += 1f;
-            batch.draw(tex, vertices, 0, 20);
-
+        if ((glyph & BOLD) != 0L && shaderBold && batch != null && batch.getShader() == boldShader) {
+            // boldShader reads u above 1 as bold, and thickens the glyph in one pass
+            vertices[3] +=  2f;
+            vertices[8] +=  2f;
+            vertices[13] += 2f;
+            vertices[18] += 2f;
+            emit(batch, cache, tex);
         }
-        if ((glyph & UNDERLINE) != 0L) {
-            final GlyphRegion under = mapping.get('_');
-            if (under != null) {
-                final float underU = under.getU() + (under.xAdvance - under.offsetX) * iw * 0.25f,
-                        underV = under.getV(),
-                        underU2 = under.getU() + (under.xAdvance - under.offsetX) * iw * 0.75f,
-                        underV2 = under.getV2(),
-                        hu = under.getRegionHeight() * scaleY, yu = y + cellHeight - hu - under.offsetY * scaleY;
+        else {
+            emit(batch, cache, tex);
+            if ((glyph & BOLD) != 0L) {
+                vertices[0] +=  1f;
+                vertices[5] +=  1f;
+                vertices[10] += 1f;
+                vertices[15] += 1f;
+                emit(batch, cache, tex);
+                vertices[0] -=  2f;
+                vertices[5] -=  2f;
+                vertices[10] -= 2f;
+                vertices[15] -= 2f;
+                emit(batch, cache, tex);
+            }
+        }
+        if ((glyph & (UNDERLINE | STRIKETHROUGH)) != 0L) {
+            drawDecoration(batch, cache, glyph, color, x, changedW, y);
+        }
+        return changedW;
+    }
+
+    /**
+     * Draws an underline and/or strikethrough, depending on which of those bits are set in {@code decoration}, as one
+     * stretched quad each, covering the glyphs drawn from x to {@code x + width}.
+     */
+    private void drawDecoration(Batch batch, LayoutCache cache, long decoration, float color, float x, float width,
+                                float y) {
+        final GlyphMetrics m = metrics;
+        if ((decoration & UNDERLINE) != 0L) {
+            final int under = m.underSlot;
+            if (under != 0) {
+                final float underU = m.underU,
+                        underV = m.v[under],
+                        underU2 = m.underU2,
+                        underV2 = m.v2[under],
+                        hu = m.height[under], yu = y + cellHeight - hu - m.offsetY[under];
                 vertices[0] = x - 1f;
                 vertices[1] = yu + hu;
                 vertices[2] = color;
@@ -1302,29 +2351,29 @@ public class Font implements Disposable {
                 vertices[8] = underU;
                 vertices[9] = underV2;
 
-                vertices[10] = x + changedW + 1f;
+                vertices[10] = x + width + 1f;
                 vertices[11] = yu;
                 vertices[12] = color;
                 vertices[13] = underU2;
                 vertices[14] = underV2;
 
-                vertices[15] = x + changedW + 1f;
+                vertices[15] = x + width + 1f;
                 vertices[16] = yu + hu;
                 vertices[17] = color;
                 vertices[18] = underU2;
                 vertices[19] = underV;
-                batch.draw(under.getTexture(), vertices, 0, 20);
+                emit(batch, cache, m.textures[under]);
             }
         }
-        if ((glyph & STRIKETHROUGH) != 0L) {
-            final GlyphRegion dash = mapping.get('-');
-            if (dash != null) {
-                final float dashU = dash.getU() + (dash.xAdvance - dash.offsetX) * iw * 0.625f,
-                        dashV = dash.getV(),
-                        dashU2 = dashU + iw,
-                        dashV2 = dash.getV2(),
-                        hd = dash.getRegionHeight() * scaleY, yd = y + cellHeight - hd - dash.offsetY * scaleY;
-                x0 = x - (dash.offsetX);
+        if ((decoration & STRIKETHROUGH) != 0L) {
+            final int dash = m.dashSlot;
+            if (dash != 0) {
+                final float dashU = m.dashU,
+                        dashV = m.v[dash],
+                        dashU2 = m.dashU2,
+                        dashV2 = m.v2[dash],
+                        hd = m.height[dash], yd = y + cellHeight - hd - m.offsetY[dash];
+                final float x0 = x - m.regions[dash].offsetX;
                 vertices[0] = x0 - 1f;
                 vertices[1] = yd + hd;
                 vertices[2] = color;
@@ -1337,21 +2386,27 @@ public class Font implements Disposable {
                 vertices[8] = dashU;
                 vertices[9] = dashV2;
 
-                vertices[10] = x0 + changedW + 1f;
+                vertices[10] = x0 + width + 1f;
                 vertices[11] = yd;
                 vertices[12] = color;
                 vertices[13] = dashU2;
                 vertices[14] = dashV2;
 
-                vertices[15] = x0 + changedW + 1f;
+                vertices[15] = x0 + width + 1f;
                 vertices[16] = yd + hd;
                 vertices[17] = color;
                 vertices[18] = dashU2;
                 vertices[19] = dashV;
-                batch.draw(dash.getTexture(), vertices, 0, 20);
+                emit(batch, cache, m.textures[dash]);
             }
         }
-        return changedW;
+    }
+
+    private void emit(Batch batch, LayoutCache cache, Texture texture) {
+        if (cache == null)
+            batch.draw(texture, vertices, 0, 20);
+        else
+            cache.add(texture, vertices);
     }
 
     /**
@@ -1374,9 +2429,11 @@ public class Font implements Disposable {
         final float sin = MathUtils.sinDeg(rotation);
         final float cos = MathUtils.cosDeg(rotation);
 
-        GlyphRegion tr = mapping.get((char) glyph);
-        if (tr == null) return 0f;
-        Texture tex = tr.getTexture();
+        final GlyphMetrics m = metrics;
+        if (m.isDirty()) m.refresh();
+        final int s = m.slot((char) glyph);
+        if (s == 0) return 0f;
+        Texture tex = m.textures[s];
         float x0 = 0f;
         float x1 = 0f;
         float x2 = 0f;
@@ -1384,19 +2441,14 @@ public class Font implements Disposable {
         float y1 = 0f;
         float y2 = 0f;
         float color = NumberUtils.intBitsToFloat(Integer.reverseBytes(((int) (glyph >>> 32) & -256) | (int)(batch.getColor().a * 255.999f)));
-        final float iw = 1f / tex.getWidth();
-        float u, v, u2, v2;
-        u = tr.getU();
-        v = tr.getV();
-        u2 = tr.getU2();
-        v2 = tr.getV2();
-        float w = tr.getRegionWidth() * scaleX, changedW = tr.xAdvance * scaleX, h = tr.getRegionHeight() * scaleY;
+        final float u = m.u[s], v = m.v[s], u2 = m.u2[s], v2 = m.v2[s];
+        float w = m.width[s], changedW = m.advance[s], h = m.height[s];
         if (isMono) {
-            changedW += tr.offsetX * scaleX;
+            changedW += m.offsetX[s];
         } else {
-            x += tr.offsetX * scaleX;
+            x += m.offsetX[s];
         }
-        float yt = y + cellHeight - h - tr.offsetY * scaleY;
+        float yt = y + cellHeight - h - m.offsetY[s];
         if ((glyph & OBLIQUE) != 0L) {
             x0 += h * 0.2f;
             x1 -= h * 0.2f;
@@ -1464,41 +2516,39 @@ public class Font implements Disposable {
         vertices[15] = (vertices[0]  = cos * p0x - sin * p0y) - (vertices[5]  = cos * p1x - sin * p1y) + (vertices[10] = cos * p2x - sin * p2y);
         vertices[16] = (vertices[1]  = sin * p0x + cos * p0y) - (vertices[6]  = sin * p1x + cos * p1y) + (vertices[11] = sin * p2x + cos * p2y);
 
-        batch.draw(tex, vertices, 0, 20);
-        if ((glyph & BOLD) != 0L) {
-            p0x += 1f;
-            p1x += 1f;
-            p2x += 1f;
-            vertices[15] = (vertices[0]  = cos * p0x - sin * p0y) - (vertices[5]  = cos * p1x - sin * p1y) + (vertices[10] = cos * p2x - sin * p2y);
-            vertices[16] = (vertices[1]  = sin * p0x + cos * p0y) - (vertices[6]  = sin * p1x + cos * p1y) + (vertices[11] = sin * p2x + cos * p2y);
-            batch.draw(tex, vertices, 0, 20);
-            p0x -= 2f;
-            p1x -= 2f;
-            p2x -= 2f;
-            vertices[15] = (vertices[0]  = cos * p0x - sin * p0y) - (vertices[5]  = cos * p1x - sin * p1y) + (vertices[10] = cos * p2x - sin * p2y);
-            vertices[16] = (vertices[1]  = sin * p0x + cos * p0y) - (vertices[6]  = sin * p1x + cos * p1y) + (vertices[11] = sin * p2x + cos * p2y);
-            batch.draw(tex, vertices, 0, 20);
-            p0x += 0.5f;
-            p1x += 0.5f;
-            p2x += 0.5f;
-            vertices[15] = (vertices[0]  = cos * p0x - sin * p0y) - (vertices[5]  = cos * p1x - sin * p1y) + (vertices[10] = cos * p2x - sin * p2y);
-            vertices[16] = (vertices[1]  = sin * p0x + cos * p0y) - (vertices[6]  = sin * p1x + cos * p1y) + (vertices[11] = sin * p2x + cos * p2y);
+        if ((glyph & BOLD) != 0L && shaderBold && batch != null && batch.getShader() == boldShader) {
+            // boldShader reads u above 1 as bold, and thickens the glyph in one pass
+            vertices[3] +=  2f;
+            vertices[8] +=  2f;
+            vertices[13] += 2f;
+            vertices[18] += 2f;
             batch.draw(tex, vertices, 0, 20);
-            p0x += 1f;
-            p1x += 1f;
-            p2x += 1f;
-            vertices[15] = (vertices[0]  = cos * p0x - sin * p0y) - (vertices[5]  = cos * p1x - sin * p1y) + (vertices[10] = cos * p2x - sin * p2y);
-            vertices[16] = (vertices[1]  = sin * p0x + cos * p0y) - (vertices[6]  = sin * p1x + cos * p1y) + (vertices[11] = sin * p2x + cos * p2y);
+        }
+        else {
             batch.draw(tex, vertices, 0, 20);
+            if ((glyph & BOLD) != 0L) {
+                p0x += 1f;
+                p1x += 1f;
+                p2x += 1f;
+                vertices[15] = (vertices[0]  = cos * p0x - sin * p0y) - (vertices[5]  = cos * p1x - sin * p1y) + (vertices[10] = cos * p2x - sin * p2y);
+                vertices[16] = (vertices[1]  = sin * p0x + cos * p0y) - (vertices[6]  = sin * p1x + cos * p1y) + (vertices[11] = sin * p2x + cos * p2y);
+                batch.draw(tex, vertices, 0, 20);
+                p0x -= 2f;
+                p1x -= 2f;
+                p2x -= 2f;
+                vertices[15] = (vertices[0]  = cos * p0x - sin * p0y) - (vertices[5]  = cos * p1x - sin * p1y) + (vertices[10] = cos * p2x - sin * p2y);
+                vertices[16] = (vertices[1]  = sin * p0x + cos * p0y) - (vertices[6]  = sin * p1x + cos * p1y) + (vertices[11] = sin * p2x + cos * p2y);
+                batch.draw(tex, vertices, 0, 20);
+            }
         }
         if ((glyph & UNDERLINE) != 0L) {
-            final GlyphRegion under = mapping.get('_');
-            if (under != null) {
-                final float underU = under.getU() + (under.xAdvance - under.offsetX) * iw * 0.25f,
-                        underV = under.getV(),
-                        underU2 = under.getU() + (under.xAdvance - under.offsetX) * iw * 0.75f,
-                        underV2 = under.getV2(),
-                        hu = under.getRegionHeight() * scaleY, yu = y + cellHeight - hu - under.offsetY * scaleY;
+            final int under = m.underSlot;
+            if (under != 0) {
+                final float underU = m.underU,
+                        underV = m.v[under],
+                        underU2 = m.underU2,
+                        underV2 = m.v2[under],
+                        hu = m.height[under], yu = y + cellHeight - hu - m.offsetY[under];
                 vertices[2] = color;
                 vertices[3] = underU;
                 vertices[4] = underV;
@@ -1524,18 +2574,18 @@ public class Font implements Disposable {
                 vertices[15] = (vertices[0]  = cos * p0x - sin * p0y) - (vertices[5]  = cos * p1x - sin * p1y) + (vertices[10] = cos * p2x - sin * p2y);
                 vertices[16] = (vertices[1]  = sin * p0x + cos * p0y) - (vertices[6]  = sin * p1x + cos * p1y) + (vertices[11] = sin * p2x + cos * p2y);
 
-                batch.draw(under.getTexture(), vertices, 0, 20);
+                batch.draw(m.textures[under], vertices, 0, 20);
             }
         }
         if ((glyph & STRIKETHROUGH) != 0L) {
-            final GlyphRegion dash = mapping.get('-');
-            if (dash != null) {
-                final float dashU = dash.getU() + (dash.xAdvance - dash.offsetX) * iw * 0.625f,
-                        dashV = dash.getV(),
-                        dashU2 = dashU + iw,
-                        dashV2 = dash.getV2(),
-                        hd = dash.getRegionHeight() * scaleY, yd = y + cellHeight - hd - dash.offsetY * scaleY;
-                x0 = x - (dash.offsetX);
+            final int dash = m.dashSlot;
+            if (dash != 0) {
+                final float dashU = m.dashU,
+                        dashV = m.v[dash],
+                        dashU2 = m.dashU2,
+                        dashV2 = m.v2[dash],
+                        hd = m.height[dash], yd = y + cellHeight - hd - m.offsetY[dash];
+                x0 = x - m.regions[dash].offsetX;
                 vertices[2] = color;
                 vertices[3] = dashU;
                 vertices[4] = dashV;
@@ -1561,7 +2611,7 @@ public class Font implements Disposable {
                 vertices[15] = (vertices[0]  = cos * p0x - sin * p0y) - (vertices[5]  = cos * p1x - sin * p1y) + (vertices[10] = cos * p2x - sin * p2y);
                 vertices[16] = (vertices[1]  = sin * p0x + cos * p0y) - (vertices[6]  = sin * p1x + cos * p1y) + (vertices[11] = sin * p2x + cos * p2y);
 
-                batch.draw(dash.getTexture(), vertices, 0, 20);
+                batch.draw(m.textures[dash], vertices, 0, 20);
             }
         }
         return changedW;
@@ -1593,29 +2643,274 @@ public class Font implements Disposable {
      *     {@link Colors}, changes the color. The name can optionally be preceded by {@code |}, which allows looking up
      *     colors with names that contain punctuation.</li>
      * </ul>
-     * You can render {@code appendTo} using {@link #drawGlyphs(Batch, Layout, float, float)}.
+     * You can render {@code appendTo} using {@link #drawGlyphs(Batch, Layout, float, float)}. This can be called from
+     * several threads at once, such as to build Layouts off the render thread, as long as each thread uses its own
+     * Layout; see the documentation for {@link Font}.
      * @param text text with markup
      * @param appendTo a Layout that stores one or more Line objects, carrying color, style, chars, and size
      * @return appendTo, for chaining
      */
     public Layout markup(String text, Layout appendTo) {
+        return markup(text, 0, text.length(), appendTo);
+    }
+
+    /**
+     * Reads markup from all of {@code text} and appends it into appendTo, as {@link #markup(String, Layout)} does.
+     * This can take a StringBuilder that is reused between frames, without calling toString() on it.
+     * @param text a String, StringBuilder, or other CharSequence with markup
+     * @param appendTo a Layout that stores one or more Line objects, carrying color, style, chars, and size
+     * @return appendTo, for chaining
+     */
+    public Layout markup(CharSequence text, Layout appendTo) {
+        return markup(text, 0, text.length(), appendTo);
+    }
+
+    /**
+     * Reads {@code length} chars of markup from a char array, starting at {@code offset}, and appends it into appendTo,
+     * as {@link #markup(String, Layout)} does. The chars are read directly from the array, without copying them.
+     * @param text a char array containing markup
+     * @param offset the first index in text to read
+     * @param length how many chars to read from text
+     * @param appendTo a Layout that stores one or more Line objects, carrying color, style, chars, and size
+     * @return appendTo, for chaining
+     */
+    public Layout markup(char[] text, int offset, int length, Layout appendTo) {
+        return markup(appendTo.chars.set(text, offset, length), 0, length, appendTo);
+    }
+
+    /**
+     * Reads markup from the region of {@code text} between start (inclusive) and end (exclusive), and appends it into
+     * appendTo, as {@link #markup(String, Layout)} does. Markup tags are only read up to end, so a tag that isn't
+     * closed before end is treated as if it ran to end. All other markup overloads call this one.
+     * @param text a String, StringBuilder, or other CharSequence with markup
+     * @param start the first index in text to read, inclusive
+     * @param end the last index in text to read, exclusive
+     * @param appendTo a Layout that stores one or more Line objects, carrying color, style, chars, and size
+     * @return appendTo, for chaining
+     */
+    public Layout markup(CharSequence text, int start, int end, Layout appendTo) {
+        if (start < 0 || end > text.length() || start > end)
+            throw new IndexOutOfBoundsException("start " + start + ", end " + end + ", length " + text.length());
+        if(appendTo.font == null || !appendTo.font.equals(this))
+        {
+            appendTo.clear();
+            appendTo.font(this);
+        }
+        final int firstLine = appendTo.lines() - 1;
+        appendTo.peekLine().height = cellHeight;
+        appendTo.kern = -1;
+        appendTo.resumable = false;
+        appendTo.ellipsized = false;
+        parse(text, start, end, appendTo, null, null,
+                Long.reverseBytes(NumberUtils.floatToIntColor(appendTo.getBaseColor())) & 0xFFFFFFFF00000000L);
+        return bakeKerning(appendTo, firstLine);
+    }
+
+    /**
+     * Reads markup from text and replaces the contents of {@code into} with the result, using the target width, max
+     * lines, ellipsis, and base color set on into. The glyphs are the same as {@link #markup(String, Layout)} would
+     * produce, but stored contiguously; see {@link PackedLayout}. Draw the result with
+     * {@link #drawGlyphs(Batch, PackedLayout, float, float, int)}.
+     * @param text a String, StringBuilder, or other CharSequence with markup
+     * @param into a PackedLayout that will be filled with the laid-out text; its previous contents are removed
+     * @return into, for chaining
+     */
+    public PackedLayout markup(CharSequence text, PackedLayout into) {
+        return into.markup(this, text, 0, text.length());
+    }
+
+    /**
+     * Reads markup from the region of {@code text} between start (inclusive) and end (exclusive), and replaces the
+     * contents of {@code into} with the result; see {@link #markup(CharSequence, PackedLayout)}.
+     * @param text a String, StringBuilder, or other CharSequence with markup
+     * @param start the first index in text to read, inclusive
+     * @param end the last index in text to read, exclusive
+     * @param into a PackedLayout that will be filled with the laid-out text; its previous contents are removed
+     * @return into, for chaining
+     */
+    public PackedLayout markup(CharSequence text, int start, int end, PackedLayout into) {
+        return into.markup(this, text, start, end);
+    }
+
+    /**
+     * Reads markup from text and appends it into appendTo, continuing from where the last markup call on appendTo
+     * stopped, instead of starting from the base color and default style as {@link #markup(String, Layout)} does. The
+     * color, style, and case modes that were active at the end of the last call stay active, and the first new glyph is
+     * kerned with the last glyph already there. This is meant for adding to text piece by piece, like chat messages;
+     * it only does work for the new text, so appending many short pieces costs about as much as one markup() call on
+     * all of them together, and gives the same result. If appendTo was cleared or has never had markup added, this is
+     * the same as markup(). The state this continues from can be read with {@link Layout#getStyle()} and related
+     * methods.
+     * @param text a String, StringBuilder, or other CharSequence with markup
+     * @param appendTo a Layout that stores one or more Line objects, carrying color, style, chars, and size
+     * @return appendTo, for chaining
+     */
+    public Layout resumeMarkup(CharSequence text, Layout appendTo) {
+        return resumeMarkup(text, 0, text.length(), appendTo);
+    }
+
+    /**
+     * Reads markup from the region of {@code text} between start (inclusive) and end (exclusive), and appends it into
+     * appendTo, continuing from where the last markup call on appendTo stopped; see
+     * {@link #resumeMarkup(CharSequence, Layout)}.
+     * @param text a String, StringBuilder, or other CharSequence with markup
+     * @param start the first index in text to read, inclusive
+     * @param end the last index in text to read, exclusive
+     * @param appendTo a Layout that stores one or more Line objects, carrying color, style, chars, and size
+     * @return appendTo, for chaining
+     */
+    public Layout resumeMarkup(CharSequence text, int start, int end, Layout appendTo) {
+        if (start < 0 || end > text.length() || start > end)
+            throw new IndexOutOfBoundsException("start " + start + ", end " + end + ", length " + text.length());
+        if(appendTo.font == null || !appendTo.font.equals(this))
+        {
+            appendTo.clear();
+            appendTo.font(this);
+        }
+        final int firstLine = appendTo.lines() - 1;
+        final Line line = appendTo.peekLine();
+        line.height = cellHeight;
+        // kerning for the glyphs already in the last Line is still correct, unless something else changed them
+        final int baked = line.kerning.size == line.glyphs.size ? line.glyphs.size : 0;
+        if (appendTo.ellipsized) return appendTo;
+        if (!appendTo.resumable) appendTo.kern = -1;
+        parse(text, start, end, appendTo, null, null,
+                Long.reverseBytes(NumberUtils.floatToIntColor(appendTo.getBaseColor())) & 0xFFFFFFFF00000000L);
+        // wrapping only removes glyphs from the end of a Line, but an ellipsis can replace some
+        return bakeKerning(appendTo, firstLine, appendTo.atLimit ? 0 : Math.min(baked, line.glyphs.size));
+    }
+
+    /**
+     * Finds the size {@code text} would have after {@link #markup(String, Layout)}, without building a Layout, using
+     * the target width, max lines, and ellipsis of {@code measure}. The results are stored in measure; see
+     * {@link Measurement#getWidth()}, {@link Measurement#getHeight()}, and {@link Measurement#lines()}. Markup and
+     * wrapping are handled the same way markup() handles them, but no glyphs are stored and no Lines are obtained.
+     * This is usually between one and a half and two and a half times as fast as markup(), not more, because it still
+     * parses every tag and works out the advance, kerning, and wrapping of every glyph, and that is most of the work
+     * markup() does; text cut off by a max line count also tries the ellipsis again after each glyph, as markup() does.
+     * @param text a String, StringBuilder, or other CharSequence with markup
+     * @param measure a Measurement that holds settings, and will receive the results; will be modified
+     * @return measure, for chaining
+     */
+    public Measurement measure(CharSequence text, Measurement measure) {
+        return measure(text, 0, text.length(), measure);
+    }
+
+    /**
+     * Finds the size the region of {@code text} between start (inclusive) and end (exclusive) would have after
+     * {@link #markup(CharSequence, int, int, Layout)}, without building a Layout. See
+     * {@link #measure(CharSequence, Measurement)}.
+     * @param text a String, StringBuilder, or other CharSequence with markup
+     * @param start the first index in text to read, inclusive
+     * @param end the last index in text to read, exclusive
+     * @param measure a Measurement that holds settings, and will receive the results; will be modified
+     * @return measure, for chaining
+     */
+    public Measurement measure(CharSequence text, int start, int end, Measurement measure) {
+        if (start < 0 || end > text.length() || start > end)
+            throw new IndexOutOfBoundsException("start " + start + ", end " + end + ", length " + text.length());
+        measure.start(this);
+        parse(text, start, end, null, measure, null, 0L);
+        measure.width = Math.max(measure.width, measure.lineWidth);
+        return measure;
+    }
+
+    /**
+     * Parses markup from {@code text} into a {@link MarkupTemplate} that can be laid out many times with
+     * {@link #markup(MarkupTemplate, Layout)}, with different values in its placeholders. Placeholders are written as
+     * {@code {0}}, {@code {1}}, and so on; see MarkupTemplate. Text without a color, and text after {@code []}, uses
+     * white.
+     * @param text a String, StringBuilder, or other CharSequence with markup and placeholders
+     * @return a new MarkupTemplate
+     */
+    public MarkupTemplate compile(CharSequence text) {
+        return compile(text, Color.WHITE);
+    }
+
+    /**
+     * Parses markup from {@code text} into a {@link MarkupTemplate} that can be laid out many times with
+     * {@link #markup(MarkupTemplate, Layout)}, with different values in its placeholders. Placeholders are written as
+     * {@code {0}}, {@code {1}}, and so on; see MarkupTemplate.
+     * @param text a String, StringBuilder, or other CharSequence with markup and placeholders
+     * @param baseColor the color for text without a color and text after {@code []}; if null, white is used
+     * @return a new MarkupTemplate
+     */
+    public MarkupTemplate compile(CharSequence text, Color baseColor) {
+        MarkupTemplate template = new MarkupTemplate();
+        template.baseColor = baseColor == null ? Color.WHITE_FLOAT_BITS : baseColor.toFloatBits();
+        parse(text, 0, text.length(), null, null, template,
+                Long.reverseBytes(NumberUtils.floatToIntColor(template.baseColor)) & 0xFFFFFFFF00000000L);
+        return template;
+    }
+
+    /**
+     * Appends a compiled {@link MarkupTemplate} into appendTo, with the current values in its placeholders, as
+     * {@link #markup(String, Layout)} would for the same text with the values written in. This doesn't parse any
+     * markup and doesn't allocate once the Layout's Lines are pooled, so it can be called every frame for text with
+     * numbers that change. Wrapping, max lines, and the ellipsis work as they do for markup().
+     * @param template a MarkupTemplate from {@link #compile(CharSequence, Color)}, with its values set
+     * @param appendTo a Layout that stores one or more Line objects, carrying color, style, chars, and size
+     * @return appendTo, for chaining
+     */
+    public Layout markup(MarkupTemplate template, Layout appendTo) {
+        if(appendTo.font == null || !appendTo.font.equals(this))
+        {
+            appendTo.clear();
+            appendTo.font(this);
+        }
+        final int firstLine = appendTo.lines() - 1;
+        appendTo.peekLine().height = cellHeight;
+        appendTo.kern = -1;
+        // templates don't track markup state, so resumeMarkup() after this starts over from the base color
+        appendTo.resumable = false;
+        appendTo.ellipsized = false;
+        final long baseColor = Long.reverseBytes(NumberUtils.floatToIntColor(appendTo.getBaseColor())) & 0xFFFFFFFF00000000L;
+        final long[] glyphs = template.glyphs.items;
+        for (int s = 0, g = 0, slots = template.slots; s <= slots; s++) {
+            for (int until = s < slots ? template.slotAt[s] : template.glyphs.size; g < until; g++) {
+                if (!appendGlyph(appendTo, glyphs[g], baseColor)) {
+                    appendTo.ellipsized = true;
+                    return bakeKerning(appendTo, firstLine);
+                }
+            }
+            if (s < slots) {
+                final int index = template.slotIndex[s];
+                final long style = template.slotStyle[s];
+                final char[] chars = template.values[index];
+                for (int i = 0, n = template.valueLengths[index]; i < n; i++) {
+                    if (!appendGlyph(appendTo, style | chars[i], baseColor)) {
+                        appendTo.ellipsized = true;
+                        return bakeKerning(appendTo, firstLine);
+                    }
+                }
+            }
+        }
+        return bakeKerning(appendTo, firstLine);
+    }
+
+    /**
+     * Parses markup from text and sends each glyph to {@link #appendGlyph(Layout, long, long)}, or if {@code measure}
+     * is not null, to {@link #measureGlyph(Measurement, long)}, or if {@code template} is not null, into template
+     * along with any placeholders.
+     */
+    private void parse(CharSequence text, int start, int end, Layout appendTo, Measurement measure,
+                       MarkupTemplate template, long baseColor) {
         boolean capitalize = false, previousWasLetter = false,
                 capsLock = false, lowerCase = false;
         int c;
         final long COLOR_MASK = 0xFFFFFFFF00000000L;
-        long baseColor = Long.reverseBytes(NumberUtils.floatToIntColor(appendTo.getBaseColor())) & COLOR_MASK;
         long color = baseColor;
         long current = color;
-        if(appendTo.font == null || !appendTo.font.equals(this))
-        {
-            appendTo.clear();
-            appendTo.font(this);
+        if (appendTo != null && appendTo.resumable) {
+            current = appendTo.style;
+            capitalize = appendTo.capitalize;
+            capsLock = appendTo.capsLock;
+            lowerCase = appendTo.lowerCase;
+            previousWasLetter = appendTo.previousWasLetter;
         }
-        appendTo.peekLine().height = cellHeight;
-        float targetWidth = appendTo.getTargetWidth();
-        int kern = -1;
-        for (int i = 0, n = text.length(); i < n; i++) {
-            if(text.charAt(i) == '['){
+        for (int i = start, n = end; i < n; i++) {
+            char ch = text.charAt(i);
+            if(ch == '['){
                 if(++i < n && (c = text.charAt(i)) != '['){
                     if(c == ']'){
                         color = baseColor;
@@ -1625,7 +2920,9 @@ public class Font implements Disposable {
                         lowerCase = false;
                         continue;
                     }
-                    int len = text.indexOf(']', i) - i;
+                    // an unclosed tag uses the rest of the text
+                    int len = 0;
+                    while (i + len < n && text.charAt(i + len) != ']') len++;
                     switch (c) {
                         case '*':
                             current ^= BOLD;
@@ -1683,258 +2980,446 @@ public class Font implements Disposable {
                             break;
                         case '|':
                             // attempt to look up a known Color name from Colors
-                            Color lookupColor = Colors.get(text.substring(i + 1, i + len));
+                            Color lookupColor = getColor(text, i + 1, i + len);
                             if (lookupColor == null) color = baseColor;
                             else color = (long) Color.rgba8888(lookupColor) << 32;
                             current = (current & ~COLOR_MASK) | color;
                             break;
                         default:
                             // attempt to look up a known Color name from Colors
-                            Color gdxColor = Colors.get(text.substring(i, i + len));
+                            Color gdxColor = getColor(text, i, i + len);
                             if (gdxColor == null) color = baseColor;
                             else color = (long) Color.rgba8888(gdxColor) << 32;
                             current = (current & ~COLOR_MASK) | color;
                     }
                     i += len;
+                    continue;
                 }
-                else {
-                    float w;
-                    if (kerning == null) {
-                        w = (appendTo.peekLine().width += xAdvance(current | '['));
-                    } else {
-                        kern = kern << 16 | '[';
-                        w = (appendTo.peekLine().width += xAdvance(current | '[') + kerning.get(kern, 0) * scaleX);
+                // "[[" is an escaped left bracket, and a '[' at the very end is drawn as-is.
+                ch = '[';
+            }
+            else if(ch == '{' && template != null){
+                // a placeholder is a number of up to 9 digits in curly braces
+                int j = i + 1, index = 0;
+                while (j < n && j - i <= 9 && (c = text.charAt(j) - '0') >= 0 && c <= 9) {
+                    index = index * 10 + c;
+                    j++;
+                }
+                if (j > i + 1 && j < n && text.charAt(j) == '}') {
+                    template.addSlot(index, current);
+                    previousWasLetter = false;
+                    i = j;
+                    continue;
+                }
+            }
+            if (isLowerCase(ch)) {
+                if ((capitalize && !previousWasLetter) || capsLock) {
+                    ch = Character.toUpperCase(ch);
+                }
+                previousWasLetter = true;
+            } else if (isUpperCase(ch)) {
+                if ((capitalize && previousWasLetter) || lowerCase) {
+                    ch = Character.toLowerCase(ch);
+                }
+                previousWasLetter = true;
+            } else {
+                previousWasLetter = false;
+            }
+            if (template != null)
+                template.glyphs.add(current | ch);
+            else if (measure == null ? !appendGlyph(appendTo, current | ch, baseColor) : !measureGlyph(measure, current | ch)) {
+                if (appendTo != null) appendTo.ellipsized = true;
+                break;
+            }
+        }
+        if (appendTo != null) {
+            appendTo.style = current;
+            appendTo.capitalize = capitalize;
+            appendTo.capsLock = capsLock;
+            appendTo.lowerCase = lowerCase;
+            appendTo.previousWasLetter = previousWasLetter;
+            appendTo.resumable = true;
+        }
+    }
+
+    /**
+     * Wraps the glyphs already in {@code layout} again to fit its current target width, max lines, and ellipsis, without
+     * parsing any markup. Lines that were wrapped are joined back together with the spaces that were removed when they
+     * wrapped, and then re-wrapped as {@link #markup(String, Layout)} would. The Line objects are returned to their pool
+     * and obtained again, so this doesn't allocate once the pool is warm. Text that was cut off because the Layout
+     * reached its max lines, including any glyphs replaced by its ellipsis, can't be restored this way; call markup()
+     * again with the original text if you need it.
+     * @param layout a Layout that was produced by this Font; will be modified
+     * @return layout, for chaining
+     */
+    public Layout reflow(Layout layout) {
+        if(layout.font == null || !layout.font.equals(this))
+            return layout;
+        final Array<Line> old = layout.reflowing;
+        old.clear();
+        old.addAll(layout.lines);
+        layout.lines.clear();
+        layout.lines.add(Pools.obtain(Line.class));
+        layout.atLimit = false;
+        layout.wrapLine = null;
+        layout.kern = -1;
+        layout.peekLine().height = cellHeight;
+        final long baseColor = Long.reverseBytes(NumberUtils.floatToIntColor(layout.getBaseColor())) & 0xFFFFFFFF00000000L;
+        boolean full = false;
+        for (int ln = 0, n = old.size; ln < n; ln++) {
+            final Line line = old.get(ln);
+            final LongArray glyphs = line.wrapped ? line.trimmed : null;
+            long last = baseColor;
+            for (int i = 0, g = line.glyphs.size; i < g && !full; i++) {
+                full = !appendGlyph(layout, last = line.glyphs.get(i), baseColor);
+            }
+            if (glyphs != null) {
+                for (int i = 0, g = glyphs.size; i < g && !full; i++) {
+                    full = !appendGlyph(layout, glyphs.get(i), baseColor);
+                }
+            }
+            else if (ln + 1 < n && !full) {
+                full = !appendGlyph(layout, (last & 0xFFFFFFFFFFFF0000L) | '\n', baseColor);
+            }
+            Pools.free(line);
+        }
+        old.clear();
+        layout.ellipsized = full;
+        return bakeKerning(layout, 0);
+    }
+
+    /**
+     * Measures one glyph and adds it to the end of {@code appendTo}, wrapping the last Line if the glyph makes it wider
+     * than the target width, or adding the ellipsis if the Layout is full. This is the part of
+     * {@link #markup(String, Layout)} that runs once markup has been parsed into glyphs, and it is also used by
+     * {@link #reflow(Layout)}. The wrapping state it uses is stored in appendTo, and is rebuilt from the last Line if
+     * that Line was changed by something else.
+     * @param appendTo the Layout to add to
+     * @param glyph a glyph as produced by markup, with color, style, and char
+     * @param baseColor the color to use for the ellipsis, in the upper 32 bits
+     * @return false if the Layout was full and the ellipsis was placed, so nothing more should be added; true otherwise
+     */
+    protected boolean appendGlyph(Layout appendTo, long glyph, long baseColor) {
+        final char ch = (char) glyph;
+        Line line = appendTo.peekLine();
+        if (line != appendTo.wrapLine || line.glyphs.size != appendTo.wrapSize) {
+            startWrap(appendTo, line);
+        }
+        final float advance = xAdvance(glyph), step;
+        if (kerning == null) {
+            step = advance;
+        } else {
+            appendTo.kern = appendTo.kern << 16 | ch;
+            step = advance + kerning.get(appendTo.kern, 0) * scaleX;
+        }
+        final float w = (line.width += step);
+        appendTo.widthAfterKeep += step;
+        appendTo.widthAfterBreak += appendTo.afterBreak ? advance : step;
+        appendTo.afterBreak = false;
+        appendTo.add(glyph);
+        final float targetWidth = appendTo.targetWidth;
+        if((ch != '\n' && targetWidth > 0 && w > targetWidth) || appendTo.atLimit) {
+            Line later = appendTo.pushLine();
+            if(later == null){
+                // here, the max lines have been reached, and an ellipsis may need to be added
+                // to the last line.
+                if(appendTo.ellipsis != null && addEllipsis(appendTo, line, baseColor)) {
+                    return false;
+                }
+            }
+            else {
+                line.wrapped = true;
+                final int breakAt = appendTo.breakAt;
+                if (breakAt >= 0) {
+                    final LongArray glyphs = line.glyphs;
+                    for (int k = breakAt + 1; k < glyphs.size; k++) {
+                        appendTo.add(glyphs.get(k));
                     }
-                    appendTo.add(current | '[');
-                    if(targetWidth > 0 && w > targetWidth) {
-                        Line earlier = appendTo.peekLine();
-                        Line later = appendTo.pushLine();
-                        if(later == null){
-                            // here, the max lines have been reached, and an ellipsis may need to be added
-                            // to the last line.
-                            if(appendTo.ellipsis != null) {
-                                for (int j = earlier.glyphs.size - 1 - appendTo.ellipsis.length(); j >= 0; j--) {
-                                    int leading = 0;
-                                    while (Arrays.binarySearch(spaceChars.items, 0, spaceChars.size, (char) earlier.glyphs.get(j)) >= 0) {
-                                        ++leading;
-                                        --j;
-                                    }
-                                    float change = 0f, changeNext = 0f;
-                                    long currE, curr;
-                                    if (kerning == null) {
-                                        for (int k = j + 1, e = 0; k < earlier.glyphs.size; k++, e++) {
-                                            change += xAdvance(earlier.glyphs.get(k));
-                                            if (--leading < 0 && (e < appendTo.ellipsis.length())) {
-                                                float adv = xAdvance(currE = baseColor | appendTo.ellipsis.charAt(e));
-//                                                appendTo.add(currE);
-                                                changeNext += adv;
-                                            }
-                                        }
-                                    } else {
-                                        int k2 = ((int) earlier.glyphs.get(j) & 0xFFFF), k3 = -1;
-                                        int k2e = appendTo.ellipsis.charAt(0) & 0xFFFF, k3e = -1;
-                                        for (int k = j + 1, e = 0; k < earlier.glyphs.size; k++, e++) {
-                                            currE = baseColor | appendTo.ellipsis.charAt(e);
-                                            curr = earlier.glyphs.get(k);
-                                            k2 = k2 << 16 | (char) curr;
-                                            k2e = k2e << 16 | (char) currE;
-                                            float adv = xAdvance(curr);
-                                            change += adv + kerning.get(k2, 0) * scaleX;
-                                            if (--leading < 0 && (e < appendTo.ellipsis.length())) {
-                                                changeNext += xAdvance(currE) + kerning.get(k2e, 0) * scaleX;
-//                                                appendTo.add(currE);
-                                            }
-                                        }
-                                    }
-                                    earlier.glyphs.truncate(j + 1);
-                                    for (int e = 0; e < appendTo.ellipsis.length(); e++) {
-                                        earlier.glyphs.add(baseColor | appendTo.ellipsis.charAt(e));
-                                    }
-                                    earlier.width = earlier.width - change + changeNext;
-                                    return appendTo;
-                                }
-                            }
-                        }
-                        else {
-                            for (int j = earlier.glyphs.size - 2; j >= 0; j--) {
-                                if (Arrays.binarySearch(breakChars.items, 0, breakChars.size, (char) earlier.glyphs.get(j)) >= 0) {
-                                    int leading = 0;
-                                    while (Arrays.binarySearch(spaceChars.items, 0, spaceChars.size, (char) earlier.glyphs.get(j)) >= 0) {
-                                        ++leading;
-                                        --j;
-                                    }
-                                    float change = 0f, changeNext = 0f;
-                                    long curr;
-                                    if (kerning == null) {
-                                        for (int k = j + 1; k < earlier.glyphs.size; k++) {
-                                            float adv = xAdvance(curr = earlier.glyphs.get(k));
-                                            change += adv;
-                                            if (--leading < 0) {
-                                                appendTo.add(curr);
-                                                changeNext += adv;
-                                            }
-                                        }
-                                    } else {
-                                        int k2 = ((int) earlier.glyphs.get(j) & 0xFFFF), k3 = -1;
-                                        for (int k = j + 1; k < earlier.glyphs.size; k++) {
-                                            curr = earlier.glyphs.get(k);
-                                            k2 = k2 << 16 | (char) curr;
-                                            float adv = xAdvance(curr);
-                                            change += adv + kerning.get(k2, 0) * scaleX;
-                                            if (--leading < 0) {
-                                                k3 = k3 << 16 | (char) curr;
-                                                changeNext += adv + kerning.get(k3, 0) * scaleX;
-                                                appendTo.add(curr);
-                                            }
-                                        }
-                                    }
-                                    earlier.glyphs.truncate(j + 1);
-                                    later.width = changeNext;
-                                    earlier.width -= change;
-                                    break;
-                                }
-                            }
-                        }
+                    line.trimmed.addAll(glyphs, appendTo.keepTo + 1, breakAt - appendTo.keepTo);
+                    glyphs.truncate(appendTo.keepTo + 1);
+                    later.width = appendTo.widthAfterBreak;
+                    line.width -= appendTo.widthAfterKeep;
+                }
+            }
+        }
+        line = appendTo.peekLine();
+        if (line != appendTo.wrapLine) {
+            startWrap(appendTo, line);
+        } else {
+            nextWrap(appendTo, ch, line.glyphs.size - 1, step);
+            appendTo.wrapSize = line.glyphs.size;
+        }
+        return true;
+    }
+
+    /**
+     * Sets the wrapping state of {@code layout} to match the glyphs already in {@code line}, which should be its last
+     * Line. This is one pass over line, and for a new Line it does almost nothing.
+     */
+    private void startWrap(Layout layout, Line line) {
+        layout.wrapLine = line;
+        layout.breakAt = layout.keepTo = layout.spaceStart = -1;
+        layout.widthAfterKeep = layout.widthAfterBreak = layout.widthOfSpaces = 0f;
+        layout.afterBreak = layout.previousWasSpace = false;
+        final long[] glyphs = line.glyphs.items;
+        int kern = -1;
+        for (int i = 0, n = line.glyphs.size; i < n; i++) {
+            final long glyph = glyphs[i];
+            final float advance = xAdvance(glyph), step;
+            if (kerning == null) {
+                step = advance;
+            } else {
+                kern = kern << 16 | (char) glyph;
+                step = advance + kerning.get(kern, 0) * scaleX;
+            }
+            layout.widthAfterKeep += step;
+            layout.widthAfterBreak += layout.afterBreak ? advance : step;
+            layout.afterBreak = false;
+            nextWrap(layout, (char) glyph, i, step);
+        }
+        layout.wrapSize = line.glyphs.size;
+    }
+
+    /**
+     * Updates the wrapping state of {@code layout} after the glyph with the given char was placed at index {@code at}
+     * of its last Line, with {@code step} as its width including kerning.
+     */
+    private static void nextWrap(Layout layout, char ch, int at, float step) {
+        if (spaceBits.get(ch)) {
+            if (!layout.previousWasSpace) {
+                layout.spaceStart = at;
+                layout.widthOfSpaces = 0f;
+            }
+            layout.widthOfSpaces += step;
+            layout.previousWasSpace = true;
+        } else {
+            layout.previousWasSpace = false;
+        }
+        if (breakBits.get(ch)) {
+            layout.breakAt = at;
+            if (layout.previousWasSpace) {
+                layout.keepTo = layout.spaceStart - 1;
+                layout.widthAfterKeep = layout.widthOfSpaces;
+            } else {
+                layout.keepTo = at;
+                layout.widthAfterKeep = 0f;
+            }
+            layout.widthAfterBreak = 0f;
+            layout.afterBreak = true;
+        }
+    }
+
+    /**
+     * Measures one glyph for {@link #measure(CharSequence, int, int, Measurement)}, wrapping exactly as
+     * {@link #appendGlyph(Layout, long, long)} would, but only keeping track of widths and counts in {@code measure}.
+     * When a line wraps, the state {@link #startWrap(Layout, Line)} would rebuild from the glyphs moved to the new line
+     * is worked out directly, since those glyphs can't contain a break char except the one just added.
+     * @param measure the Measurement to update
+     * @param glyph a glyph as produced by markup, with color, style, and char
+     * @return false if the text was cut off with the ellipsis, so nothing more should be measured; true otherwise
+     */
+    protected boolean measureGlyph(Measurement measure, long glyph) {
+        final char ch = (char) glyph;
+        final float advance = xAdvance(glyph), step;
+        if (kerning == null) {
+            step = advance;
+        } else {
+            measure.kern = measure.kern << 16 | ch;
+            step = advance + kerning.get(measure.kern, 0) * scaleX;
+        }
+        final float w = (measure.lineWidth += step);
+        measure.widthAfterKeep += step;
+        measure.widthAfterBreak += measure.afterBreak ? advance : step;
+        measure.afterBreak = false;
+        final boolean keep = measure.ellipsis != null;
+        boolean pushed = false;
+        if (ch == '\n') {
+            if (measure.lines >= measure.maxLines) {
+                measure.atLimit = true;
+            } else {
+                measure.width = Math.max(measure.width, measure.lineWidth);
+                measure.lines++;
+                measure.lineWidth = 0f;
+                measure.size = 0;
+                measure.glyphs.clear();
+                measure.breakAt = measure.spaceStart = -1;
+                measure.widthAfterKeep = measure.widthAfterBreak = measure.widthOfSpaces = 0f;
+                measure.afterBreak = measure.previousWasSpace = false;
+                pushed = true;
+            }
+        } else if (!measure.atLimit) {
+            measure.size++;
+            if (keep) measure.glyphs.add(glyph);
+        }
+        final float targetWidth = measure.targetWidth;
+        if ((ch != '\n' && targetWidth > 0 && w > targetWidth) || measure.atLimit) {
+            if (measure.lines >= measure.maxLines) {
+                measure.atLimit = true;
+                if (keep) {
+                    final float width = ellipsize(measure.glyphs, measure.lineWidth, measure.ellipsis, targetWidth, 0L);
+                    if (width == width) {
+                        measure.lineWidth = width;
+                        return false;
                     }
                 }
             } else {
-                char ch = text.charAt(i);
-                if (isLowerCase(ch)) {
-                    if ((capitalize && !previousWasLetter) || capsLock) {
-                        ch = Character.toUpperCase(ch);
+                final int breakAt = measure.breakAt;
+                measure.lines++;
+                if (breakAt >= 0) {
+                    final int moved = measure.size - 1 - breakAt;
+                    measure.width = Math.max(measure.width, measure.lineWidth - measure.widthAfterKeep);
+                    measure.lineWidth = measure.widthAfterBreak;
+                    measure.size = moved;
+                    if (keep) {
+                        final LongArray glyphs = measure.glyphs;
+                        System.arraycopy(glyphs.items, breakAt + 1, glyphs.items, 0, moved);
+                        glyphs.size = moved;
                     }
-                    previousWasLetter = true;
-                } else if (isUpperCase(ch)) {
-                    if ((capitalize && previousWasLetter) || lowerCase) {
-                        ch = Character.toLowerCase(ch);
+                    // the new line starts with no break chars, except maybe the glyph that was just added
+                    measure.breakAt = measure.spaceStart = -1;
+                    measure.widthOfSpaces = 0f;
+                    measure.previousWasSpace = false;
+                    if (breakBits.get(ch)) {
+                        measure.widthAfterKeep = 0f;
+                        measure.widthAfterBreak = 0f;
+                        nextWrap(measure, ch, moved - 1, moved == 1 ? firstStep(glyph) : step);
+                    } else {
+                        measure.widthAfterKeep = measure.widthAfterBreak =
+                                moved == 1 ? firstStep(glyph) : measure.widthAfterBreak;
+                        measure.afterBreak = false;
                     }
-                    previousWasLetter = true;
-                } else {
-                    previousWasLetter = false;
+                    return true;
                 }
-                float w;
-                if (kerning == null) {
-                    w = (appendTo.peekLine().width += xAdvance(current | ch));
-                } else {
-                    kern = kern << 16 | (int) ((current | ch) & 0xFFFF);
-                    w = (appendTo.peekLine().width += xAdvance(current | ch) + kerning.get(kern, 0) * scaleX);
-                }
-                appendTo.add(current | ch);
-                if((targetWidth > 0 && w > targetWidth) || appendTo.atLimit) {
-                    Line earlier = appendTo.peekLine();
-                    Line later = appendTo.pushLine();
-                    if(later == null){
-                        // here, the max lines have been reached, and an ellipsis may need to be added
-                        // to the last line.
-                        if(appendTo.ellipsis != null) {
-                            for (int j = earlier.glyphs.size - 1; j >= 0; j--) {
-                                int leading = 0;
-                                while (Arrays.binarySearch(spaceChars.items, 0, spaceChars.size, (char) earlier.glyphs.get(j)) < 0 && j > 0) {
-                                    ++leading;
-                                    --j;
-                                }
-                                while (Arrays.binarySearch(spaceChars.items, 0, spaceChars.size, (char) earlier.glyphs.get(j)) >= 0 && j > 0) {
-                                    ++leading;
-                                    --j;
-                                }
-                                float change = 0f, changeNext = 0f;
-                                long currE, curr;
-                                if (kerning == null) {
-                                    for (int k = j + 1, e = 0; k < earlier.glyphs.size; k++, e++) {
-                                        change += xAdvance(earlier.glyphs.get(k));
-                                        if ((e < appendTo.ellipsis.length())) {
-                                            float adv = xAdvance(currE = baseColor | appendTo.ellipsis.charAt(e));
-//                                                appendTo.add(currE);
-                                            changeNext += adv;
-                                        }
-                                    }
-                                } else {
-                                    int k2 = ((int) earlier.glyphs.get(j) & 0xFFFF), k3 = -1;
-                                    int k2e = appendTo.ellipsis.charAt(0) & 0xFFFF, k3e = -1;
-                                    for (int k = j + 1, e = 0; k < earlier.glyphs.size; k++, e++) {
-                                        curr = earlier.glyphs.get(k);
-                                        k2 = k2 << 16 | (char) curr;
-                                        float adv = xAdvance(curr);
-                                        change += adv + kerning.get(k2, 0) * scaleX;
-                                        if ((e < appendTo.ellipsis.length())) {
-                                            currE = baseColor | appendTo.ellipsis.charAt(e);
-                                            k2e = k2e << 16 | (char) currE;
-                                            changeNext += xAdvance(currE) + kerning.get(k2e, 0) * scaleX;
-//                                                appendTo.add(currE);
-                                        }
-                                    }
-                                }
-                                if (earlier.width + changeNext < appendTo.getTargetWidth()) {
-                                    for (int e = 0; e < appendTo.ellipsis.length(); e++) {
-                                        earlier.glyphs.add(baseColor | appendTo.ellipsis.charAt(e));
-                                    }
-                                    earlier.width = earlier.width + changeNext;
-                                    return appendTo;
-                                }
-                                if (earlier.width - change + changeNext < appendTo.getTargetWidth()) {
-                                    earlier.glyphs.truncate(j + 1);
-                                    for (int e = 0; e < appendTo.ellipsis.length(); e++) {
-                                        earlier.glyphs.add(baseColor | appendTo.ellipsis.charAt(e));
-                                    }
-                                    earlier.width = earlier.width - change + changeNext;
-                                    return appendTo;
-                                }
-                            }
-                        }
+                measure.width = Math.max(measure.width, measure.lineWidth);
+                measure.lineWidth = 0f;
+                measure.size = 0;
+                measure.glyphs.clear();
+                measure.breakAt = measure.spaceStart = -1;
+                measure.widthAfterKeep = measure.widthAfterBreak = measure.widthOfSpaces = 0f;
+                measure.afterBreak = measure.previousWasSpace = false;
+                pushed = true;
+            }
+        }
+        if (!pushed) {
+            nextWrap(measure, ch, measure.size - 1, step);
+        }
+        return true;
+    }
+
+    /**
+     * The width {@link #startWrap(Layout, Line)} gives the first glyph of a Line, which isn't kerned with anything.
+     */
+    private float firstStep(long glyph) {
+        final float advance = xAdvance(glyph);
+        return kerning == null ? advance : advance + kerning.get(-1 << 16 | (char) glyph, 0) * scaleX;
+    }
+
+    /**
+     * The same as {@link #nextWrap(Layout, char, int, float)}, but for a Measurement.
+     */
+    private static void nextWrap(Measurement measure, char ch, int at, float step) {
+        if (spaceBits.get(ch)) {
+            if (!measure.previousWasSpace) {
+                measure.spaceStart = at;
+                measure.widthOfSpaces = 0f;
+            }
+            measure.widthOfSpaces += step;
+            measure.previousWasSpace = true;
+        } else {
+            measure.previousWasSpace = false;
+        }
+        if (breakBits.get(ch)) {
+            measure.breakAt = at;
+            measure.widthAfterKeep = measure.previousWasSpace ? measure.widthOfSpaces : 0f;
+            measure.widthAfterBreak = 0f;
+            measure.afterBreak = true;
+        }
+    }
+
+    /**
+     * Called by markup when the last line of {@code appendTo} is full and no more lines can be added; tries to end
+     * {@code earlier} with the Layout's ellipsis, removing glyphs from the end of the line if needed to make room.
+     * @return true if the ellipsis was added, or false if there wasn't a place to put it
+     */
+    private boolean addEllipsis(Layout appendTo, Line earlier, long baseColor) {
+        final float width = ellipsize(earlier.glyphs, earlier.width, appendTo.ellipsis, appendTo.targetWidth, baseColor);
+        if (width != width) return false;
+        earlier.width = width;
+        return true;
+    }
+
+    /**
+     * Does the work of {@link #addEllipsis(Layout, Line, long)} on just the glyphs of a line and its width, so it can
+     * also be used when measuring.
+     * @return the new width of the line if the ellipsis was added to glyphs, or NaN if there wasn't a place to put it
+     */
+    private float ellipsize(LongArray glyphs, float width, String ellipsis, float targetWidth, long baseColor) {
+        for (int j = glyphs.size - 1; j >= 0; j--) {
+            int leading = 0;
+            while (!spaceBits.get((char) glyphs.get(j)) && j > 0) {
+                ++leading;
+                --j;
+            }
+            while (spaceBits.get((char) glyphs.get(j)) && j > 0) {
+                ++leading;
+                --j;
+            }
+            float change = 0f, changeNext = 0f;
+            long currE, curr;
+            if (kerning == null) {
+                for (int k = j + 1, e = 0; k < glyphs.size; k++, e++) {
+                    change += xAdvance(glyphs.get(k));
+                    if ((e < ellipsis.length())) {
+                        float adv = xAdvance(currE = baseColor | ellipsis.charAt(e));
+                        changeNext += adv;
                     }
-                    else {
-                        for (int j = earlier.glyphs.size - 2; j >= 0; j--) {
-                            if (Arrays.binarySearch(breakChars.items, 0, breakChars.size, (char) earlier.glyphs.get(j)) >= 0) {
-                                int leading = 0;
-                                while (Arrays.binarySearch(spaceChars.items, 0, spaceChars.size, (char) earlier.glyphs.get(j)) >= 0) {
-                                    ++leading;
-                                    --j;
-                                }
-                                float change = 0f, changeNext = 0f;
-                                long curr;
-                                if (kerning == null) {
-                                    for (int k = j + 1; k < earlier.glyphs.size; k++) {
-                                        float adv = xAdvance(curr = earlier.glyphs.get(k));
-                                        change += adv;
-                                        if (--leading < 0) {
-                                            appendTo.add(curr);
-                                            changeNext += adv;
-                                        }
-                                    }
-                                } else {
-                                    int k2 = ((int) earlier.glyphs.get(j) & 0xFFFF), k3 = -1;
-                                    for (int k = j + 1; k < earlier.glyphs.size; k++) {
-                                        curr = earlier.glyphs.get(k);
-                                        k2 = k2 << 16 | (char) curr;
-                                        float adv = xAdvance(curr);
-                                        change += adv + kerning.get(k2, 0) * scaleX;
-                                        if (--leading < 0) {
-                                            k3 = k3 << 16 | (char) curr;
-                                            changeNext += adv + kerning.get(k3, 0) * scaleX;
-                                            appendTo.add(curr);
-                                        }
-                                    }
-                                }
-                                earlier.glyphs.truncate(j + 1);
-                                later.width = changeNext;
-                                earlier.width -= change;
-                                break;
-                            }
-                        }
+                }
+            } else {
+                int k2 = ((int) glyphs.get(j) & 0xFFFF);
+                int k2e = ellipsis.charAt(0) & 0xFFFF;
+                for (int k = j + 1, e = 0; k < glyphs.size; k++, e++) {
+                    curr = glyphs.get(k);
+                    k2 = k2 << 16 | (char) curr;
+                    float adv = xAdvance(curr);
+                    change += adv + kerning.get(k2, 0) * scaleX;
+                    if ((e < ellipsis.length())) {
+                        currE = baseColor | ellipsis.charAt(e);
+                        k2e = k2e << 16 | (char) currE;
+                        changeNext += xAdvance(currE) + kerning.get(k2e, 0) * scaleX;
                     }
                 }
             }
+            if (width + changeNext < targetWidth) {
+                for (int e = 0; e < ellipsis.length(); e++) {
+                    glyphs.add(baseColor | ellipsis.charAt(e));
+                }
+                return width + changeNext;
+            }
+            if (width - change + changeNext < targetWidth) {
+                glyphs.truncate(j + 1);
+                for (int e = 0; e < ellipsis.length(); e++) {
+                    glyphs.add(baseColor | ellipsis.charAt(e));
+                }
+                return width - change + changeNext;
+            }
         }
-        return appendTo;
+        return Float.NaN;
     }
 
     /**
-     * Releases all resources of this object.
+     * Releases all resources of this object. If this Font came from a {@link FontRegistry}, this releases it back to
+     * the registry instead, which disposes the shared resources once no Font from it uses them. A Font that shares
+     * its shader with another Font doesn't dispose it.
      */
     @Override
     public void dispose() {
-        Pools.free(tempLayout);
-        if(shader != null)
-            shader.dispose();
+        if(registry != null)
+            registry.release(this);
+        else if(sharedFrom == null) {
+            if(shader != null)
+                shader.dispose();
+            if(boldShader != null)
+                boldShader.dispose();
+        }
     }
 }
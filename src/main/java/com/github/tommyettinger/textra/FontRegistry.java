@@ -0,0 +1,233 @@
+package com.github.tommyettinger.textra;
+
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.IdentityMap;
+import com.badlogic.gdx.utils.ObjectMap;
+
+/**
+ * Loads each font once and hands out Fonts that share its glyphs, kerning, textures, and shader, counting how many are
+ * in use so the shared resources can be disposed when the last one is. Fonts are looked up by their source: a .fnt
+ * path with a distance field type and adjustments, or a {@link BitmapFont} (compared by identity) with the same.
+ * <br>
+ * Every call to an obtain() method returns a new Font, but only the first call for a source loads anything; later
+ * calls create a Font that shares everything with the one already loaded, which is far cheaper than
+ * {@link Font#Font(Font)} because no GlyphRegions or kerning are copied. Each Font can be scaled on its own, and if its
+ * glyphs are changed with {@link Font#putGlyph(char, Font.GlyphRegion)}, it copies them first, so the other Fonts are
+ * unaffected. Changing {@link Font#mapping} or {@link Font#kerning} directly, or the GlyphRegions in them, affects
+ * every Font from the same source, as does changing texture filters.
+ * <br>
+ * Call {@link Font#dispose()} on each obtained Font when you are done with it, or {@link #release(Font)}, which does
+ * the same thing. When every Font from a source has been released, the shader and any textures the registry loaded
+ * for it are disposed; textures from a BitmapFont that was passed in are left to its owner. {@link #dispose()}
+ * disposes everything at once. A registry is meant to be created alongside the Skin or other assets whose fonts it
+ * shares, passed to each {@link TextraLabel} that should share them, and disposed along with those assets; there is
+ * no global registry, so nothing it loads outlives the app that loaded it.
+ * <br>
+ * Like drawing, this should only be used from one thread, typically the render thread.
+ */
+public class FontRegistry implements Disposable {
+    /**
+     * One loaded font, and how many Fonts that share it are still in use.
+     */
+    protected static class Entry {
+        public Font base;
+        public int references;
+        /**
+         * The key this is stored under in {@link #byName}, or null if it is stored in {@link #byBitmapFont}.
+         */
+        public String name;
+        public BitmapFont bitmapFont;
+        /**
+         * If true, the textures in the base Font's parents were loaded for it, and should be disposed with it.
+         */
+        public boolean ownsTextures;
+        /**
+         * If true, {@link #bitmapFont} was created by the registry, and should be disposed with the base Font.
+         */
+        public boolean ownsBitmapFont;
+        public Font.DistanceFieldType distanceField;
+        public float xAdjust, yAdjust, widthAdjust, heightAdjust;
+    }
+
+    protected final ObjectMap<String, Entry> byName = new ObjectMap<>();
+    protected final IdentityMap<BitmapFont, Array<Entry>> byBitmapFont = new IdentityMap<>();
+    protected final IdentityMap<Font, Entry> byBase = new IdentityMap<>();
+    private final StringBuilder keyBuilder = new StringBuilder(64);
+    private BitmapFont defaultBitmapFont;
+
+    /**
+     * Gets a Font for the given .fnt file, with no distance field effect and no adjustments.
+     * @param fntName the path and filename of a .fnt file, as {@link Font#Font(String)} takes
+     * @return a new Font that shares its glyphs with every other Font from the same source
+     */
+    public Font obtain(String fntName) {
+        return obtain(fntName, Font.DistanceFieldType.STANDARD, 0f, 0f, 0f, 0f);
+    }
+
+    /**
+     * Gets a Font for the given .fnt file, loading it only if no Font from the same file, distance field type, and
+     * adjustments is already in use.
+     * @param fntName the path and filename of a .fnt file; may be internal or classpath
+     * @param distanceField determines how edges are drawn; if unsure, you should use {@link Font.DistanceFieldType#STANDARD}
+     * @param xAdjust how many pixels to offset each character's x-position by, moving to the right
+     * @param yAdjust how many pixels to offset each character's y-position by, moving up
+     * @param widthAdjust how many pixels to add to the used width of each character, using more to the right
+     * @param heightAdjust how many pixels to add to the used height of each character, using more above
+     * @return a new Font that shares its glyphs with every other Font from the same source
+     */
+    public Font obtain(String fntName, Font.DistanceFieldType distanceField,
+                       float xAdjust, float yAdjust, float widthAdjust, float heightAdjust) {
+        keyBuilder.setLength(0);
+        keyBuilder.append(fntName).append('\n').append(distanceField).append('\n').append(xAdjust).append('\n')
+                .append(yAdjust).append('\n').append(widthAdjust).append('\n').append(heightAdjust);
+        final String key = keyBuilder.toString();
+        Entry entry = byName.get(key);
+        if (entry == null) {
+            entry = new Entry();
+            entry.base = new Font(fntName, distanceField, xAdjust, yAdjust, widthAdjust, heightAdjust);
+            entry.name = key;
+            entry.ownsTextures = true;
+            byName.put(key, entry);
+            byBase.put(entry.base, entry);
+        }
+        entry.references++;
+        return new Font(entry.base, this);
+    }
+
+    /**
+     * Gets a Font that draws with the given BitmapFont, with no distance field effect and no adjustments.
+     * @param bmFont a BitmapFont, which must not be disposed while Fonts from it are in use
+     * @return a new Font that shares its glyphs with every other Font from the same source
+     */
+    public Font obtain(BitmapFont bmFont) {
+        return obtain(bmFont, Font.DistanceFieldType.STANDARD, 0f, 0f, 0f, 0f);
+    }
+
+    /**
+     * Gets a Font that draws with the given BitmapFont, copying its glyphs only if no Font from the same BitmapFont
+     * (the same object, not an equal one), distance field type, and adjustments is already in use.
+     * @param bmFont a BitmapFont, which must not be disposed while Fonts from it are in use
+     * @param distanceField determines how edges are drawn; if unsure, you should use {@link Font.DistanceFieldType#STANDARD}
+     * @param xAdjust how many pixels to offset each character's x-position by, moving to the right
+     * @param yAdjust how many pixels to offset each character's y-position by, moving up
+     * @param widthAdjust how many pixels to add to the used width of each character, using more to the right
+     * @param heightAdjust how many pixels to add to the used height of each character, using more above
+     * @return a new Font that shares its glyphs with every other Font from the same source
+     */
+    public Font obtain(BitmapFont bmFont, Font.DistanceFieldType distanceField,
+                       float xAdjust, float yAdjust, float widthAdjust, float heightAdjust) {
+        return obtain(bmFont, false, distanceField, xAdjust, yAdjust, widthAdjust, heightAdjust);
+    }
+
+    /**
+     * Gets a Font that draws with libGDX's default BitmapFont (Arial at 15px), which the registry creates the first
+     * time this is called, and disposes when every Font from it has been released.
+     * @return a new Font that shares its glyphs with every other Font from the default BitmapFont
+     */
+    public Font obtainDefault() {
+        if (defaultBitmapFont == null) defaultBitmapFont = new BitmapFont();
+        return obtain(defaultBitmapFont, true, Font.DistanceFieldType.STANDARD, 0f, 0f, 0f, 0f);
+    }
+
+    private Font obtain(BitmapFont bmFont, boolean ownsBitmapFont, Font.DistanceFieldType distanceField,
+                        float xAdjust, float yAdjust, float widthAdjust, float heightAdjust) {
+        Array<Entry> entries = byBitmapFont.get(bmFont);
+        if (entries == null) {
+            entries = new Array<>(false, 2, Entry.class);
+            byBitmapFont.put(bmFont, entries);
+        }
+        Entry entry = null;
+        for (int i = 0; i < entries.size; i++) {
+            final Entry e = entries.get(i);
+            if (e.distanceField == distanceField && e.xAdjust == xAdjust && e.yAdjust == yAdjust
+                    && e.widthAdjust == widthAdjust && e.heightAdjust == heightAdjust) {
+                entry = e;
+                break;
+            }
+        }
+        if (entry == null) {
+            entry = new Entry();
+            entry.base = new Font(bmFont, distanceField, xAdjust, yAdjust, widthAdjust, heightAdjust);
+            entry.bitmapFont = bmFont;
+            entry.ownsBitmapFont = ownsBitmapFont;
+            entry.distanceField = distanceField;
+            entry.xAdjust = xAdjust;
+            entry.yAdjust = yAdjust;
+            entry.widthAdjust = widthAdjust;
+            entry.heightAdjust = heightAdjust;
+            entries.add(entry);
+            byBase.put(entry.base, entry);
+        }
+        entry.references++;
+        return new Font(entry.base, this);
+    }
+
+    /**
+     * Stops counting the given Font as in use. When no Font from its source is in use, the shared shader is disposed,
+     * along with the textures or BitmapFont if this registry loaded them. This is called by {@link Font#dispose()} on
+     * a Font from this registry, and is the same as calling that. Releasing a Font more than once does nothing.
+     * @param font a Font returned by one of the obtain() methods, which shouldn't be used afterwards
+     */
+    public void release(Font font) {
+        if (font.registry != this) return;
+        font.registry = null;
+        final Entry entry = byBase.get(font.sharedFrom);
+        if (entry == null || --entry.references > 0) return;
+        byBase.remove(entry.base);
+        if (entry.name != null) {
+            byName.remove(entry.name);
+        } else {
+            final Array<Entry> entries = byBitmapFont.get(entry.bitmapFont);
+            entries.removeValue(entry, true);
+            if (entries.size == 0) byBitmapFont.remove(entry.bitmapFont);
+        }
+        dispose(entry);
+    }
+
+    /**
+     * @return how many different sources have Fonts in use, each of which was only loaded once
+     */
+    public int getLoadedCount() {
+        return byBase.size;
+    }
+
+    /**
+     * @param font a Font returned by one of the obtain() methods
+     * @return how many Fonts that share the same source as font are still in use, or 0 if font isn't from here
+     */
+    public int getReferenceCount(Font font) {
+        final Entry entry = byBase.get(font.sharedFrom);
+        return entry == null ? 0 : entry.references;
+    }
+
+    protected void dispose(Entry entry) {
+        entry.base.dispose();
+        if (entry.ownsTextures) {
+            for (TextureRegion parent : entry.base.parents) {
+                parent.getTexture().dispose();
+            }
+        }
+        if (entry.ownsBitmapFont) {
+            entry.bitmapFont.dispose();
+            if (entry.bitmapFont == defaultBitmapFont) defaultBitmapFont = null;
+        }
+    }
+
+    /**
+     * Disposes every loaded font right away, even if Fonts from it are still in use; those Fonts must not be used
+     * afterwards. The registry can still be used to obtain new Fonts.
+     */
+    @Override
+    public void dispose() {
+        for (Entry entry : byBase.values()) {
+            dispose(entry);
+        }
+        byBase.clear();
+        byName.clear();
+        byBitmapFont.clear();
+        defaultBitmapFont = null;
+    }
+}
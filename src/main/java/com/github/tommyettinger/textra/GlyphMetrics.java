@@ -0,0 +1,396 @@
+package com.github.tommyettinger.textra;
+
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.IntMap;
+
+import java.util.Arrays;
+
+/**
+ * Precomputed metrics for every glyph in a {@link Font}, stored as parallel primitive arrays indexed by glyph slot,
+ * with the font's scale already applied. Each char that has a glyph is assigned a slot by {@link #slot(char)}, using a
+ * paged table (256 pages of 256 slots, indexed by the high and low bytes of the char), and slot 0 is always empty, so
+ * chars without a glyph map to it. The draw and measure paths of Font read from these arrays instead of calling
+ * getters on {@link Font.GlyphRegion} and multiplying by the scale for each glyph they process.
+ * <br>
+ * A Font rebuilds its GlyphMetrics when it loads, when {@link Font#updateGlyphs()} or
+ * {@link Font#putGlyph(char, Font.GlyphRegion)} is called, and when it is scaled. If a GlyphRegion in the font has its
+ * texture coordinates changed (by any of the TextureRegion setters, {@link Font.GlyphRegion#flip(boolean, boolean)},
+ * or {@link Font.GlyphRegion#scroll(float, float)}), it calls {@link #invalidate()} on the GlyphMetrics it belongs to,
+ * and the arrays are recalculated the next time they are needed. Changing the public offset and advance fields of a
+ * GlyphRegion can't be detected, so you should call {@link Font.GlyphRegion#invalidate()} after doing that.
+ */
+public class GlyphMetrics {
+    /**
+     * Maps the high byte of a char to a page that maps the low byte to a slot; pages with no glyphs are null.
+     */
+    protected final int[][] slotPages = new int[256][];
+    /**
+     * How many slots have been assigned, including the empty slot 0 and any slots in {@link #freeSlots}.
+     */
+    public int size = 1;
+    /**
+     * Slots below {@link #size} whose glyphs were removed by {@link #put(char, Font.GlyphRegion)}; they are empty, and
+     * are reused before any new slot is added.
+     */
+    protected final IntArray freeSlots = new IntArray();
+    /**
+     * The scale multipliers that were applied to the horizontal and vertical metrics, respectively.
+     */
+    public float scaleX = 1f, scaleY = 1f;
+
+    /**
+     * The GlyphRegion in each slot; slot 0 always holds null.
+     */
+    public Font.GlyphRegion[] regions = new Font.GlyphRegion[16];
+    /**
+     * The Texture each glyph is drawn from.
+     */
+    public Texture[] textures = new Texture[16];
+    /**
+     * {@link Font.GlyphRegion#xAdvance} multiplied by {@link #scaleX}.
+     */
+    public float[] advance = new float[16];
+    /**
+     * {@link Font.GlyphRegion#offsetX} multiplied by {@link #scaleX}.
+     */
+    public float[] offsetX = new float[16];
+    /**
+     * {@link Font.GlyphRegion#offsetY} multiplied by {@link #scaleY}.
+     */
+    public float[] offsetY = new float[16];
+    /**
+     * The region width of each glyph multiplied by {@link #scaleX}.
+     */
+    public float[] width = new float[16];
+    /**
+     * The region height of each glyph multiplied by {@link #scaleY}.
+     */
+    public float[] height = new float[16];
+    /**
+     * The texture coordinates of each glyph.
+     */
+    public float[] u = new float[16], v = new float[16], u2 = new float[16], v2 = new float[16];
+
+    /**
+     * The slot of the glyph used to draw underlines ({@code '_'}), or 0 if there is none.
+     */
+    public int underSlot;
+    /**
+     * The horizontal texture coordinates for the middle part of the underline glyph, which is stretched to draw lines.
+     */
+    public float underU, underU2;
+    /**
+     * The slot of the glyph used to draw strikethrough lines ({@code '-'}), or 0 if there is none.
+     */
+    public int dashSlot;
+    /**
+     * The horizontal texture coordinates for a thin sliver of the dash glyph, which is stretched to draw lines.
+     */
+    public float dashU, dashU2;
+
+    /**
+     * How far above and below the top of its line cell any glyph quad can reach, including underlines and strikethrough;
+     * top is never negative and bottom is never positive. Culled drawing uses these to tell if a line can be seen.
+     */
+    public float top, bottom;
+    /**
+     * How far to either side of the pen position any glyph quad can reach, including oblique slant, bold offsets,
+     * underlines, and strikethrough. Culled drawing uses this to tell if a glyph can be seen.
+     */
+    public float reach;
+
+    /**
+     * If not null, the GlyphMetrics this shares its slot pages, {@link #regions}, {@link #textures}, and texture
+     * coordinates with; this only has its own scaled arrays. Set by {@link #share(GlyphMetrics, float, float)}, and
+     * cleared when {@link #assign(IntMap, float, float)} gives this arrays of its own.
+     */
+    protected GlyphMetrics source;
+    /**
+     * The {@link #version} of {@link #source} when this last calculated its arrays; if source's version changes, a
+     * GlyphRegion may have changed, so this recalculates its own arrays before they are next used.
+     */
+    protected int sourceVersion;
+    /**
+     * If true, another GlyphMetrics shares this one's slot pages, {@link #regions}, {@link #textures}, and texture
+     * coordinates, so they are copied before this changes which glyph is in any slot (copy-on-write).
+     */
+    protected boolean lent;
+    /**
+     * Incremented whenever this recalculates its arrays or changes a slot, so GlyphMetrics that share this one's
+     * arrays can tell they need to recalculate their own.
+     */
+    protected volatile int version;
+
+    /**
+     * Volatile so that once a thread sees this is false, it also sees the arrays {@link #refresh()} calculated.
+     */
+    protected volatile boolean dirty;
+
+    /**
+     * Gets the slot for the given char, or 0 if it has no glyph.
+     * @param c any char
+     * @return the slot for c in the parallel arrays here, or 0 if c has no glyph
+     */
+    public int slot(char c) {
+        final int[] page = slotPages[c >>> 8];
+        if (page == null) return 0;
+        final int s = page[c & 255];
+        return s < size ? s : 0;
+    }
+
+    /**
+     * Marks this as needing its arrays recalculated from the GlyphRegions before they are next used. This is called
+     * automatically when a GlyphRegion that belongs to this changes its texture coordinates.
+     */
+    public void invalidate() {
+        dirty = true;
+    }
+
+    /**
+     * Returns true if {@link #invalidate()} has been called since the arrays were last calculated, or if this shares
+     * arrays with another GlyphMetrics that changed since then.
+     * @return true if the arrays need to be recalculated by {@link #refresh()}
+     */
+    public boolean isDirty() {
+        return dirty || source != null && (source.version != sourceVersion || source.isDirty());
+    }
+
+    /**
+     * Reassigns every slot so this holds exactly the glyphs in {@code mapping}, then calculates all the arrays.
+     * Only keys from 0 to 65535 (inclusive) are used, because those are the only ones that can be drawn.
+     * @param mapping the mapping from char to GlyphRegion, as used by {@link Font#mapping}
+     * @param scaleX the horizontal scale to apply
+     * @param scaleY the vertical scale to apply
+     * @return this, for chaining
+     */
+    public GlyphMetrics assign(IntMap<Font.GlyphRegion> mapping, float scaleX, float scaleY) {
+        Arrays.fill(slotPages, null);
+        if (source != null || lent) {
+            source = null;
+            lent = false;
+            regions = new Font.GlyphRegion[16];
+            textures = new Texture[16];
+            u = new float[16];
+            v = new float[16];
+            u2 = new float[16];
+            v2 = new float[16];
+        }
+        else Arrays.fill(regions, null);
+        size = 1;
+        freeSlots.clear();
+        ensureCapacity(mapping.size + 1);
+        for (IntMap.Entry<Font.GlyphRegion> e : mapping) {
+            if (e.key < 0 || e.key > 0xFFFF || e.value == null) continue;
+            int[] page = slotPages[e.key >>> 8];
+            if (page == null) page = slotPages[e.key >>> 8] = new int[256];
+            page[e.key & 255] = size;
+            regions[size++] = e.value;
+            e.value.metrics = this;
+        }
+        this.scaleX = scaleX;
+        this.scaleY = scaleY;
+        refreshAll();
+        return this;
+    }
+
+    /**
+     * Makes this use the same slots, GlyphRegions, textures, and texture coordinates as {@code source}, without
+     * copying them, and calculates only the scaled arrays here. This is how Fonts that share their glyphs, such as
+     * views from {@link Font#scaledView(float, float)} and Fonts from a {@link FontRegistry}, avoid a copy of every
+     * glyph for each Font. The sharing is copy-on-write: if source later changes which glyph is in a slot, it copies
+     * the shared arrays first, so this keeps the glyphs it was given. The GlyphRegions themselves are still shared, so
+     * if one changes its texture coordinates, source recalculates, and this recalculates too before it is next used.
+     * Don't call {@link #put(char, Font.GlyphRegion)} on a GlyphMetrics that shares its arrays;
+     * {@link #assign(IntMap, float, float)} it to a mapping of its own first.
+     * @param source another GlyphMetrics
+     * @param scaleX the horizontal scale to apply
+     * @param scaleY the vertical scale to apply
+     * @return this, for chaining
+     */
+    public GlyphMetrics share(GlyphMetrics source, float scaleX, float scaleY) {
+        source.refresh();
+        source.lent = true;
+        this.source = source;
+        sourceVersion = source.version;
+        System.arraycopy(source.slotPages, 0, slotPages, 0, 256);
+        size = source.size;
+        freeSlots.clear();
+        regions = source.regions;
+        textures = source.textures;
+        u = source.u;
+        v = source.v;
+        u2 = source.u2;
+        v2 = source.v2;
+        final int n = regions.length;
+        advance = new float[n];
+        offsetX = new float[n];
+        offsetY = new float[n];
+        width = new float[n];
+        height = new float[n];
+        this.scaleX = scaleX;
+        this.scaleY = scaleY;
+        refreshAll();
+        return this;
+    }
+
+    /**
+     * Sets the glyph for one char, reusing its slot if it already had one, and recalculates that slot. Removing a
+     * glyph empties its slot, so it no longer counts toward {@link #top}, {@link #bottom}, or {@link #reach}, and the
+     * slot is reused by the next glyph added.
+     * @param c the char to assign
+     * @param region the GlyphRegion for c, or null to remove c's glyph
+     */
+    public void put(char c, Font.GlyphRegion region) {
+        if (lent) unlend();
+        int[] page = slotPages[c >>> 8];
+        if (region == null) {
+            final int s = page == null ? 0 : page[c & 255];
+            if (s != 0) {
+                page[c & 255] = 0;
+                regions[s] = null;
+                textures[s] = null;
+                advance[s] = offsetX[s] = offsetY[s] = width[s] = height[s] = 0f;
+                u[s] = v[s] = u2[s] = v2[s] = 0f;
+                freeSlots.add(s);
+            }
+        } else {
+            if (page == null) page = slotPages[c >>> 8] = new int[256];
+            int s = page[c & 255];
+            if (s == 0) {
+                if (freeSlots.size > 0) {
+                    s = page[c & 255] = freeSlots.pop();
+                } else {
+                    ensureCapacity(size + 1);
+                    s = page[c & 255] = size++;
+                }
+            }
+            regions[s] = region;
+            region.metrics = this;
+            calculate(s);
+        }
+        updateLines();
+        updateBounds();
+        version++;
+    }
+
+    /**
+     * Copies the slot pages and every array shared with other GlyphMetrics, so this can change them without affecting
+     * the others.
+     */
+    protected void unlend() {
+        lent = false;
+        for (int i = 0; i < 256; i++) {
+            if (slotPages[i] != null) slotPages[i] = slotPages[i].clone();
+        }
+        regions = regions.clone();
+        textures = textures.clone();
+        u = u.clone();
+        v = v.clone();
+        u2 = u2.clone();
+        v2 = v2.clone();
+    }
+
+    /**
+     * Changes the scale multipliers and recalculates every scaled array.
+     * @param scaleX the horizontal scale to apply
+     * @param scaleY the vertical scale to apply
+     * @return this, for chaining
+     */
+    public GlyphMetrics scale(float scaleX, float scaleY) {
+        this.scaleX = scaleX;
+        this.scaleY = scaleY;
+        refreshAll();
+        return this;
+    }
+
+    /**
+     * If {@link #invalidate()} was called since the arrays were last calculated, or this shares arrays with another
+     * GlyphMetrics that changed since then, recalculates them. This is synchronized, so if several threads find this
+     * dirty at once, only one recalculates it.
+     */
+    public synchronized void refresh() {
+        if (source != null) {
+            source.refresh();
+            final int v = source.version;
+            if (v != sourceVersion) {
+                sourceVersion = v;
+                dirty = true;
+            }
+        }
+        if (dirty) refreshAll();
+    }
+
+    protected void refreshAll() {
+        for (int s = 1; s < size; s++) {
+            calculate(s);
+        }
+        updateLines();
+        updateBounds();
+        version++;
+        dirty = false;
+    }
+
+    protected void calculate(int s) {
+        final Font.GlyphRegion r = regions[s];
+        if (r == null) return;
+        advance[s] = r.xAdvance * scaleX;
+        offsetX[s] = r.offsetX * scaleX;
+        offsetY[s] = r.offsetY * scaleY;
+        width[s] = r.getRegionWidth() * scaleX;
+        height[s] = r.getRegionHeight() * scaleY;
+        // if the texture coordinates are shared, they are calculated from the same GlyphRegion either way
+        textures[s] = r.getTexture();
+        u[s] = r.getU();
+        v[s] = r.getV();
+        u2[s] = r.getU2();
+        v2[s] = r.getV2();
+    }
+
+    protected void updateLines() {
+        underSlot = slot('_');
+        if (underSlot != 0) {
+            final Font.GlyphRegion under = regions[underSlot];
+            final float iw = 1f / under.getTexture().getWidth();
+            underU = under.getU() + (under.xAdvance - under.offsetX) * iw * 0.25f;
+            underU2 = under.getU() + (under.xAdvance - under.offsetX) * iw * 0.75f;
+        }
+        dashSlot = slot('-');
+        if (dashSlot != 0) {
+            final Font.GlyphRegion dash = regions[dashSlot];
+            final float iw = 1f / dash.getTexture().getWidth();
+            dashU = dash.getU() + (dash.xAdvance - dash.offsetX) * iw * 0.625f;
+            dashU2 = dashU + iw;
+        }
+    }
+
+    protected void updateBounds() {
+        float t = 0f, b = 0f, r = 0f;
+        for (int s = 1; s < size; s++) {
+            if (regions[s] == null) continue;
+            t = Math.max(t, -offsetY[s]);
+            b = Math.min(b, -height[s] - offsetY[s]);
+            r = Math.max(r, Math.abs(offsetX[s]) + Math.max(width[s] + height[s] * 0.2f, advance[s]));
+        }
+        top = t;
+        bottom = b;
+        // bold glyphs and lines extend 1 unit past the glyph, and strikethrough is shifted by the dash's offset
+        reach = r + 1f + (dashSlot == 0 ? 0f : Math.abs(regions[dashSlot].offsetX));
+    }
+
+    protected void ensureCapacity(int capacity) {
+        if (capacity <= regions.length) return;
+        int n = Math.max(capacity, regions.length << 1);
+        regions = Arrays.copyOf(regions, n);
+        textures = Arrays.copyOf(textures, n);
+        advance = Arrays.copyOf(advance, n);
+        offsetX = Arrays.copyOf(offsetX, n);
+        offsetY = Arrays.copyOf(offsetY, n);
+        width = Arrays.copyOf(width, n);
+        height = Arrays.copyOf(height, n);
+        u = Arrays.copyOf(u, n);
+        v = Arrays.copyOf(v, n);
+        u2 = Arrays.copyOf(u2, n);
+        v2 = Arrays.copyOf(v2, n);
+    }
+}
@@ -0,0 +1,120 @@
+package com.github.tommyettinger.textra;
+
+import com.badlogic.gdx.math.MathUtils;
+
+import java.util.Arrays;
+
+/**
+ * Stores the kerning amounts for pairs of chars, as used by {@link Font#kerning}, in a form that is fast to build and
+ * fast to look up. Pairs are keyed with the first char in the upper 16 bits and the second char in the lower 16 bits
+ * (see {@link Font#kerningPair(char, char)}), and {@link #get(int, int)} works like libGDX's IntIntMap.get().
+ * <br>
+ * This is an open-addressing hash table with linear probing, like IntIntMap, but each pair and its amount are packed
+ * into one long in a single array, so a lookup reads one array instead of separate key and value arrays, and the
+ * table is never more than half full, so most lookups (including the many pairs in text that have no kerning) check
+ * only one or two slots. Font files say how many kerning pairs they have before listing them, so loaders can create a
+ * table with {@link #KerningTable(int)} that never needs to resize.
+ * <br>
+ * This is safe to read from multiple threads at once, as long as no thread calls {@link #put(int, int)} at the time.
+ */
+public class KerningTable {
+    /**
+     * Each occupied slot holds a pair in its upper 32 bits and the amount for that pair in its lower 32 bits; a slot
+     * holding 0 is empty. The pair 0 is stored in {@link #zeroAmount} instead, so it can't be mistaken for an empty
+     * slot.
+     */
+    protected long[] table;
+    protected int mask, shift;
+    protected boolean hasZero;
+    protected int zeroAmount;
+    /**
+     * How many pairs are stored.
+     */
+    public int size = 0;
+
+    public KerningTable() {
+        this(64);
+    }
+
+    /**
+     * Creates a KerningTable that can hold {@code expected} pairs without resizing.
+     * @param expected how many pairs this will probably hold
+     */
+    public KerningTable(int expected) {
+        allocate(MathUtils.nextPowerOfTwo(Math.max(16, expected << 1)));
+    }
+
+    /**
+     * Copies another KerningTable.
+     * @param toCopy another KerningTable to copy
+     */
+    public KerningTable(KerningTable toCopy) {
+        table = Arrays.copyOf(toCopy.table, toCopy.table.length);
+        mask = toCopy.mask;
+        shift = toCopy.shift;
+        hasZero = toCopy.hasZero;
+        zeroAmount = toCopy.zeroAmount;
+        size = toCopy.size;
+    }
+
+    private void allocate(int capacity) {
+        table = new long[capacity];
+        mask = capacity - 1;
+        shift = Long.numberOfLeadingZeros(mask);
+    }
+
+    private int place(int pair) {
+        return (int) (pair * 0x9E3779B97F4A7C15L >>> shift);
+    }
+
+    /**
+     * Gets the kerning amount for a pair of chars.
+     * @param pair a kerning pair, as produced by {@link Font#kerningPair(char, char)}
+     * @param defaultValue returned if the pair has no kerning; usually 0
+     * @return the kerning amount for pair, in the same units the font file uses, or defaultValue
+     */
+    public int get(int pair, int defaultValue) {
+        if (pair == 0) return hasZero ? zeroAmount : defaultValue;
+        final long[] table = this.table;
+        final int mask = this.mask;
+        for (int i = place(pair); ; i = i + 1 & mask) {
+            final long e = table[i];
+            if (e == 0L) return defaultValue;
+            if ((int) (e >>> 32) == pair) return (int) e;
+        }
+    }
+
+    /**
+     * Sets the kerning amount for a pair of chars, replacing any amount it had.
+     * @param pair a kerning pair, as produced by {@link Font#kerningPair(char, char)}
+     * @param amount the kerning amount, in the same units the font file uses
+     */
+    public void put(int pair, int amount) {
+        if (pair == 0) {
+            if (!hasZero) size++;
+            hasZero = true;
+            zeroAmount = amount;
+            return;
+        }
+        int i = place(pair);
+        for (long e; (e = table[i]) != 0L; i = i + 1 & mask) {
+            if ((int) (e >>> 32) == pair) {
+                table[i] = (long) pair << 32 | (amount & 0xFFFFFFFFL);
+                return;
+            }
+        }
+        table[i] = (long) pair << 32 | (amount & 0xFFFFFFFFL);
+        if (++size << 1 > table.length) resize(table.length << 1);
+    }
+
+    private void resize(int capacity) {
+        final long[] old = table;
+        allocate(capacity);
+        for (long e : old) {
+            if (e == 0L) continue;
+            int i = place((int) (e >>> 32));
+            while (table[i] != 0L) i = i + 1 & mask;
+            table[i] = e;
+        }
+    }
+}
@@ -10,15 +10,48 @@ import com.badlogic.gdx.utils.Pools;
  * A replacement for libGDX's GlyphLayout, more or less; stores one or more (possibly empty) {@link Line}s of text,
  * which can use color and style markup from {@link Font}, and can be drawn with
  * {@link Font#drawGlyphs(Batch, Layout, float, float, int)}. This is a Poolable class, and you can obtain a Layout with
- * {@code Pools.obtain(Layout.class)} followed by setting the font, or just using a constructor.
+ * {@code Pools.obtain(Layout.class)} followed by setting the font, or just using a constructor. The pools for Layout
+ * and Line are synchronized, so Layouts can be obtained, filled by {@link Font#markup(String, Layout)}, and freed on
+ * any thread, but one Layout should only be used by one thread at a time.
  */
 public class Layout implements Pool.Poolable {
 
+    // synchronized so Layouts can be obtained and freed on more than one thread, such as by Font.drawMarkupText()
     private static final Pool<Layout> pool = new Pool<Layout>() {
         @Override
         protected Layout newObject() {
             return new Layout();
         }
+
+        @Override
+        public synchronized Layout obtain() {
+            return super.obtain();
+        }
+
+        @Override
+        public synchronized void free(Layout object) {
+            super.free(object);
+        }
+
+        @Override
+        public synchronized void fill(int size) {
+            super.fill(size);
+        }
+
+        @Override
+        public synchronized void freeAll(Array<Layout> objects) {
+            super.freeAll(objects);
+        }
+
+        @Override
+        public synchronized void clear() {
+            super.clear();
+        }
+
+        @Override
+        public synchronized int getFree() {
+            return super.getFree();
+        }
     };
     static {
         Pools.set(Layout.class, pool);
@@ -32,6 +65,34 @@ public class Layout implements Pool.Poolable {
     protected float targetWidth = 0f;
     protected float baseColor = Color.WHITE_FLOAT_BITS;
 
+    // The state Font uses to wrap the last Line as glyphs are added; see Font#appendGlyph(Layout, long, long).
+    // breakAt is the index of the last break char in wrapLine, or -1 if there is none; when wrapping there, glyphs up
+    // to and including keepTo stay, which drops any spaces just before the break. widthAfterKeep is the width of the
+    // glyphs after keepTo, and widthAfterBreak is the width the glyphs after breakAt would have starting a new Line.
+    protected Line wrapLine = null;
+    protected int wrapSize = 0, breakAt = -1, keepTo = -1, spaceStart = -1, kern = -1;
+    protected float widthAfterKeep = 0f, widthAfterBreak = 0f, widthOfSpaces = 0f;
+    protected boolean afterBreak = false, previousWasSpace = false;
+    // The state Font's markup parser was in when the last markup call on this stopped, so
+    // Font#resumeMarkup(CharSequence, Layout) can continue from there. resumable is false until markup has run since
+    // this was last cleared.
+    protected long style = 0L;
+    protected boolean capitalize = false, capsLock = false, lowerCase = false, previousWasLetter = false;
+    protected boolean resumable = false;
+    /**
+     * True if markup stopped because the max lines were reached and the ellipsis was placed, so resuming adds nothing.
+     */
+    protected boolean ellipsized = false;
+    /**
+     * Holds the previous Lines while {@link Font#reflow(Layout)} runs.
+     */
+    protected final Array<Line> reflowing = new Array<>(true, 8, Line.class);
+    /**
+     * Lets {@link Font#markup(char[], int, int, Layout)} read a char array as a CharSequence; this belongs to the
+     * Layout so markup on different Layouts can run on different threads.
+     */
+    final CharArrayView chars = new CharArrayView();
+
     public Layout() {
         lines.add(Pools.obtain(Line.class));
     }
@@ -53,6 +114,9 @@ public class Layout implements Pool.Poolable {
             Pools.freeAll(lines);
             lines.clear();
             lines.add(Pools.obtain(Line.class));
+            wrapLine = null;
+            resumable = false;
+            ellipsized = false;
         }
         return this;
     }
@@ -89,6 +153,24 @@ public class Layout implements Pool.Poolable {
         Pools.freeAll(lines);
         lines.clear();
         lines.add(Pools.obtain(Line.class));
+        atLimit = false;
+        wrapLine = null;
+        resumable = false;
+        ellipsized = false;
+        return this;
+    }
+
+    /**
+     * Wraps the glyphs already in this Layout again, using the current target width, max lines, and ellipsis, without
+     * parsing the markup again. This is meant for when the width available to text changes, such as when a
+     * resizable widget is resized. Text that was cut off by a previous max lines limit can't be restored this way.
+     * Does nothing if the font has not been set.
+     * @return this Layout, for chaining
+     * @see Font#reflow(Layout)
+     */
+    public Layout reflow() {
+        if(font != null)
+            font.reflow(this);
         return this;
     }
 
@@ -137,12 +219,58 @@ public class Layout implements Pool.Poolable {
         return line;
     }
 
+    /**
+     * Gets the color and style that {@link Font#resumeMarkup(CharSequence, Layout)} will continue with, as the bits of
+     * a glyph without its char: the color is in the upper 32 bits, and style flags like {@link Font#BOLD} are below
+     * that. If {@link #hasMarkupState()} is false, this is meaningless, and resuming starts from the base color.
+     * @return the color and style bits active at the end of the last markup call
+     */
+    public long getStyle() {
+        return style;
+    }
+
+    /**
+     * @return true if the last markup call ended with capitalize-each-word mode ({@code [;]}) on
+     */
+    public boolean isCapitalize() {
+        return capitalize;
+    }
+
+    /**
+     * @return true if the last markup call ended with all-caps mode ({@code [!]}) on
+     */
+    public boolean isCapsLock() {
+        return capsLock;
+    }
+
+    /**
+     * @return true if the last markup call ended with all-lower-case mode ({@code [,]}) on
+     */
+    public boolean isLowerCase() {
+        return lowerCase;
+    }
+
+    /**
+     * Returns true if markup has been added since this was created or cleared, so
+     * {@link Font#resumeMarkup(CharSequence, Layout)} will continue from the state it left. The width so far of the
+     * line being added to is the width of {@link #peekLine()}.
+     * @return true if there is markup state to resume from
+     */
+    public boolean hasMarkupState() {
+        return resumable;
+    }
+
     public float getTargetWidth() {
         return targetWidth;
     }
 
+    /**
+     * Sets the width text should wrap at, or 0 or less to not wrap. This only affects text added later; to wrap the
+     * text already in this Layout to the new width, call {@link #reflow()} afterwards.
+     * @param targetWidth the width to wrap text at, in world units
+     * @return this Layout, for chaining
+     */
     public Layout setTargetWidth(float targetWidth) {
-        // we may want this to lay existing lines out again if the width changed.
         this.targetWidth = targetWidth;
         return this;
     }
@@ -230,6 +358,9 @@ public class Layout implements Pool.Poolable {
         Pools.freeAll(lines);
         lines.clear();
         lines.add(Pools.obtain(Line.class));
+        wrapLine = null;
+        resumable = false;
+        ellipsized = false;
     }
 
     /**
@@ -0,0 +1,280 @@
+package com.github.tommyettinger.textra;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.utils.Align;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.NumberUtils;
+
+import java.util.Arrays;
+
+/**
+ * Stores the vertices for a {@link Layout} after they have been calculated once, so static text can be drawn every
+ * frame without repeating the per-glyph work {@link Font#drawGlyphs(Batch, Layout, float, float, int)} does. This is
+ * similar to libGDX's BitmapFontCache; vertices are kept in one float array per texture page, so drawing a cache
+ * takes one {@link Batch#draw(Texture, float[], int, int)} call per page the text uses. The cached text can be moved
+ * with {@link #translate(float, float)} or {@link #setPosition(float, float)}, and recolored with
+ * {@link #tint(Color)}, without recalculating anything else.
+ * <br>
+ * Glyphs are baked using the Font's metrics and scale at the time {@link #setLayout(Layout, float, float, int)} is
+ * called; if the Font or the Layout changes afterwards, call setLayout() again. Quads are cached with full alpha, and
+ * the alpha of the Batch's color is not applied when drawing; use {@link #tint(Color)} to make cached text translucent.
+ */
+public class LayoutCache {
+    public Font font;
+    /**
+     * The texture for each page of vertices, in the order they were first used.
+     */
+    protected final Array<Texture> textures = new Array<>(true, 4, Texture.class);
+    /**
+     * Vertex data for each page, with 20 floats per quad, in the format {@link Batch#draw(Texture, float[], int, int)}
+     * expects.
+     */
+    protected float[][] pageVertices = new float[4][];
+    /**
+     * The untinted color of each quad on each page, as packed float colors.
+     */
+    protected float[][] pageColors = new float[4][];
+    /**
+     * How many floats of vertex data are in use on each page.
+     */
+    protected int[] pageCounts = new int[4];
+    protected int glyphCount = 0;
+    /**
+     * How many times the texture changed from one quad to the next, in the order the quads were added.
+     */
+    protected int textureSwitches = 0;
+    protected Texture lastTexture = null;
+    protected float x = 0f, y = 0f;
+    protected final Color tint = new Color(Color.WHITE);
+
+    public LayoutCache(Font font) {
+        this.font = font;
+    }
+
+    public LayoutCache(Font font, Layout layout, float x, float y, int align) {
+        this.font = font;
+        setLayout(layout, x, y, align);
+    }
+
+    /**
+     * Removes all cached vertices and resets the position to 0,0 and the tint to white.
+     */
+    public void clear() {
+        textures.clear();
+        Arrays.fill(pageCounts, 0);
+        glyphCount = 0;
+        textureSwitches = 0;
+        lastTexture = null;
+        x = 0f;
+        y = 0f;
+        tint.set(Color.WHITE);
+    }
+
+    /**
+     * Clears this cache and stores the vertices for the given Layout, positioned as
+     * {@link Font#drawGlyphs(Batch, Layout, float, float)} would draw it.
+     * @param layout a Layout, typically produced by {@link Font#markup(String, Layout)}
+     * @param x the x position in world space of the lower left corner of the first line
+     * @param y the y position in world space of the lower left corner of the first line
+     * @return this, for chaining
+     */
+    public LayoutCache setLayout(Layout layout, float x, float y) {
+        return setLayout(layout, x, y, Align.left);
+    }
+
+    /**
+     * Clears this cache and stores the vertices for the given Layout, positioned as
+     * {@link Font#drawGlyphs(Batch, Layout, float, float, int)} would draw it. The given x,y point becomes the
+     * position of this cache, which can be changed later with {@link #setPosition(float, float)}.
+     * @param layout a Layout, typically produced by {@link Font#markup(String, Layout)}
+     * @param x the x position in world space to start drawing the text at (where this is depends on align)
+     * @param y the y position in world space to start drawing the text at (where this is depends on align)
+     * @param align an {@link Align} constant; if {@link Align#left}, x and y refer to the lower left corner
+     * @return this, for chaining
+     */
+    public LayoutCache setLayout(Layout layout, float x, float y, int align) {
+        clear();
+        this.x = x;
+        this.y = y;
+        for (int ln = 0, lines = layout.lines(); ln < lines; ln++) {
+            glyphCount += font.cacheLine(this, layout.getLine(ln), x, y, align);
+            y -= font.cellHeight;
+        }
+        return this;
+    }
+
+    /**
+     * Adds one quad to the page for the given texture. Called by {@link Font} while baking a Layout.
+     * @param texture the Texture the quad is drawn from
+     * @param quad 20 floats of vertex data, starting at index 0
+     */
+    void add(Texture texture, float[] quad) {
+        if (texture != lastTexture) {
+            if (lastTexture != null) textureSwitches++;
+            lastTexture = texture;
+        }
+        int page = textures.size - 1;
+        if (page < 0 || textures.items[page] != texture) {
+            page = textures.indexOf(texture, true);
+            if (page < 0) {
+                page = textures.size;
+                textures.add(texture);
+                if (page >= pageVertices.length) {
+                    pageVertices = Arrays.copyOf(pageVertices, page << 1);
+                    pageColors = Arrays.copyOf(pageColors, page << 1);
+                    pageCounts = Arrays.copyOf(pageCounts, page << 1);
+                }
+            }
+        }
+        float[] verts = pageVertices[page];
+        final int count = pageCounts[page];
+        if (verts == null) {
+            verts = pageVertices[page] = new float[400];
+            pageColors[page] = new float[20];
+        } else if (count + 20 > verts.length) {
+            verts = pageVertices[page] = Arrays.copyOf(verts, verts.length << 1);
+            pageColors[page] = Arrays.copyOf(pageColors[page], verts.length / 20);
+        }
+        System.arraycopy(quad, 0, verts, count, 20);
+        pageColors[page][count / 20] = quad[2];
+        pageCounts[page] = count + 20;
+    }
+
+    /**
+     * Draws all cached vertices, with one draw call per texture page.
+     * @param batch typically a SpriteBatch
+     */
+    public void draw(Batch batch) {
+        for (int i = 0, n = textures.size; i < n; i++) {
+            batch.draw(textures.items[i], pageVertices[i], 0, pageCounts[i]);
+        }
+    }
+
+    /**
+     * Moves all cached vertices by the given amounts.
+     * @param xAmount how far to move right, in world units
+     * @param yAmount how far to move up, in world units
+     * @return this, for chaining
+     */
+    public LayoutCache translate(float xAmount, float yAmount) {
+        if (xAmount == 0f && yAmount == 0f) return this;
+        x += xAmount;
+        y += yAmount;
+        for (int p = 0, n = textures.size; p < n; p++) {
+            final float[] verts = pageVertices[p];
+            for (int i = 0, c = pageCounts[p]; i < c; i += 5) {
+                verts[i] += xAmount;
+                verts[i + 1] += yAmount;
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Moves all cached vertices so the point given when the Layout was cached is now at x,y.
+     * @param x the new x position in world space
+     * @param y the new y position in world space
+     * @return this, for chaining
+     */
+    public LayoutCache setPosition(float x, float y) {
+        return translate(x - this.x, y - this.y);
+    }
+
+    public float getX() {
+        return x;
+    }
+
+    public float getY() {
+        return y;
+    }
+
+    /**
+     * Multiplies the color of every cached glyph by {@code tint}, replacing any previous tint. Glyph colors are stored
+     * separately from the vertices, so tinting repeatedly doesn't compound. A tint of {@link Color#WHITE} restores
+     * the original colors.
+     * @param tint the Color to multiply the cached colors by; its alpha is used as the alpha of all glyphs
+     * @return this, for chaining
+     */
+    public LayoutCache tint(Color tint) {
+        this.tint.set(tint);
+        final float r = tint.r, g = tint.g, b = tint.b, a = tint.a;
+        for (int p = 0, n = textures.size; p < n; p++) {
+            final float[] verts = pageVertices[p], colors = pageColors[p];
+            for (int i = 0, q = 0, c = pageCounts[p]; i < c; i += 20, q++) {
+                final int bits = NumberUtils.floatToRawIntBits(colors[q]);
+                final float color = NumberUtils.intBitsToFloat(
+                        (int) ((bits >>> 25) * a) << 25
+                                | (int) ((bits >>> 16 & 0xFF) * b) << 16
+                                | (int) ((bits >>> 8 & 0xFF) * g) << 8
+                                | (int) ((bits & 0xFF) * r));
+                verts[i + 2] = color;
+                verts[i + 7] = color;
+                verts[i + 12] = color;
+                verts[i + 17] = color;
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Gets the current tint; don't modify the returned Color directly, use {@link #tint(Color)} instead.
+     * @return the Color most recently passed to {@link #tint(Color)}, or white
+     */
+    public Color getTint() {
+        return tint;
+    }
+
+    /**
+     * @return how many glyphs from the Layout were cached, as {@link Font#drawGlyphs(Batch, Layout, float, float)}
+     * would return
+     */
+    public int getGlyphCount() {
+        return glyphCount;
+    }
+
+    /**
+     * @return how many texture pages have vertices in this cache, which is also how many draw calls
+     * {@link #draw(Batch)} makes
+     */
+    public int getPageCount() {
+        return textures.size;
+    }
+
+    /**
+     * Gets how many times the texture would change if the cached quads were drawn in the order of the text, as
+     * {@link Font#drawGlyphs(Batch, Layout, float, float, int)} draws them; a SpriteBatch flushes each time. Drawing
+     * this cache with {@link #draw(Batch)} only changes texture {@link #getPageCount()} - 1 times, so the two can be
+     * compared to see how much sorting by page saved.
+     * @return how many texture switches drawing in text order would need
+     */
+    public int getTextureSwitches() {
+        return textureSwitches;
+    }
+
+    /**
+     * @param page an index from 0 to {@link #getPageCount()}, exclusive
+     * @return the Texture used by the given page
+     */
+    public Texture getTexture(int page) {
+        return textures.get(page);
+    }
+
+    /**
+     * The returned array may be larger than the number of floats in use; see {@link #getVertexCount(int)}.
+     * @param page an index from 0 to {@link #getPageCount()}, exclusive
+     * @return the vertex data for the given page, in the format {@link Batch#draw(Texture, float[], int, int)} uses
+     */
+    public float[] getVertices(int page) {
+        return pageVertices[page];
+    }
+
+    /**
+     * @param page an index from 0 to {@link #getPageCount()}, exclusive
+     * @return how many floats of {@link #getVertices(int)} are in use for the given page
+     */
+    public int getVertexCount(int page) {
+        return pageCounts[page];
+    }
+}
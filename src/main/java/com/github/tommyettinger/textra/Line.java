@@ -1,5 +1,7 @@
 package com.github.tommyettinger.textra;
 
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
 import com.badlogic.gdx.utils.LongArray;
 import com.badlogic.gdx.utils.Pool;
 import com.badlogic.gdx.utils.Pools;
@@ -12,25 +14,77 @@ import com.badlogic.gdx.utils.Pools;
  */
 public class Line implements Pool.Poolable {
 
+    // synchronized so Font.markup() can obtain Lines on more than one thread at once
     private static final Pool<Line> pool = new Pool<Line>() {
         @Override
         protected Line newObject() {
             return new Line();
         }
+
+        @Override
+        public synchronized Line obtain() {
+            return super.obtain();
+        }
+
+        @Override
+        public synchronized void free(Line object) {
+            super.free(object);
+        }
+
+        @Override
+        public synchronized void fill(int size) {
+            super.fill(size);
+        }
+
+        @Override
+        public synchronized void freeAll(Array<Line> objects) {
+            super.freeAll(objects);
+        }
+
+        @Override
+        public synchronized void clear() {
+            super.clear();
+        }
+
+        @Override
+        public synchronized int getFree() {
+            return super.getFree();
+        }
     };
     static {
         Pools.set(Line.class, pool);
     }
 
     public final LongArray glyphs;
+    /**
+     * The kerning adjustment for each glyph in {@link #glyphs}, in font units before scaling by {@link Font#scaleX},
+     * as calculated by {@link Font#bakeKerning(Layout, int)} when markup finishes. Drawing uses these instead of
+     * looking up each kerning pair, but only if this has exactly as many items as {@link #glyphs}; if you change glyphs
+     * directly, you can clear this or call bakeKerning() again. This stays empty if the Font has no kerning.
+     */
+    public final FloatArray kerning;
+    /**
+     * True if this Line ended because the text was wrapped to fit the Layout's target width, rather than at a newline
+     * or the end of the text. {@link Font#reflow(Layout)} joins wrapped Lines back together with the next Line.
+     */
+    public boolean wrapped;
+    /**
+     * Any space glyphs that were removed from the end of this Line when it was {@link #wrapped}; these are put back by
+     * {@link Font#reflow(Layout)}.
+     */
+    public final LongArray trimmed;
     public float width, height;
 
     public Line() {
         glyphs = new LongArray(16);
+        kerning = new FloatArray(16);
+        trimmed = new LongArray(4);
     }
 
     public Line(int capacity) {
         glyphs = new LongArray(capacity);
+        kerning = new FloatArray(capacity);
+        trimmed = new LongArray(4);
     }
 
     public Line size(float width, float height) {
@@ -40,11 +94,15 @@ public class Line implements Pool.Poolable {
     }
 
     /**
-     * Resets the object for reuse. This clears {@link #glyphs}, rather than nulling it. The sizes are set to 0.
+     * Resets the object for reuse. This clears {@link #glyphs}, {@link #kerning}, and {@link #trimmed}, rather than
+     * nulling them. The sizes are set to 0, and {@link #wrapped} is set to false.
      */
     @Override
     public void reset() {
         glyphs.clear();
+        kerning.clear();
+        trimmed.clear();
+        wrapped = false;
         width = 0;
         height = 0;
     }
@@ -0,0 +1,232 @@
+package com.github.tommyettinger.textra;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.utils.LongArray;
+
+import java.util.Arrays;
+
+/**
+ * Markup that has been parsed once by {@link Font#compile(CharSequence, Color)}, so it can be laid out many times with
+ * different values in its placeholders, without parsing it again. Placeholders are written in the markup as
+ * {@code {0}}, {@code {1}}, and so on, where the number is the index of the value to put there; the same index can be
+ * used more than once. For example, a HUD might compile {@code "[GOLD]Gold:[] {0}  [RED]HP:[] {1}/{2}"} once, then
+ * each frame call {@link #set(int, int)} for each value and {@link Font#markup(MarkupTemplate, Layout)} to fill a
+ * Layout. Setting values and laying out the template don't allocate once the value buffers are large enough.
+ * <br>
+ * Text outside placeholders is stored as finished glyphs, with color and style already applied. The text put in a
+ * placeholder uses the color and style that were active where the placeholder was written, but case changes from
+ * {@code [!]}, {@code [,]}, and {@code [;]} don't apply to it. Markup in placeholder values is not parsed. Anything in
+ * curly braces that isn't just a number is left as-is.
+ */
+public class MarkupTemplate {
+    private static final long[] POWERS_OF_TEN = {1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L, 10000000L,
+            100000000L, 1000000000L};
+
+    /**
+     * The glyphs outside placeholders, in order, as {@link Font#markup(String, Layout)} would produce them.
+     */
+    protected final LongArray glyphs = new LongArray(32);
+    /**
+     * How many placeholders this has; each one has an entry in {@link #slotAt}, {@link #slotIndex}, and
+     * {@link #slotStyle}.
+     */
+    protected int slots = 0;
+    /**
+     * For each placeholder, how many of {@link #glyphs} come before it.
+     */
+    protected int[] slotAt = new int[4];
+    /**
+     * For each placeholder, the index of the value that goes there.
+     */
+    protected int[] slotIndex = new int[4];
+    /**
+     * For each placeholder, the color and style bits that its value is drawn with.
+     */
+    protected long[] slotStyle = new long[4];
+    /**
+     * The chars of each value, by index; only the first {@link #valueLengths} chars of each are used.
+     */
+    protected char[][] values = new char[0][];
+    protected int[] valueLengths = new int[0];
+
+    /**
+     * The base color this was compiled with, as the float bits of a Color.
+     */
+    protected float baseColor = Color.WHITE_FLOAT_BITS;
+
+    /**
+     * Creates an empty MarkupTemplate; usually you get one from {@link Font#compile(CharSequence, Color)} instead.
+     */
+    public MarkupTemplate() {
+    }
+
+    /**
+     * Removes all glyphs, placeholders, and values, so this can be compiled into again.
+     * @return this, for chaining
+     */
+    public MarkupTemplate clear() {
+        glyphs.clear();
+        slots = 0;
+        Arrays.fill(valueLengths, 0);
+        return this;
+    }
+
+    /**
+     * Called by Font while compiling, when it reads a placeholder.
+     * @param index the index of the value that goes in the placeholder
+     * @param style the color and style bits active at the placeholder
+     */
+    void addSlot(int index, long style) {
+        if (slots == slotAt.length) {
+            slotAt = Arrays.copyOf(slotAt, slots << 1);
+            slotIndex = Arrays.copyOf(slotIndex, slots << 1);
+            slotStyle = Arrays.copyOf(slotStyle, slots << 1);
+        }
+        slotAt[slots] = glyphs.size;
+        slotIndex[slots] = index;
+        slotStyle[slots++] = style;
+        if (index >= values.length) {
+            final int old = values.length;
+            values = Arrays.copyOf(values, index + 1);
+            valueLengths = Arrays.copyOf(valueLengths, index + 1);
+            for (int i = old; i <= index; i++) {
+                values[i] = new char[16];
+            }
+        }
+    }
+
+    /**
+     * Gets how many values this uses, which is one more than the highest placeholder index.
+     * @return how many values can be set with methods like {@link #set(int, CharSequence)}
+     */
+    public int getValueCount() {
+        return values.length;
+    }
+
+    /**
+     * Gets the base color this was compiled with, as the float bits of a Color. This is used for text without a color
+     * and after {@code []}, no matter what base color the Layout it is added to has.
+     * @return the base color as float bits, as obtainable via {@link Color#toFloatBits()}
+     */
+    public float getBaseColor() {
+        return baseColor;
+    }
+
+    private char[] ensure(int index, int length) {
+        char[] chars = values[index];
+        if (chars.length < length) {
+            chars = values[index] = Arrays.copyOf(chars, Math.max(length, chars.length << 1));
+        }
+        return chars;
+    }
+
+    /**
+     * Sets the value at {@code index} to a copy of the given text. This doesn't allocate unless text is longer than any
+     * value this index has had before.
+     * @param index the index of the value, as written in placeholders
+     * @param text the text to put in each placeholder with that index; markup in it is not parsed
+     * @return this, for chaining
+     */
+    public MarkupTemplate set(int index, CharSequence text) {
+        final int length = text.length();
+        final char[] chars = ensure(index, length);
+        for (int i = 0; i < length; i++) {
+            chars[i] = text.charAt(i);
+        }
+        valueLengths[index] = length;
+        return this;
+    }
+
+    /**
+     * Sets the value at {@code index} to the decimal form of an int, without allocating.
+     * @param index the index of the value, as written in placeholders
+     * @param value any int
+     * @return this, for chaining
+     */
+    public MarkupTemplate set(int index, int value) {
+        return set(index, (long) value);
+    }
+
+    /**
+     * Sets the value at {@code index} to the decimal form of a long, without allocating.
+     * @param index the index of the value, as written in placeholders
+     * @param value any long
+     * @return this, for chaining
+     */
+    public MarkupTemplate set(int index, long value) {
+        final char[] chars = ensure(index, 20);
+        int length = 0;
+        if (value < 0) {
+            chars[length++] = '-';
+        }
+        valueLengths[index] = appendDigits(chars, length, value, 0);
+        return this;
+    }
+
+    /**
+     * Sets the value at {@code index} to the decimal form of a float, with exactly {@code decimals} digits after the
+     * decimal point (and no decimal point if decimals is 0), rounding half up, without allocating. NaN and infinite
+     * values are written as "NaN", "Infinity", and "-Infinity". Values too large to fit in a long after being
+     * multiplied by 10 to the decimals power are clamped.
+     * @param index the index of the value, as written in placeholders
+     * @param value any float
+     * @param decimals how many digits to show after the decimal point, from 0 to 9
+     * @return this, for chaining
+     */
+    public MarkupTemplate set(int index, float value, int decimals) {
+        if (value != value) return set(index, "NaN");
+        if (value == Float.POSITIVE_INFINITY) return set(index, "Infinity");
+        if (value == Float.NEGATIVE_INFINITY) return set(index, "-Infinity");
+        decimals = Math.max(0, Math.min(9, decimals));
+        final char[] chars = ensure(index, 22);
+        int length = 0;
+        if (value < 0) {
+            chars[length++] = '-';
+        }
+        final long scaled = Math.round(Math.abs((double) value) * POWERS_OF_TEN[decimals]);
+        valueLengths[index] = appendDigits(chars, length, scaled, decimals);
+        return this;
+    }
+
+    /**
+     * Writes the digits of {@code value} into chars starting at {@code start}, with a decimal point before the last
+     * {@code decimals} digits; the sign of value is ignored.
+     * @return the index after the last digit written
+     */
+    private static int appendDigits(char[] chars, int start, long value, int decimals) {
+        int digits = 1;
+        for (long v = value / 10; v != 0; v /= 10) {
+            digits++;
+        }
+        digits = Math.max(digits, decimals + 1);
+        final int end = start + digits + (decimals > 0 ? 1 : 0);
+        int i = end;
+        for (int d = 0; d < digits; d++) {
+            if (d == decimals && decimals > 0) chars[--i] = '.';
+            chars[--i] = (char) ('0' + Math.abs(value % 10));
+            value /= 10;
+        }
+        return end;
+    }
+
+    /**
+     * Gets the current value at {@code index} as a new String; this is mostly useful for debugging.
+     * @param index the index of the value, as written in placeholders
+     * @return the current value as a String
+     */
+    public String get(int index) {
+        return new String(values[index], 0, valueLengths[index]);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(glyphs.size + slots * 4);
+        for (int i = 0, s = 0; i <= glyphs.size; i++) {
+            while (s < slots && slotAt[s] == i) {
+                sb.append('{').append(slotIndex[s++]).append('}');
+            }
+            if (i < glyphs.size) sb.append((char) glyphs.get(i));
+        }
+        return sb.toString();
+    }
+}
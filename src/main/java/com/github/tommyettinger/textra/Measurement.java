@@ -0,0 +1,145 @@
+package com.github.tommyettinger.textra;
+
+import com.badlogic.gdx.utils.LongArray;
+
+/**
+ * The size that some markup would have as a {@link Layout}, as calculated by
+ * {@link Font#measure(CharSequence, Measurement)} without building that Layout. This uses the same target width, max
+ * lines, and ellipsis settings as a Layout, and the same rules for wrapping, so {@link #getWidth()},
+ * {@link #getHeight()}, and {@link #lines()} match what a Layout with the same settings would report after
+ * {@link Font#markup(String, Layout)}. A Measurement can be reused for any number of measurements.
+ * <br>
+ * Measuring doesn't store any glyphs or obtain any {@link Line}s, except that if an ellipsis is set, the glyphs of the
+ * current line are kept in one reused buffer, since placing an ellipsis depends on them.
+ */
+public class Measurement {
+    protected int maxLines = Integer.MAX_VALUE;
+    protected String ellipsis = null;
+    protected float targetWidth = 0f;
+
+    protected float width = 0f, height = 0f;
+    protected int lines = 1;
+
+    // The state Font uses while measuring; this mirrors the wrapping state in Layout, but only keeps the width of the
+    // current line, the widest finished line, and how many glyphs the current line has.
+    protected float lineWidth = 0f;
+    protected int size = 0, breakAt = -1, spaceStart = -1, kern = -1;
+    protected float widthAfterKeep = 0f, widthAfterBreak = 0f, widthOfSpaces = 0f;
+    protected boolean atLimit = false, afterBreak = false, previousWasSpace = false;
+    /**
+     * The glyphs in the current line, only used if {@link #ellipsis} is not null.
+     */
+    protected final LongArray glyphs = new LongArray(16);
+
+    public Measurement() {
+    }
+
+    /**
+     * Creates a Measurement that uses the same target width, max lines, and ellipsis as the given Layout.
+     * @param settings a Layout to copy settings from; it is not changed
+     */
+    public Measurement(Layout settings) {
+        set(settings);
+    }
+
+    /**
+     * Copies the target width, max lines, and ellipsis from the given Layout.
+     * @param settings a Layout to copy settings from; it is not changed
+     * @return this Measurement, for chaining
+     */
+    public Measurement set(Layout settings) {
+        targetWidth = settings.targetWidth;
+        maxLines = settings.maxLines;
+        ellipsis = settings.ellipsis;
+        return this;
+    }
+
+    /**
+     * Resets the results and the measuring state, keeping the settings. Called by Font before measuring.
+     * @param font the Font that is about to measure
+     */
+    void start(Font font) {
+        width = 0f;
+        height = font.cellHeight;
+        lines = 1;
+        lineWidth = 0f;
+        size = 0;
+        breakAt = spaceStart = kern = -1;
+        widthAfterKeep = widthAfterBreak = widthOfSpaces = 0f;
+        atLimit = afterBreak = previousWasSpace = false;
+        glyphs.clear();
+    }
+
+    /**
+     * The width of the widest line, as {@link Layout#getWidth()} would return.
+     * @return the width of the measured text, in world units
+     */
+    public float getWidth() {
+        return width;
+    }
+
+    /**
+     * The height of the tallest line, as {@link Layout#getHeight()} would return; every line has the same height, so
+     * the total height of the text is this times {@link #lines()}.
+     * @return the height of one line of the measured text, in world units
+     */
+    public float getHeight() {
+        return height;
+    }
+
+    /**
+     * How many lines the measured text uses, as {@link Layout#lines()} would return.
+     * @return how many lines the measured text uses; always at least 1
+     */
+    public int lines() {
+        return lines;
+    }
+
+    public float getTargetWidth() {
+        return targetWidth;
+    }
+
+    /**
+     * Sets the width text should wrap at, or 0 or less to not wrap.
+     * @param targetWidth the width to wrap text at, in world units
+     * @return this Measurement, for chaining
+     */
+    public Measurement setTargetWidth(float targetWidth) {
+        this.targetWidth = targetWidth;
+        return this;
+    }
+
+    public int getMaxLines() {
+        return maxLines;
+    }
+
+    /**
+     * Sets the maximum number of lines text can use; this is always at least 1.
+     * @param maxLines the limit for how many lines text can use; always 1 or more
+     * @return this Measurement, for chaining
+     */
+    public Measurement setMaxLines(int maxLines) {
+        this.maxLines = Math.max(1, maxLines);
+        return this;
+    }
+
+    public String getEllipsis() {
+        return ellipsis;
+    }
+
+    /**
+     * Sets the ellipsis text, which replaces the last few glyphs if non-null and the text would exceed the max lines,
+     * as {@link Layout#setEllipsis(String)} does.
+     * @param ellipsis a String for text to end with if its max lines are exceeded, or null to avoid such truncation
+     * @return this Measurement, for chaining
+     */
+    public Measurement setEllipsis(String ellipsis) {
+        this.ellipsis = ellipsis;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "Measurement{width=" + width + ", height=" + height + ", lines=" + lines + '}';
+    }
+}
@@ -0,0 +1,323 @@
+package com.github.tommyettinger.textra;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.utils.Pools;
+
+import java.util.Arrays;
+
+/**
+ * A finished {@link Layout} stored compactly: every glyph is in one {@code long[]}, every kerning amount is in one
+ * {@code float[]}, and each line is just a start offset into those arrays plus a width and height. A Layout instead has
+ * a {@link Line} object per line, each with its own arrays, so a long text panel is hundreds of small arrays; this is
+ * a handful of arrays no matter how many lines there are, and drawing it doesn't follow a pointer per line.
+ * <br>
+ * Fill a PackedLayout with {@link Font#markup(CharSequence, PackedLayout)}, which uses its target width, max lines,
+ * ellipsis, and base color the same way a Layout does, or copy an existing Layout with {@link #set(Layout)}. Draw it
+ * with {@link Font#drawGlyphs(Batch, PackedLayout, float, float, int)}. A PackedLayout can't be appended to, reflowed,
+ * or edited; mark it up again to change it. Refilling a PackedLayout reuses its arrays, so it doesn't allocate once
+ * they are large enough.
+ */
+public class PackedLayout {
+    protected Font font;
+    protected int maxLines = Integer.MAX_VALUE;
+    protected String ellipsis = null;
+    protected float targetWidth = 0f;
+    protected float baseColor = Color.WHITE_FLOAT_BITS;
+
+    /**
+     * Every glyph of every line, in order; only the first {@link #glyphCount} are used.
+     */
+    protected long[] glyphs = new long[16];
+    /**
+     * The kerning amount for each glyph in {@link #glyphs}, as in {@link Line#kerning}; unused if the font has no
+     * kerning.
+     */
+    protected float[] kerning = new float[16];
+    /**
+     * The index in {@link #glyphs} where each line starts; line {@code i} ends where line {@code i + 1} starts, and
+     * there is one more entry than there are lines.
+     */
+    protected int[] lineStarts = new int[9];
+    protected float[] widths = new float[8], heights = new float[8];
+    protected int lines = 0, glyphCount = 0;
+
+    public PackedLayout() {
+    }
+
+    public PackedLayout(Font font) {
+        this.font = font;
+    }
+
+    /**
+     * Removes all glyphs and lines, keeping the font and settings.
+     * @return this, for chaining
+     */
+    public PackedLayout clear() {
+        lines = 0;
+        glyphCount = 0;
+        return this;
+    }
+
+    /**
+     * Copies the target width, max lines, ellipsis, and base color from a Layout, to use in later markup.
+     * @param settings a Layout to copy settings from; it is not changed
+     * @return this, for chaining
+     */
+    public PackedLayout settings(Layout settings) {
+        targetWidth = settings.targetWidth;
+        maxLines = settings.maxLines;
+        ellipsis = settings.ellipsis;
+        baseColor = settings.baseColor;
+        return this;
+    }
+
+    /**
+     * Replaces the contents of this with a copy of the glyphs, kerning, and line sizes in {@code layout}, and uses its
+     * font. This doesn't copy the Layout's settings; use {@link #settings(Layout)} for that.
+     * @param layout a Layout, typically filled by {@link Font#markup(String, Layout)}; it is not changed
+     * @return this, for chaining
+     */
+    public PackedLayout set(Layout layout) {
+        font = layout.font;
+        final int count = layout.lines();
+        int total = 0;
+        for (int ln = 0; ln < count; ln++) {
+            total += layout.getLine(ln).glyphs.size;
+        }
+        if (glyphs.length < total) {
+            glyphs = new long[Math.max(total, glyphs.length << 1)];
+            kerning = new float[glyphs.length];
+        }
+        if (widths.length < count) {
+            final int capacity = Math.max(count, widths.length << 1);
+            widths = new float[capacity];
+            heights = new float[capacity];
+            lineStarts = new int[capacity + 1];
+        }
+        final boolean kerned = font != null && font.kerning != null;
+        int start = 0;
+        for (int ln = 0; ln < count; ln++) {
+            final Line line = layout.getLine(ln);
+            final int n = line.glyphs.size;
+            System.arraycopy(line.glyphs.items, 0, glyphs, start, n);
+            if (kerned) {
+                if (line.kerning.size == n) {
+                    System.arraycopy(line.kerning.items, 0, kerning, start, n);
+                } else {
+                    int kern = -1;
+                    for (int i = 0; i < n; i++) {
+                        kern = kern << 16 | (int) (glyphs[start + i] & 0xFFFF);
+                        kerning[start + i] = font.kerning.get(kern, 0);
+                    }
+                }
+            }
+            lineStarts[ln] = start;
+            widths[ln] = line.width;
+            heights[ln] = line.height;
+            start += n;
+        }
+        lineStarts[count] = start;
+        lines = count;
+        glyphCount = start;
+        return this;
+    }
+
+    /**
+     * Reads markup into a pooled Layout with this PackedLayout's settings, then packs it into this and frees the
+     * Layout. Called by {@link Font#markup(CharSequence, PackedLayout)}.
+     */
+    PackedLayout markup(Font font, CharSequence text, int start, int end) {
+        Layout layout = Pools.obtain(Layout.class);
+        layout.font(font);
+        layout.targetWidth = targetWidth;
+        layout.maxLines = maxLines;
+        layout.ellipsis = ellipsis;
+        layout.baseColor = baseColor;
+        font.markup(text, start, end, layout);
+        set(layout);
+        Pools.free(layout);
+        return this;
+    }
+
+    public Font getFont() {
+        return font;
+    }
+
+    /**
+     * Sets the font; the next markup should use the same font, since the glyphs here were measured with the old one.
+     * @param font the font to use
+     * @return this, for chaining
+     */
+    public PackedLayout font(Font font) {
+        this.font = font;
+        return this;
+    }
+
+    /**
+     * @return how many lines this holds
+     */
+    public int lines() {
+        return lines;
+    }
+
+    /**
+     * @return how many glyphs this holds, in all lines
+     */
+    public int getGlyphCount() {
+        return glyphCount;
+    }
+
+    /**
+     * @param line an index from 0 to {@link #lines()}, exclusive
+     * @return how many glyphs are in the given line
+     */
+    public int getLineSize(int line) {
+        return lineStarts[line + 1] - lineStarts[line];
+    }
+
+    /**
+     * @param line an index from 0 to {@link #lines()}, exclusive
+     * @param index an index from 0 to {@link #getLineSize(int)}, exclusive
+     * @return the glyph at the given index in the given line, as in {@link Line#glyphs}
+     */
+    public long getGlyph(int line, int index) {
+        return glyphs[lineStarts[line] + index];
+    }
+
+    /**
+     * @param line an index from 0 to {@link #lines()}, exclusive
+     * @return the width of the given line, as in {@link Line#width}
+     */
+    public float getLineWidth(int line) {
+        return widths[line];
+    }
+
+    /**
+     * @param line an index from 0 to {@link #lines()}, exclusive
+     * @return the height of the given line, as in {@link Line#height}
+     */
+    public float getLineHeight(int line) {
+        return heights[line];
+    }
+
+    /**
+     * @return the width of the widest line, as {@link Layout#getWidth()} would return
+     */
+    public float getWidth() {
+        float w = 0;
+        for (int i = 0; i < lines; i++) {
+            w = Math.max(w, widths[i]);
+        }
+        return w;
+    }
+
+    /**
+     * @return the height of the tallest line, as {@link Layout#getHeight()} would return
+     */
+    public float getHeight() {
+        float h = 0;
+        for (int i = 0; i < lines; i++) {
+            h = Math.max(h, heights[i]);
+        }
+        return h;
+    }
+
+    public float getTargetWidth() {
+        return targetWidth;
+    }
+
+    /**
+     * Sets the width text should wrap at, or 0 or less to not wrap. This only affects later markup.
+     * @param targetWidth the width to wrap text at, in world units
+     * @return this, for chaining
+     */
+    public PackedLayout setTargetWidth(float targetWidth) {
+        this.targetWidth = targetWidth;
+        return this;
+    }
+
+    public int getMaxLines() {
+        return maxLines;
+    }
+
+    /**
+     * Sets the maximum number of lines later markup can produce; this is always at least 1.
+     * @param maxLines the limit for how many lines text can use; always 1 or more
+     * @return this, for chaining
+     */
+    public PackedLayout setMaxLines(int maxLines) {
+        this.maxLines = Math.max(1, maxLines);
+        return this;
+    }
+
+    public String getEllipsis() {
+        return ellipsis;
+    }
+
+    /**
+     * Sets the ellipsis text for later markup, as {@link Layout#setEllipsis(String)} does.
+     * @param ellipsis a String for text to end with if its max lines are exceeded, or null to avoid such truncation
+     * @return this, for chaining
+     */
+    public PackedLayout setEllipsis(String ellipsis) {
+        this.ellipsis = ellipsis;
+        return this;
+    }
+
+    public float getBaseColor() {
+        return baseColor;
+    }
+
+    /**
+     * Sets the base color for later markup, as {@link Layout#setBaseColor(Color)} does.
+     * @param baseColor a Color to use for text that hasn't been formatted; if null, will be treated as white
+     * @return this, for chaining
+     */
+    public PackedLayout setBaseColor(Color baseColor) {
+        this.baseColor = baseColor == null ? Color.WHITE_FLOAT_BITS : baseColor.toFloatBits();
+        return this;
+    }
+
+    /**
+     * Appends the chars of every line into sb, with lines separated by {@code '\n'}, as
+     * {@link Layout#appendInto(StringBuilder)} does.
+     * @param sb a non-null StringBuilder from the JDK
+     * @return sb, for chaining
+     */
+    public StringBuilder appendInto(StringBuilder sb) {
+        for (int ln = 0; ln < lines; ) {
+            for (int i = lineStarts[ln], e = lineStarts[ln + 1]; i < e; i++) {
+                sb.append((char) glyphs[i]);
+            }
+            if (++ln < lines)
+                sb.append('\n');
+        }
+        return sb;
+    }
+
+    @Override
+    public String toString() {
+        return appendInto(new StringBuilder(glyphCount + lines)).toString();
+    }
+
+    /**
+     * Ensures this can hold at least the given number of glyphs and lines without growing; mostly useful before
+     * {@link #set(Layout)} if you know how large the text will get.
+     * @param glyphCapacity how many glyphs this should be able to hold
+     * @param lineCapacity how many lines this should be able to hold
+     * @return this, for chaining
+     */
+    public PackedLayout ensureCapacity(int glyphCapacity, int lineCapacity) {
+        if (glyphs.length < glyphCapacity) {
+            glyphs = Arrays.copyOf(glyphs, glyphCapacity);
+            kerning = Arrays.copyOf(kerning, glyphCapacity);
+        }
+        if (widths.length < lineCapacity) {
+            widths = Arrays.copyOf(widths, lineCapacity);
+            heights = Arrays.copyOf(heights, lineCapacity);
+            lineStarts = Arrays.copyOf(lineStarts, lineCapacity + 1);
+        }
+        return this;
+    }
+}
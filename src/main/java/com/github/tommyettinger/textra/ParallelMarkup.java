@@ -0,0 +1,157 @@
+package com.github.tommyettinger.textra;
+
+import com.badlogic.gdx.utils.Pools;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Runs {@link Font#markup(CharSequence, Layout)} on many strings at once, splitting the work across a
+ * {@link ForkJoinPool}. This is meant for things like loading a localization table, where thousands of strings need
+ * Layouts and doing them one at a time on the render thread would take too long. Each string gets its own Layout,
+ * with the same target width, max lines, ellipsis, and base color as a settings Layout, so the results are exactly
+ * what calling markup() on each string in order would produce.
+ * <br>
+ * Layouts that aren't provided are obtained from {@link Pools}, like Lines are during markup, so you can free the
+ * results with {@code Pools.freeAll()} when you're done with them. This class isn't available on GWT, which has no
+ * threads.
+ */
+public final class ParallelMarkup {
+
+    private static ForkJoinPool defaultPool;
+
+    private ParallelMarkup() {
+    }
+
+    /**
+     * Gets the ForkJoinPool used when none is given, creating it the first time this is called. It uses as many
+     * threads as there are available processors, and its threads don't keep the JVM running.
+     * @return a ForkJoinPool shared by all calls that don't specify one
+     */
+    public static synchronized ForkJoinPool getDefaultPool() {
+        if (defaultPool == null)
+            defaultPool = new ForkJoinPool();
+        return defaultPool;
+    }
+
+    /**
+     * Marks up every item in {@code texts} into a new Layout obtained from {@link Pools}, using
+     * {@link #getDefaultPool()}.
+     * @param font the Font to mark up with
+     * @param texts the markup strings; none can be null
+     * @param settings a Layout to copy the target width, max lines, ellipsis, and base color from; it is not changed
+     * @return a new array of Layouts, with one per item in texts, in the same order
+     */
+    public static Layout[] markupAll(Font font, CharSequence[] texts, Layout settings) {
+        return markupAll(getDefaultPool(), font, texts, settings, new Layout[texts.length]);
+    }
+
+    /**
+     * Marks up every item in {@code texts} into the Layout at the same index in {@code results}, splitting the work
+     * across {@code pool}. Any null item in results is filled with a Layout obtained from {@link Pools}; any Layout
+     * already there is cleared and reused. This blocks until every Layout is finished.
+     * @param pool the ForkJoinPool to do the work in
+     * @param font the Font to mark up with
+     * @param texts the markup strings; none can be null
+     * @param settings a Layout to copy the target width, max lines, ellipsis, and base color from; it is not changed
+     * @param results an array at least as long as texts; will be modified
+     * @return results, for chaining
+     */
+    public static Layout[] markupAll(ForkJoinPool pool, Font font, CharSequence[] texts, Layout settings,
+                                     Layout[] results) {
+        if (results.length < texts.length)
+            throw new IllegalArgumentException("results has length " + results.length + ", but texts has length "
+                    + texts.length);
+        pool.invoke(new MarkupTask(font, texts, null, settings, results, 0, texts.length,
+                threshold(pool, texts.length)));
+        return results;
+    }
+
+    /**
+     * Marks up every item in {@code texts} into a new Layout obtained from {@link Pools}, using
+     * {@link #getDefaultPool()}.
+     * @param font the Font to mark up with
+     * @param texts the markup strings; none can be null
+     * @param settings a Layout to copy the target width, max lines, ellipsis, and base color from; it is not changed
+     * @return a new array of Layouts, with one per item in texts, in the same order
+     */
+    public static Layout[] markupAll(Font font, List<? extends CharSequence> texts, Layout settings) {
+        return markupAll(getDefaultPool(), font, texts, settings, new Layout[texts.size()]);
+    }
+
+    /**
+     * Marks up every item in {@code texts} into the Layout at the same index in {@code results}, splitting the work
+     * across {@code pool}. Any null item in results is filled with a Layout obtained from {@link Pools}; any Layout
+     * already there is cleared and reused. This blocks until every Layout is finished. The List should support fast
+     * random access, and must not be changed while this runs.
+     * @param pool the ForkJoinPool to do the work in
+     * @param font the Font to mark up with
+     * @param texts the markup strings; none can be null
+     * @param settings a Layout to copy the target width, max lines, ellipsis, and base color from; it is not changed
+     * @param results an array at least as long as texts; will be modified
+     * @return results, for chaining
+     */
+    public static Layout[] markupAll(ForkJoinPool pool, Font font, List<? extends CharSequence> texts, Layout settings,
+                                     Layout[] results) {
+        if (results.length < texts.size())
+            throw new IllegalArgumentException("results has length " + results.length + ", but texts has size "
+                    + texts.size());
+        pool.invoke(new MarkupTask(font, null, texts, settings, results, 0, texts.size(),
+                threshold(pool, texts.size())));
+        return results;
+    }
+
+    /**
+     * Splits the work into about 4 tasks per thread, so threads that get short strings can take more tasks.
+     */
+    private static int threshold(ForkJoinPool pool, int count) {
+        return Math.max(1, count / (pool.getParallelism() * 4));
+    }
+
+    private static final class MarkupTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Font font;
+        private final CharSequence[] array;
+        private final List<? extends CharSequence> list;
+        private final Layout settings;
+        private final Layout[] results;
+        private final int start, end, threshold;
+
+        MarkupTask(Font font, CharSequence[] array, List<? extends CharSequence> list, Layout settings,
+                   Layout[] results, int start, int end, int threshold) {
+            this.font = font;
+            this.array = array;
+            this.list = list;
+            this.settings = settings;
+            this.results = results;
+            this.start = start;
+            this.end = end;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start > threshold) {
+                final int middle = start + end >>> 1;
+                invokeAll(new MarkupTask(font, array, list, settings, results, start, middle, threshold),
+                        new MarkupTask(font, array, list, settings, results, middle, end, threshold));
+                return;
+            }
+            for (int i = start; i < end; i++) {
+                Layout layout = results[i];
+                if (layout == null)
+                    layout = results[i] = Pools.obtain(Layout.class);
+                else
+                    layout.clear();
+                layout.font(font);
+                layout.targetWidth = settings.targetWidth;
+                layout.maxLines = settings.maxLines;
+                layout.ellipsis = settings.ellipsis;
+                layout.baseColor = settings.baseColor;
+                font.markup(array == null ? list.get(i) : array[i], layout);
+            }
+        }
+    }
+}
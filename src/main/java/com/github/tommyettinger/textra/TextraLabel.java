@@ -2,26 +2,45 @@ package com.github.tommyettinger.textra;
 
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.g2d.Batch;
-import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.scenes.scene2d.ui.Label;
 import com.badlogic.gdx.scenes.scene2d.ui.Skin;
 import com.badlogic.gdx.scenes.scene2d.ui.Widget;
+import com.badlogic.gdx.scenes.scene2d.utils.Cullable;
 import com.badlogic.gdx.utils.Align;
+import com.badlogic.gdx.utils.Disposable;
 import com.badlogic.gdx.utils.Pools;
 
 /**
  * A scene2d.ui Widget that displays text using a {@link Font} rather than a libGDX BitmapFont. This supports being
- * laid out in a Table just like the typical Label.
+ * laid out in a Table just like the typical Label. Inside a ScrollPane, only the lines and glyphs that can be seen are
+ * drawn, since the ScrollPane tells this which area is visible.
+ * <br>
+ * Labels made without a Font create their own from the Skin's or LabelStyle's BitmapFont. If many labels use the same
+ * BitmapFont, pass them all the same {@link FontRegistry}, which you create alongside the Skin and dispose with it, so
+ * they share one copy of its glyphs. Call {@link #dispose()} when a label is no longer used, to release the Font it
+ * created; a Font passed to a constructor is left to its owner.
  * <br>
  * ...Maybe not quite ready for prime-time yet. This could use some more features for ease-of-use.
  */
-public class TextraLabel extends Widget {
+public class TextraLabel extends Widget implements Cullable, Disposable {
     public Layout layout;
     public Font font;
     public int align = Align.bottomLeft;
+    /**
+     * True if {@link #font} was created or obtained by this label, and so is disposed by {@link #dispose()}.
+     */
+    protected boolean ownsFont;
+    protected Rectangle cullingArea;
+    private final Rectangle visible = new Rectangle();
     public TextraLabel(){
+        // a registry of its own disposes the default BitmapFont once this label's Font is disposed
+        this(new FontRegistry());
+    }
+    public TextraLabel(FontRegistry registry){
         layout = Pools.obtain(Layout.class);
-        font = new Font(new BitmapFont(), Font.DistanceFieldType.STANDARD, 0, 0, 0, 0);
+        font = registry.obtainDefault();
+        ownsFont = true;
     }
     public TextraLabel(String text, Skin skin) {
         this(text, skin.get(Label.LabelStyle.class));
@@ -31,14 +50,24 @@ public class TextraLabel extends Widget {
         this(text, skin.get(styleName, Label.LabelStyle.class));
     }
 
+    public TextraLabel(String text, Skin skin, FontRegistry registry) {
+        this(text, skin.get(Label.LabelStyle.class), registry);
+    }
+
+    public TextraLabel(String text, Skin skin, String styleName, FontRegistry registry) {
+        this(text, skin.get(styleName, Label.LabelStyle.class), registry);
+    }
 
     public TextraLabel(String text, Label.LabelStyle style) {
-        font = new Font(style.font, Font.DistanceFieldType.STANDARD, 0, 0, 0, 0);
-        layout = Pools.obtain(Layout.class);
-        layout.setBaseColor(style.fontColor);
-        font.markup(text, layout);
-        setSize(layout.getWidth(), layout.getHeight());
+        this(text, new Font(style.font, Font.DistanceFieldType.STANDARD, 0, 0, 0, 0), style.fontColor);
+        ownsFont = true;
     }
+
+    public TextraLabel(String text, Label.LabelStyle style, FontRegistry registry) {
+        this(text, registry.obtain(style.font), style.fontColor);
+        ownsFont = true;
+    }
+
     public TextraLabel(String text, Font font) {
         this.font = font;
         layout = Pools.obtain(Layout.class);
@@ -57,7 +86,16 @@ public class TextraLabel extends Widget {
     public void draw(Batch batch, float parentAlpha) {
         super.draw(batch, parentAlpha);
         batch.setColor(1f, 1f, 1f, parentAlpha);
-        font.drawGlyphs(batch, layout, getX(align), getY(align), align);
+        if (cullingArea == null)
+            font.drawGlyphs(batch, layout, getX(align), getY(align), align);
+        else
+            font.drawGlyphs(batch, layout, getX(align), getY(align), align,
+                    visible.set(getX() + cullingArea.x, getY() + cullingArea.y, cullingArea.width, cullingArea.height));
+    }
+
+    @Override
+    public void setCullingArea(Rectangle cullingArea) {
+        this.cullingArea = cullingArea;
     }
 
     @Override
@@ -96,4 +134,20 @@ public class TextraLabel extends Widget {
     public void setText(String markupText) {
         font.markup(markupText, layout.clear());
     }
+
+    /**
+     * Returns this label's Layout to its pool, and disposes its Font if this label created or obtained it, which
+     * releases it if it came from a {@link FontRegistry}. The label must not be drawn afterwards.
+     */
+    @Override
+    public void dispose() {
+        if (layout != null) {
+            Pools.free(layout);
+            layout = null;
+        }
+        if (ownsFont && font != null) {
+            font.dispose();
+            ownsFont = false;
+        }
+    }
 }
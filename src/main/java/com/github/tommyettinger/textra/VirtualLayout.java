@@ -0,0 +1,303 @@
+package com.github.tommyettinger.textra;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.Pools;
+import com.badlogic.gdx.utils.Queue;
+
+/**
+ * A very long text, such as a server or combat log, that only lays out the part of it that is visible. Each entry
+ * added with {@link #add(CharSequence)} is stored as raw markup; when it is added it is measured with
+ * {@link Font#measure(CharSequence, int, int, Measurement)} to find how many lines it wraps to, but no {@link Layout}
+ * is built for it until it scrolls into view. The Layouts for entries that are visible, plus {@link #getMargin()} lines
+ * above and below, are kept in a window; when entries scroll out of that window, their Layouts and Lines are freed back
+ * to their pools. Draw the visible lines with {@link Font#drawGlyphs(Batch, VirtualLayout, float, float, int, int, int)},
+ * or use a {@link VirtualTextraLabel} in a ScrollPane.
+ * <br>
+ * Every line is drawn {@link Font#cellHeight} tall, so the running total of lines in each entry is also the offset of
+ * that entry from the top of the text; {@link #entryAtLine(int)} and {@link #lineAt(float)} find the entry or line at
+ * any scroll position with a binary search over those totals. Each entry is marked up separately, so color and style
+ * don't carry from one entry into the next.
+ * <br>
+ * This should only be used from one thread, typically the render thread.
+ */
+public class VirtualLayout {
+    protected Font font;
+    protected float targetWidth = 0f;
+    protected float baseColor = Color.WHITE_FLOAT_BITS;
+    /**
+     * How many lines above and below the visible ones are kept laid out, so scrolling a little doesn't lay out text.
+     */
+    protected int margin = 32;
+
+    /**
+     * The markup of every entry, one after the other.
+     */
+    protected final StringBuilder text = new StringBuilder(256);
+    /**
+     * The index in {@link #text} where each entry ends; each entry starts where the previous one ends.
+     */
+    protected final IntArray ends = new IntArray();
+    /**
+     * For each entry, the total number of lines in that entry and all entries before it.
+     */
+    protected final IntArray lineTotals = new IntArray();
+    protected float width = 0f;
+
+    /**
+     * The Layouts of entries {@link #windowStart} onward, in order.
+     */
+    protected final Queue<Layout> window = new Queue<>();
+    protected int windowStart = 0;
+
+    private final Measurement measurement = new Measurement();
+
+    public VirtualLayout(Font font) {
+        this.font = font;
+    }
+
+    /**
+     * Adds one entry to the end of the text. The entry always starts on a new line, and can contain line breaks and
+     * markup; it is measured now, but not laid out until it becomes visible.
+     * @param markup text with markup, as {@link Font#markup(String, Layout)} reads it
+     * @return this, for chaining
+     */
+    public VirtualLayout add(CharSequence markup) {
+        final int start = text.length(), total = lines();
+        text.append(markup);
+        ends.add(text.length());
+        font.measure(text, start, text.length(), measurement);
+        width = Math.max(width, measurement.getWidth());
+        lineTotals.add(total + measurement.lines());
+        return this;
+    }
+
+    /**
+     * Removes all entries and frees every laid-out Layout, keeping the font and settings.
+     * @return this, for chaining
+     */
+    public VirtualLayout clear() {
+        evict();
+        text.setLength(0);
+        ends.clear();
+        lineTotals.clear();
+        width = 0f;
+        return this;
+    }
+
+    /**
+     * Frees every laid-out Layout; entries will be laid out again when they are next visible.
+     */
+    protected void evict() {
+        while (window.size > 0) {
+            Pools.free(window.removeFirst());
+        }
+        windowStart = 0;
+    }
+
+    /**
+     * Measures every entry again, such as after the font or target width changed, and frees every laid-out Layout.
+     */
+    protected void remeasure() {
+        evict();
+        width = 0f;
+        measurement.setTargetWidth(targetWidth);
+        for (int i = 0, start = 0, total = 0; i < ends.size; i++) {
+            final int end = ends.get(i);
+            font.measure(text, start, end, measurement);
+            width = Math.max(width, measurement.getWidth());
+            lineTotals.set(i, total += measurement.lines());
+            start = end;
+        }
+    }
+
+    /**
+     * @return how many entries have been added
+     */
+    public int size() {
+        return ends.size;
+    }
+
+    /**
+     * @return how many lines all entries use together, after wrapping
+     */
+    public int lines() {
+        return ends.size == 0 ? 0 : lineTotals.peek();
+    }
+
+    /**
+     * @return the width of the widest line in any entry
+     */
+    public float getWidth() {
+        return width;
+    }
+
+    /**
+     * @return the height of all lines together, which is {@link #lines()} times the font's cell height
+     */
+    public float getHeight() {
+        return lines() * font.cellHeight;
+    }
+
+    /**
+     * Gets the markup of one entry, as it was added. This allocates a new String.
+     * @param entry the index of an entry, from 0 to {@link #size()}, exclusive
+     * @return the markup of that entry
+     */
+    public String getEntry(int entry) {
+        return text.substring(entry == 0 ? 0 : ends.get(entry - 1), ends.get(entry));
+    }
+
+    /**
+     * Finds the entry that contains the given line, using a binary search.
+     * @param line a line index from 0 to {@link #lines()}, exclusive
+     * @return the index of the entry that line belongs to
+     */
+    public int entryAtLine(int line) {
+        final int[] totals = lineTotals.items;
+        int low = 0, high = ends.size - 1;
+        while (low < high) {
+            final int mid = low + high >>> 1;
+            if (totals[mid] > line) high = mid;
+            else low = mid + 1;
+        }
+        return low;
+    }
+
+    /**
+     * @param entry the index of an entry, from 0 to {@link #size()}, exclusive
+     * @return the index of the first line of that entry
+     */
+    public int firstLineOf(int entry) {
+        return entry == 0 ? 0 : lineTotals.get(entry - 1);
+    }
+
+    /**
+     * Gets the line at a distance from the top of the text, such as a scroll position.
+     * @param offset a distance down from the top of the text, in world units
+     * @return the index of the line at that distance, clamped to the lines that exist
+     */
+    public int lineAt(float offset) {
+        return Math.max(0, Math.min(lines() - 1, (int) (offset / font.cellHeight)));
+    }
+
+    /**
+     * Makes sure the entries holding lines {@code firstLine} until {@code endLine} (exclusive) are laid out, along with
+     * {@link #getMargin()} lines on either side, and frees the Layouts of entries outside that range. Drawing calls
+     * this automatically.
+     * @param firstLine the first visible line, inclusive
+     * @param endLine the last visible line, exclusive
+     */
+    public void setVisibleLines(int firstLine, int endLine) {
+        final int total = lines();
+        if (total == 0) return;
+        final int first = entryAtLine(Math.max(0, Math.min(total - 1, firstLine - margin)));
+        final int last = entryAtLine(Math.max(0, Math.min(total - 1, endLine - 1 + margin)));
+        if (window.size == 0 || first > windowStart + window.size - 1 || last < windowStart) {
+            evict();
+            windowStart = first;
+        }
+        while (windowStart < first) {
+            Pools.free(window.removeFirst());
+            windowStart++;
+        }
+        while (window.size > 0 && windowStart + window.size - 1 > last) {
+            Pools.free(window.removeLast());
+        }
+        while (windowStart > first) {
+            window.addFirst(layOut(--windowStart));
+        }
+        while (windowStart + window.size - 1 < last) {
+            window.addLast(layOut(windowStart + window.size));
+        }
+    }
+
+    private Layout layOut(int entry) {
+        Layout layout = Pools.obtain(Layout.class);
+        layout.font(font);
+        layout.targetWidth = targetWidth;
+        layout.baseColor = baseColor;
+        return font.markup(text, entry == 0 ? 0 : ends.get(entry - 1), ends.get(entry), layout);
+    }
+
+    /**
+     * Gets the Layout of an entry if it is currently laid out, or null if it isn't.
+     * @param entry the index of an entry, from 0 to {@link #size()}, exclusive
+     * @return the Layout for that entry, or null if it isn't in the visible window
+     */
+    public Layout getLayout(int entry) {
+        final int i = entry - windowStart;
+        return i < 0 || i >= window.size ? null : window.get(i);
+    }
+
+    /**
+     * @return how many entries are currently laid out
+     */
+    public int getLaidOutCount() {
+        return window.size;
+    }
+
+    public Font getFont() {
+        return font;
+    }
+
+    /**
+     * Changes the font, measuring every entry again.
+     * @param font the Font to lay out text with
+     * @return this, for chaining
+     */
+    public VirtualLayout font(Font font) {
+        if (this.font != font) {
+            this.font = font;
+            remeasure();
+        }
+        return this;
+    }
+
+    public float getTargetWidth() {
+        return targetWidth;
+    }
+
+    /**
+     * Sets the width entries wrap at, or 0 or less to not wrap. If this changes, every entry is measured again.
+     * @param targetWidth the width to wrap text at, in world units
+     * @return this, for chaining
+     */
+    public VirtualLayout setTargetWidth(float targetWidth) {
+        if (this.targetWidth != targetWidth) {
+            this.targetWidth = targetWidth;
+            remeasure();
+        }
+        return this;
+    }
+
+    public float getBaseColor() {
+        return baseColor;
+    }
+
+    /**
+     * Sets the base color for text that hasn't been formatted, and lays out visible entries again when next drawn.
+     * @param baseColor a Color to use for text that hasn't been formatted; if null, will be treated as white
+     * @return this, for chaining
+     */
+    public VirtualLayout setBaseColor(Color baseColor) {
+        this.baseColor = baseColor == null ? Color.WHITE_FLOAT_BITS : baseColor.toFloatBits();
+        evict();
+        return this;
+    }
+
+    public int getMargin() {
+        return margin;
+    }
+
+    /**
+     * Sets how many lines above and below the visible ones stay laid out.
+     * @param margin how many extra lines to keep laid out on each side; must be 0 or more
+     * @return this, for chaining
+     */
+    public VirtualLayout setMargin(int margin) {
+        this.margin = Math.max(0, margin);
+        return this;
+    }
+}
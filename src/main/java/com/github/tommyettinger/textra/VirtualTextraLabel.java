@@ -0,0 +1,91 @@
+package com.github.tommyettinger.textra;
+
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.scenes.scene2d.ui.Widget;
+import com.badlogic.gdx.scenes.scene2d.utils.Cullable;
+import com.badlogic.gdx.utils.Align;
+
+/**
+ * A scene2d.ui Widget that shows a {@link VirtualLayout}, meant to be put in a ScrollPane to show a log with a huge
+ * number of lines. Its preferred height is the height of all lines, but since it is {@link Cullable}, the ScrollPane
+ * tells it which part is visible, and only those lines (plus the VirtualLayout's margin) are laid out and drawn. Without
+ * a ScrollPane or another source of a culling area, every line is drawn.
+ */
+public class VirtualTextraLabel extends Widget implements Cullable {
+    public final VirtualLayout layout;
+    public Font font;
+    protected Rectangle cullingArea;
+    protected boolean wrap;
+
+    public VirtualTextraLabel(Font font) {
+        this.font = font;
+        layout = new VirtualLayout(font);
+    }
+
+    /**
+     * Adds one entry to the end of the log, and lets any containing Table or ScrollPane know the size changed.
+     * @param markupText a String or other CharSequence that can contain Font markup
+     */
+    public void add(CharSequence markupText) {
+        layout.add(markupText);
+        invalidateHierarchy();
+    }
+
+    /**
+     * Removes all entries from the log.
+     */
+    public void clearText() {
+        layout.clear();
+        invalidateHierarchy();
+    }
+
+    /**
+     * If true, entries wrap at the width of this widget, and the preferred width is 0.
+     * @param wrap whether entries should wrap at the width of this widget
+     */
+    public void setWrap(boolean wrap) {
+        this.wrap = wrap;
+        if (!wrap) layout.setTargetWidth(0f);
+        invalidateHierarchy();
+    }
+
+    public boolean getWrap() {
+        return wrap;
+    }
+
+    @Override
+    public void setCullingArea(Rectangle cullingArea) {
+        this.cullingArea = cullingArea;
+    }
+
+    @Override
+    public void layout() {
+        if (wrap) layout.setTargetWidth(getWidth());
+    }
+
+    @Override
+    public void draw(Batch batch, float parentAlpha) {
+        validate();
+        batch.setColor(1f, 1f, 1f, parentAlpha);
+        final float top = getHeight(), cell = font.cellHeight;
+        float viewBottom = 0f, viewTop = top;
+        if (cullingArea != null) {
+            viewBottom = cullingArea.y;
+            viewTop = cullingArea.y + cullingArea.height;
+        }
+        final int first = Math.max(0, (int) ((top - viewTop) / cell));
+        final int end = (int) Math.ceil((top - viewBottom) / cell);
+        font.drawGlyphs(batch, layout, getX(), getY() + top - (first + 1) * cell, first, end, Align.left);
+    }
+
+    @Override
+    public float getPrefWidth() {
+        return wrap ? 0f : layout.getWidth();
+    }
+
+    @Override
+    public float getPrefHeight() {
+        return layout.getHeight();
+    }
+}
@@ -0,0 +1,233 @@
+package com.github.tommyettinger;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.lwjgl3.Lwjgl3ApplicationConfiguration;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.FileTextureData;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.IntMap;
+import com.github.tommyettinger.textra.FntReader;
+import com.github.tommyettinger.textra.Font;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.Charset;
+
+/**
+ * Compares loading the same fonts from the three AngelCode BMFont formats Font can read: the text .fnt files in the
+ * test resources, and copies of them converted to the XML and binary (version 3) formats in temporary files. Each
+ * format is loaded into a Font with the textures already given, so only reading the file is measured; reports the file
+ * sizes, how long each load takes, and how many bytes each load allocates. Also checks that every format gives the
+ * same glyphs and kerning as the text file. Results are printed to stdout, and the app closes itself when done.
+ */
+public class BMFontFormatBenchmark extends ApplicationAdapter {
+
+    private static final String[] FONTS = {"Gentium.fnt", "Iosevka-Slab.fnt"};
+
+    private static final String[] FORMATS = {"text", "XML", "binary"};
+
+    private static final int WARMUP = 20, RUNS = 50;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    public static void main(String[] args){
+        Lwjgl3ApplicationConfiguration config = new Lwjgl3ApplicationConfiguration();
+        config.setTitle("textramode BMFont format benchmark");
+        config.setWindowedMode(400, 100);
+        config.disableAudio(true);
+        SelfCheck.launch(new BMFontFormatBenchmark(), config);
+    }
+
+    @Override
+    public void create() {
+        boolean passed = true;
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        for (String name : FONTS) {
+            FileHandle text = Gdx.files.internal(name);
+            if (!text.exists()) text = Gdx.files.classpath(name);
+            Array<TextureRegion> pages = new Array<>(TextureRegion.class);
+            IntArray chars = new IntArray(), kernings = new IntArray();
+            int[] common = read(text, pages, chars, kernings);
+            FileHandle xml = FileHandle.tempFile("textramode"), binary = FileHandle.tempFile("textramode");
+            xml.writeString(toXML(common, pages, chars, kernings), false, "UTF8");
+            binary.writeBytes(toBinary(common, pages, chars, kernings), false);
+            FileHandle[] files = {text, xml, binary};
+            String[] paths = {name, xml.file().getAbsolutePath(), binary.file().getAbsolutePath()};
+
+            System.out.printf("%-18s %5d chars, %5d kerning pairs:%n", name, chars.size / 9, kernings.size / 3);
+            Font expected = new Font(paths[0], pages, 0f, 0f, 0f, 0f);
+            passed &= matches(expected, chars, kernings);
+            for (int f = 1; f < FORMATS.length; f++) {
+                Font actual = new Font(paths[f], pages, 0f, 0f, 0f, 0f);
+                if (!same(expected, actual) || !matches(actual, chars, kernings)) {
+                    System.out.println("    FAIL: the " + FORMATS[f] + " file gave different glyphs or kerning.");
+                    passed = false;
+                }
+            }
+
+            for (int i = 0; i < WARMUP; i++) {
+                for (String path : paths) new Font(path, pages, 0f, 0f, 0f, 0f);
+            }
+            for (int f = 0; f < FORMATS.length; f++) {
+                long start = System.nanoTime();
+                for (int i = 0; i < RUNS; i++) new Font(paths[f], pages, 0f, 0f, 0f, 0f);
+                final long time = System.nanoTime() - start;
+                long bytes = -1L;
+                if (bean instanceof com.sun.management.ThreadMXBean) {
+                    com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+                    long id = Thread.currentThread().getId();
+                    long before = threads.getThreadAllocatedBytes(id);
+                    new Font(paths[f], pages, 0f, 0f, 0f, 0f);
+                    bytes = threads.getThreadAllocatedBytes(id) - before;
+                }
+                System.out.printf("    %-6s %7d KiB file, load %7.3f ms, allocated %6d KiB%n",
+                        FORMATS[f], files[f].length() >> 10, time / 1e6 / RUNS, bytes >> 10);
+            }
+
+            xml.delete();
+            binary.delete();
+            for (TextureRegion page : pages) page.getTexture().dispose();
+        }
+        SelfCheck.finish(passed);
+    }
+
+    /**
+     * Reads a text .fnt file, loading its textures into pages, putting 9 ints for each char into chars (id, x, y,
+     * width, height, xoffset, yoffset, xadvance, page) and 3 for each kerning pair into kernings (first, second,
+     * amount).
+     * @return lineHeight, base, scaleW, and scaleH from the common line
+     */
+    private static int[] read(FileHandle fnt, Array<TextureRegion> pages, IntArray chars, IntArray kernings) {
+        int[] common = new int[4];
+        FntReader reader = new FntReader(fnt.read());
+        try {
+            for (int record = reader.next(); record != FntReader.END; record = reader.next()) {
+                switch (record) {
+                    case FntReader.COMMON:
+                        common[0] = reader.lineHeight;
+                        common[1] = reader.base;
+                        common[2] = reader.scaleW;
+                        common[3] = reader.scaleH;
+                        break;
+                    case FntReader.PAGE:
+                        pages.add(new TextureRegion(new Texture(reader.file)));
+                        break;
+                    case FntReader.CHAR:
+                        chars.addAll(reader.id, reader.x, reader.y, reader.width, reader.height,
+                                reader.xoffset, reader.yoffset, reader.xadvance, reader.page);
+                        break;
+                    case FntReader.KERNING:
+                        kernings.addAll(reader.first, reader.second, reader.amount);
+                        break;
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        return common;
+    }
+
+    private static String toXML(int[] common, Array<TextureRegion> pages, IntArray chars, IntArray kernings) {
+        StringBuilder sb = new StringBuilder(chars.size * 16 + kernings.size * 16);
+        sb.append("<?xml version=\"1.0\"?>\n<font>\n  <common lineHeight=\"").append(common[0])
+                .append("\" base=\"").append(common[1]).append("\" scaleW=\"").append(common[2])
+                .append("\" scaleH=\"").append(common[3]).append("\" pages=\"").append(pages.size)
+                .append("\" packed=\"0\"/>\n  <pages>\n");
+        for (int i = 0; i < pages.size; i++) {
+            sb.append("    <page id=\"").append(i).append("\" file=\"").append(pageName(pages.get(i))).append("\" />\n");
+        }
+        sb.append("  </pages>\n  <chars count=\"").append(chars.size / 9).append("\">\n");
+        for (int i = 0; i < chars.size; i += 9) {
+            sb.append("    <char id=\"").append(chars.get(i)).append("\" x=\"").append(chars.get(i + 1))
+                    .append("\" y=\"").append(chars.get(i + 2)).append("\" width=\"").append(chars.get(i + 3))
+                    .append("\" height=\"").append(chars.get(i + 4)).append("\" xoffset=\"").append(chars.get(i + 5))
+                    .append("\" yoffset=\"").append(chars.get(i + 6)).append("\" xadvance=\"").append(chars.get(i + 7))
+                    .append("\" page=\"").append(chars.get(i + 8)).append("\" chnl=\"15\" />\n");
+        }
+        sb.append("  </chars>\n");
+        if (kernings.size > 0) {
+            sb.append("  <kernings count=\"").append(kernings.size / 3).append("\">\n");
+            for (int i = 0; i < kernings.size; i += 3) {
+                sb.append("    <kerning first=\"").append(kernings.get(i)).append("\" second=\"")
+                        .append(kernings.get(i + 1)).append("\" amount=\"").append(kernings.get(i + 2)).append("\" />\n");
+            }
+            sb.append("  </kernings>\n");
+        }
+        return sb.append("</font>\n").toString();
+    }
+
+    private static byte[] toBinary(int[] common, Array<TextureRegion> pages, IntArray chars, IntArray kernings) {
+        byte[][] names = new byte[pages.size][];
+        int pagesLength = 0;
+        for (int i = 0; i < pages.size; i++) {
+            pagesLength += (names[i] = pageName(pages.get(i)).getBytes(UTF_8)).length + 1;
+        }
+        ByteBuffer data = ByteBuffer.allocate(4 + 5 + 15 + 5 + 15 + 5 + pagesLength + 5 + chars.size / 9 * 20
+                + (kernings.size == 0 ? 0 : 5 + kernings.size / 3 * 10)).order(ByteOrder.LITTLE_ENDIAN);
+        data.put((byte) 'B').put((byte) 'M').put((byte) 'F').put((byte) 3);
+        // info: size, bits, charset, stretchH, aa, padding, spacing, outline, and an empty name
+        data.put((byte) 1).putInt(15).putShort((short) common[0]).put((byte) 0).put((byte) 0).putShort((short) 100)
+                .put((byte) 1).putInt(0).putShort((short) 0).put((byte) 0).put((byte) 0);
+        // common: lineHeight, base, scaleW, scaleH, pages, bits, and 4 channels
+        data.put((byte) 2).putInt(15).putShort((short) common[0]).putShort((short) common[1])
+                .putShort((short) common[2]).putShort((short) common[3]).putShort((short) pages.size)
+                .put((byte) 0).put((byte) 0).put((byte) 4).put((byte) 4).put((byte) 4);
+        data.put((byte) 3).putInt(pagesLength);
+        for (byte[] n : names) data.put(n).put((byte) 0);
+        data.put((byte) 4).putInt(chars.size / 9 * 20);
+        for (int i = 0; i < chars.size; i += 9) {
+            data.putInt(chars.get(i));
+            for (int j = 1; j < 8; j++) data.putShort((short) chars.get(i + j));
+            data.put((byte) chars.get(i + 8)).put((byte) 15);
+        }
+        if (kernings.size > 0) {
+            data.put((byte) 5).putInt(kernings.size / 3 * 10);
+            for (int i = 0; i < kernings.size; i += 3) {
+                data.putInt(kernings.get(i)).putInt(kernings.get(i + 1)).putShort((short) kernings.get(i + 2));
+            }
+        }
+        return data.array();
+    }
+
+    private static String pageName(TextureRegion page) {
+        return ((FileTextureData) page.getTexture().getTextureData()).getFileHandle().path();
+    }
+
+    /**
+     * Checks that a Font has a glyph for every char read from the text file, and the same amount for every kerning
+     * pair.
+     */
+    private static boolean matches(Font font, IntArray chars, IntArray kernings) {
+        if (font.mapping.size != chars.size / 9) return false;
+        for (int i = 0; i < chars.size; i += 9) {
+            if (!font.mapping.containsKey(chars.get(i))) return false;
+        }
+        if (kernings.size == 0) return font.kerning == null;
+        for (int i = 0; i < kernings.size; i += 3) {
+            if (font.kerning.get(kernings.get(i) << 16 | kernings.get(i + 1), 0) != kernings.get(i + 2)) return false;
+        }
+        return font.kerning.size == kernings.size / 3;
+    }
+
+    private static boolean same(Font expected, Font actual) {
+        if (expected.mapping.size != actual.mapping.size || expected.cellWidth != actual.cellWidth
+                || expected.cellHeight != actual.cellHeight || expected.isMono != actual.isMono
+                || (expected.kerning == null) != (actual.kerning == null))
+            return false;
+        for (IntMap.Entry<Font.GlyphRegion> e : expected.mapping) {
+            Font.GlyphRegion g = e.value, o = actual.mapping.get(e.key);
+            if (o == null || o.getRegionX() != g.getRegionX() || o.getRegionY() != g.getRegionY()
+                    || o.getRegionWidth() != g.getRegionWidth() || o.getRegionHeight() != g.getRegionHeight()
+                    || o.offsetX != g.offsetX || o.offsetY != g.offsetY || o.xAdvance != g.xAdvance
+                    || o.getTexture() != g.getTexture())
+                return false;
+        }
+        return true;
+    }
+}
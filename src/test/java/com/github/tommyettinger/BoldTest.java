@@ -0,0 +1,105 @@
+package com.github.tommyettinger;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.backends.lwjgl3.Lwjgl3ApplicationConfiguration;
+import com.badlogic.gdx.utils.Align;
+import com.github.tommyettinger.textra.Font;
+import com.github.tommyettinger.textra.Layout;
+
+/**
+ * Checks how many quads bold text needs. A STANDARD font, or an MSDF font that hasn't opted in with
+ * {@link Font#enableShaderBold()}, draws each bold glyph three times, shifted left and right. Once an MSDF font has
+ * opted in and its bold shader is the Batch's shader, it draws each bold glyph once, with its horizontal texture
+ * coordinates raised by 2 so the shader can thicken it; those quads must otherwise match the quads of the same text
+ * without bold. With any other shader on the Batch, the opted-in font goes back to three quads. Prints the quad counts.
+ */
+public class BoldTest extends ApplicationAdapter {
+
+    private static final String TEXT = "Some plain text, then [*]some bold text, AVAST, To Wave![*] Then [*][_]bold and"
+            + " underlined[_][*], and [*][/]bold oblique[/][*].";
+
+    public static void main(String[] args){
+        Lwjgl3ApplicationConfiguration config = new Lwjgl3ApplicationConfiguration();
+        config.setTitle("textramode bold test");
+        config.setWindowedMode(400, 100);
+        config.disableAudio(true);
+        SelfCheck.launch(new BoldTest(), config);
+    }
+
+    @Override
+    public void create() {
+        Font standard = new Font("Gentium.fnt", Font.DistanceFieldType.STANDARD, -1f, 0f, -4.5f, 0f).scale(0.42f, 0.42f);
+        Font msdf = new Font("LibertinusSerif-Regular-msdf.fnt", Font.DistanceFieldType.MSDF, 0f, 0f, 0f, 0f)
+                .scale(0.5f, 0.5f);
+        final String plain = TEXT.replace("[*]", "");
+        final int boldGlyphs = countBold(standard, TEXT);
+
+        RecordingBatch bold = new RecordingBatch(), regular = new RecordingBatch();
+        draw(standard, TEXT, bold);
+        draw(standard, plain, regular);
+        final int standardExtra = (bold.vertices.size - regular.vertices.size) / 20;
+        boolean passed = standardExtra == boldGlyphs * 2;
+        System.out.printf("STANDARD: %d bold glyphs, %d quads without bold, %d with bold%n",
+                boldGlyphs, regular.vertices.size / 20, bold.vertices.size / 20);
+
+        bold.reset();
+        regular.reset();
+        msdf.enableShader(bold);
+        draw(msdf, TEXT, bold);
+        draw(msdf, plain, regular);
+        passed &= !msdf.shaderBold && (bold.vertices.size - regular.vertices.size) / 20 == countBold(msdf, TEXT) * 2;
+        System.out.printf("MSDF, default shader: %d quads without bold, %d with bold%n",
+                regular.vertices.size / 20, bold.vertices.size / 20);
+
+        msdf.enableShaderBold();
+        bold.reset();
+        regular.reset();
+        msdf.enableShader(bold);
+        draw(msdf, TEXT, bold);
+        draw(msdf, plain, regular);
+        passed &= msdf.shaderBold && bold.getShader() != msdf.shader && bold.vertices.size == regular.vertices.size;
+        int raised = 0;
+        for (int q = 0; passed && q + 20 <= bold.vertices.size; q += 20) {
+            final boolean isBold = bold.vertices.get(q + 3) > 1.5f;
+            if (isBold) raised++;
+            for (int i = 0; i < 20; i++) {
+                final boolean isU = i % 5 == 3;
+                final float b = bold.vertices.get(q + i) - (isBold && isU ? 2f : 0f), r = regular.vertices.get(q + i);
+                passed &= Math.abs(b - r) < 1e-4f;
+            }
+        }
+        passed &= raised >= countBold(msdf, TEXT);
+        System.out.printf("MSDF, bold shader: %d quads without bold, %d with bold, %d of them raised for the shader%n",
+                regular.vertices.size / 20, bold.vertices.size / 20, raised);
+
+        bold.reset();
+        bold.setShader(msdf.shader);
+        draw(msdf, TEXT, bold);
+        boolean overdrawn = (bold.vertices.size - regular.vertices.size) / 20 == countBold(msdf, TEXT) * 2;
+        for (int q = 3; q < bold.vertices.size; q += 5) overdrawn &= bold.vertices.get(q) <= 1f;
+        passed &= overdrawn;
+        System.out.printf("MSDF, bold shader enabled but another shader active: %d quads with bold%n",
+                bold.vertices.size / 20);
+        standard.dispose();
+        msdf.dispose();
+        SelfCheck.finish(passed);
+    }
+
+    private static void draw(Font font, String text, RecordingBatch batch) {
+        Layout layout = new Layout(font).setTargetWidth(300);
+        font.markup(text, layout);
+        font.drawGlyphs(batch, layout, 10, 400, Align.left);
+    }
+
+    private static int countBold(Font font, String text) {
+        Layout layout = new Layout(font).setTargetWidth(300);
+        font.markup(text, layout);
+        int count = 0;
+        for (int ln = 0; ln < layout.lines(); ln++) {
+            for (int i = 0, n = layout.getLine(ln).glyphs.size; i < n; i++) {
+                if ((layout.getLine(ln).glyphs.get(i) & Font.BOLD) != 0L) count++;
+            }
+        }
+        return count;
+    }
+}
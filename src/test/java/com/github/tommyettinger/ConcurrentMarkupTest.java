@@ -0,0 +1,154 @@
+package com.github.tommyettinger;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.backends.lwjgl3.Lwjgl3ApplicationConfiguration;
+import com.badlogic.gdx.utils.Align;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.LongArray;
+import com.badlogic.gdx.utils.Pools;
+import com.github.tommyettinger.textra.Font;
+import com.github.tommyettinger.textra.Layout;
+import com.github.tommyettinger.textra.Measurement;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Stress-tests building Layouts on worker threads while the render thread draws with the same Font. Several threads
+ * run {@link Font#markup(String, Layout)} (and its StringBuilder and char[] overloads, plus
+ * {@link Font#measure(CharSequence, Measurement)}) over and over, with Layouts from the shared pool, and compare every
+ * result to one made before the threads started. Meanwhile, this thread draws with
+ * {@link Font#drawGlyphs(Batch, Layout, float, float, int)} and {@link Font#drawMarkupText(Batch, String, float, float)}
+ * into a {@link RecordingBatch}, and compares the vertices to a reference. The glyph metrics are invalidated before the
+ * threads start, so they all race to recalculate them.
+ */
+public class ConcurrentMarkupTest extends ApplicationAdapter {
+
+    private static final int THREADS = 8, ITERATIONS = 20000;
+
+    private static final String[] TEXTS = {
+            "[RED]Ruby[]: are you [*]there[*]? [|SKY]Opal[] whispers: [#E74200]orange[] and [#22BB22FF]green[].",
+            "[_][GOLD]Welcome to the [TEAL]Textra Zone[]! [/][SALMON]Pchnąć w tę łódź jeża[] lub ośm skrzyń fig.",
+            "Normal, [*]bold[*], [/]oblique[/], [^]super-[^]script, [.]sub-[.]script, [;]each cap, [!]caps lock[].",
+            "A long line that should wrap several times at the target width, with well-known hyphenated words in it.",
+            "Short.\nTwo lines.\n\nFour, with a blank one.",
+    };
+
+    private Font font;
+    private final LongArray[][] expectedGlyphs = new LongArray[TEXTS.length][];
+    private final float[][] expectedWidths = new float[TEXTS.length][];
+
+    public static void main(String[] args){
+        Lwjgl3ApplicationConfiguration config = new Lwjgl3ApplicationConfiguration();
+        config.setTitle("textramode concurrent markup test");
+        config.setWindowedMode(400, 100);
+        config.disableAudio(true);
+        SelfCheck.launch(new ConcurrentMarkupTest(), config);
+    }
+
+    @Override
+    public void create() {
+        font = new Font("Gentium.fnt", Font.DistanceFieldType.STANDARD, -1f, 0f, -4.5f, 0f).scale(0.42f, 0.42f);
+        Layout layout = new Layout(font).setTargetWidth(200);
+        for (int t = 0; t < TEXTS.length; t++) {
+            layout.clear();
+            font.markup(TEXTS[t], layout);
+            expectedGlyphs[t] = new LongArray[layout.lines()];
+            expectedWidths[t] = new float[layout.lines()];
+            for (int ln = 0; ln < layout.lines(); ln++) {
+                expectedGlyphs[t][ln] = new LongArray(layout.getLine(ln).glyphs);
+                expectedWidths[t][ln] = layout.getLine(ln).width;
+            }
+        }
+        RecordingBatch batch = new RecordingBatch();
+        layout.clear();
+        font.markup(TEXTS[0], layout);
+        font.drawGlyphs(batch, layout, 10, 50, Align.left);
+        font.drawMarkupText(batch, TEXTS[1], 10, 20);
+        FloatArray expectedVertices = new FloatArray(batch.vertices);
+
+        font.mapping.get('a').invalidate();
+
+        final AtomicInteger mismatches = new AtomicInteger();
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final CountDownLatch ready = new CountDownLatch(THREADS), done = new CountDownLatch(THREADS);
+        for (int i = 0; i < THREADS; i++) {
+            final int seed = i;
+            Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        StringBuilder sb = new StringBuilder(128);
+                        char[] chars = new char[128];
+                        Measurement measurement = new Measurement().setTargetWidth(200);
+                        ready.countDown();
+                        ready.await();
+                        for (int n = 0; n < ITERATIONS; n++) {
+                            final int t = (n + seed) % TEXTS.length;
+                            Layout layout = Pools.obtain(Layout.class).setTargetWidth(200);
+                            switch (n % 3) {
+                                case 0:
+                                    font.markup(TEXTS[t], layout);
+                                    break;
+                                case 1:
+                                    sb.setLength(0);
+                                    // a color name no other thread uses, to make the shared name cache grow
+                                    sb.append("[T").append(seed).append('_').append(n).append(']').append(TEXTS[t]);
+                                    font.markup(sb, sb.indexOf("]") + 1, sb.length(), layout);
+                                    break;
+                                default:
+                                    TEXTS[t].getChars(0, TEXTS[t].length(), chars, 0);
+                                    font.markup(chars, 0, TEXTS[t].length(), layout);
+                            }
+                            if (!matches(t, layout)) mismatches.incrementAndGet();
+                            font.measure(TEXTS[t], measurement);
+                            if (measurement.lines() != layout.lines() || measurement.getWidth() != layout.getWidth())
+                                mismatches.incrementAndGet();
+                            Pools.free(layout);
+                        }
+                    } catch (Throwable e) {
+                        failure.compareAndSet(null, e);
+                    } finally {
+                        done.countDown();
+                    }
+                }
+            }, "markup-" + i);
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        int frames = 0;
+        while (done.getCount() > 0) {
+            batch.reset();
+            font.drawGlyphs(batch, layout, 10, 50, Align.left);
+            font.drawMarkupText(batch, TEXTS[1], 10, 20);
+            if (!batch.vertices.equals(expectedVertices)) mismatches.incrementAndGet();
+            frames++;
+        }
+        try {
+            done.await();
+        } catch (InterruptedException ignored) {
+        }
+
+        System.out.printf("%d threads did %d markup calls each while %d frames were drawn.%n", THREADS, ITERATIONS, frames);
+        boolean passed = failure.get() == null && mismatches.get() == 0;
+        if (failure.get() != null) {
+            System.out.println("FAIL: a thread threw an exception:");
+            failure.get().printStackTrace(System.out);
+        }
+        if (mismatches.get() != 0)
+            System.out.println("FAIL: " + mismatches.get() + " results differed from the single-threaded ones.");
+        font.dispose();
+        SelfCheck.finish(passed);
+    }
+
+    private boolean matches(int t, Layout layout) {
+        if (layout.lines() != expectedGlyphs[t].length) return false;
+        for (int ln = 0; ln < layout.lines(); ln++) {
+            if (!layout.getLine(ln).glyphs.equals(expectedGlyphs[t][ln])) return false;
+            if (layout.getLine(ln).width != expectedWidths[t][ln]) return false;
+        }
+        return true;
+    }
+}
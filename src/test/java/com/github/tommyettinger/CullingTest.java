@@ -0,0 +1,120 @@
+package com.github.tommyettinger;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.backends.lwjgl3.Lwjgl3ApplicationConfiguration;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Align;
+import com.badlogic.gdx.utils.FloatArray;
+import com.github.tommyettinger.textra.Font;
+import com.github.tommyettinger.textra.Layout;
+
+/**
+ * Draws a long Layout both fully and culled to many visible rectangles with
+ * {@link Font#drawGlyphs(com.badlogic.gdx.graphics.g2d.Batch, Layout, float, float, int, Rectangle)}, recording both
+ * with a {@link RecordingBatch}. Checks that the culled quads are exactly the full quads in the same order with some
+ * left out, that every quad touching the rectangle was kept, and that only a few quads outside it were drawn. Also times
+ * both ways of drawing.
+ */
+public class CullingTest extends ApplicationAdapter {
+
+    private static final int RECTANGLES = 300, RUNS = 200;
+
+    private static final String[] WORDS = {"the", "quick", "brown", "fox", "jumps", "over", "lazy", "dog", "and",
+            "[*]bold[*]", "[/]oblique[/]", "[_]underlined[_]", "[~]struck[~]", "[^]super[^]", "[.]sub[.]",
+            "[RED]red[]", "well-known", "AV", "To", "Pchnąć", "łódź", "\n"};
+
+    public static void main(String[] args){
+        Lwjgl3ApplicationConfiguration config = new Lwjgl3ApplicationConfiguration();
+        config.setTitle("textramode culling test");
+        config.setWindowedMode(400, 100);
+        config.disableAudio(true);
+        SelfCheck.launch(new CullingTest(), config);
+    }
+
+    @Override
+    public void create() {
+        Font font = new Font("Gentium.fnt", Font.DistanceFieldType.STANDARD, -1f, 0f, -4.5f, 0f).scale(0.42f, 0.42f);
+        RandomXS128 random = new RandomXS128(123456789L);
+        StringBuilder sb = new StringBuilder(1 << 15);
+        for (int i = 0; i < 2000; i++) {
+            sb.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+        }
+        Layout layout = new Layout(font).setTargetWidth(600);
+        font.markup(sb.toString(), layout);
+        final float height = layout.lines() * font.cellHeight;
+        System.out.println("The Layout has " + layout.lines() + " lines.");
+
+        RecordingBatch full = new RecordingBatch(), culled = new RecordingBatch();
+        Rectangle visible = new Rectangle();
+        int failures = 0;
+        long keptQuads = 0, touchingQuads = 0, allQuads = 0;
+        for (int r = 0; r < RECTANGLES; r++) {
+            final int align = r % 3 == 0 ? Align.left : r % 3 == 1 ? Align.center : Align.right;
+            visible.set(random.nextFloat() * 500f - 300f, 500f - random.nextFloat() * height,
+                    50f + random.nextFloat() * 250f, 20f + random.nextFloat() * 200f);
+            full.reset();
+            culled.reset();
+            font.drawGlyphs(full, layout, 0, 500, align);
+            font.drawGlyphs(culled, layout, 0, 500, align, visible);
+            final float[] a = full.vertices.items, b = culled.vertices.items;
+            final int aQuads = full.vertices.size / 20, bQuads = culled.vertices.size / 20;
+            int j = 0;
+            boolean ok = true;
+            for (int q = 0; q < aQuads && ok; q++) {
+                final boolean kept = j < bQuads && sameQuad(a, q, b, j);
+                if (kept) j++;
+                if (touches(full.vertices, q, visible)) {
+                    touchingQuads++;
+                    ok = kept;
+                }
+            }
+            if (!ok || j != bQuads) failures++;
+            keptQuads += bQuads;
+            allQuads += aQuads;
+        }
+        System.out.printf("%d failures in %d rectangles; %d quads touched a rectangle, %d were drawn, of %d total%n",
+                failures, RECTANGLES, touchingQuads, keptQuads, allQuads);
+        // the culled draw may include a glyph or so on each edge of each visible line, but no more than that
+        boolean passed = failures == 0 && keptQuads < touchingQuads * 2 + RECTANGLES * 60L;
+
+        visible.set(0, 300, 400, 200);
+        long start = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) {
+            full.reset();
+            font.drawGlyphs(full, layout, 0, 500, Align.left);
+        }
+        final long fullTime = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) {
+            culled.reset();
+            font.drawGlyphs(culled, layout, 0, 500, Align.left, visible);
+        }
+        final long culledTime = System.nanoTime() - start;
+        System.out.printf("Drawing everything: %.3f us; drawing one screen: %.3f us%n",
+                fullTime / 1e3 / RUNS, culledTime / 1e3 / RUNS);
+        font.dispose();
+        SelfCheck.finish(passed);
+    }
+
+    private static boolean sameQuad(float[] a, int q, float[] b, int j) {
+        for (int i = 0; i < 20; i++) {
+            if (a[q * 20 + i] != b[j * 20 + i]) return false;
+        }
+        return true;
+    }
+
+    private static boolean touches(FloatArray vertices, int q, Rectangle visible) {
+        float minX = Float.POSITIVE_INFINITY, minY = Float.POSITIVE_INFINITY,
+                maxX = Float.NEGATIVE_INFINITY, maxY = Float.NEGATIVE_INFINITY;
+        for (int v = 0; v < 4; v++) {
+            final float x = vertices.get(q * 20 + v * 5), y = vertices.get(q * 20 + v * 5 + 1);
+            minX = Math.min(minX, x);
+            maxX = Math.max(maxX, x);
+            minY = Math.min(minY, y);
+            maxY = Math.max(maxY, y);
+        }
+        return maxX >= visible.x && minX <= visible.x + visible.width
+                && maxY >= visible.y && minY <= visible.y + visible.height;
+    }
+}
@@ -0,0 +1,126 @@
+package com.github.tommyettinger;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.backends.lwjgl3.Lwjgl3ApplicationConfiguration;
+import com.badlogic.gdx.utils.Align;
+import com.badlogic.gdx.utils.Array;
+import com.github.tommyettinger.textra.Font;
+import com.github.tommyettinger.textra.Layout;
+import com.github.tommyettinger.textra.Line;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Checks that drawing a Layout merges the underline and strikethrough of each run of glyphs into one quad, and that it
+ * looks the same as drawing every glyph separately with {@link Font#drawGlyph(com.badlogic.gdx.graphics.g2d.Batch,
+ * long, float, float)}, which still gives each glyph its own underline and strikethrough: every glyph quad must be
+ * the same, every per-glyph line quad must lie inside a merged quad of the same color and height, and every merged
+ * quad must be covered by per-glyph quads with no gaps. Prints the quad counts.
+ */
+public class DecorationTest extends ApplicationAdapter {
+
+    private static final String TEXT = "[_]This whole paragraph is underlined, which used to need a second quad for every "
+            + "glyph in it, including the spaces between words. AVAST, To Wave![_]\n"
+            + "Some [~]struck-through[~] text, [_][~]both at once[~][_], [_]a [RED]color[] change[_], "
+            + "[_][*]bold[*] and [/]oblique[/][_], [_]super[^]script[^] and sub[.]script[.][_], and [_]łódź[_].";
+
+    public static void main(String[] args){
+        Lwjgl3ApplicationConfiguration config = new Lwjgl3ApplicationConfiguration();
+        config.setTitle("textramode decoration test");
+        config.setWindowedMode(400, 100);
+        config.disableAudio(true);
+        SelfCheck.launch(new DecorationTest(), config);
+    }
+
+    @Override
+    public void create() {
+        Font font = new Font("Gentium.fnt", Font.DistanceFieldType.STANDARD, -1f, 0f, -4.5f, 0f).scale(0.42f, 0.42f);
+        Layout layout = new Layout(font).setTargetWidth(300);
+        font.markup(TEXT, layout);
+
+        RecordingBatch merged = new RecordingBatch(), separate = new RecordingBatch();
+        font.drawGlyphs(merged, layout, 10, 400, Align.center);
+        float y = 400;
+        for (int ln = 0; ln < layout.lines(); ln++, y -= font.cellHeight) {
+            Line line = layout.getLine(ln);
+            float x = 10 - line.width * 0.5f;
+            for (int i = 0; i < line.glyphs.size; i++) {
+                final float amt = line.kerning.get(i) * font.scaleX;
+                x += font.drawGlyph(separate, line.glyphs.get(i), x + amt, y) + amt;
+            }
+        }
+
+        Map<String, Integer> counts = new HashMap<>();
+        Array<float[]> mergedQuads = quads(merged), separateQuads = quads(separate);
+        for (float[] q : mergedQuads) {
+            final String key = Arrays.toString(q);
+            final Integer c = counts.get(key);
+            counts.put(key, c == null ? 1 : c + 1);
+        }
+        Array<float[]> removed = new Array<>(), added = new Array<>();
+        for (float[] q : separateQuads) {
+            final String key = Arrays.toString(q);
+            final Integer c = counts.get(key);
+            if (c == null || c == 0) removed.add(q);
+            else counts.put(key, c - 1);
+        }
+        for (float[] q : mergedQuads) {
+            final String key = Arrays.toString(q);
+            final Integer c = counts.get(key);
+            if (c != null && c > 0) {
+                added.add(q);
+                counts.put(key, c - 1);
+            }
+        }
+
+        boolean passed = !added.isEmpty();
+        // every separate line quad is inside a merged one on the same row, with the same color and texture coordinates
+        for (float[] r : removed) {
+            boolean inside = false;
+            for (float[] a : added) {
+                if (sameRow(r, a) && r[0] >= a[0] - 1e-3f && r[10] <= a[10] + 1e-3f) {
+                    inside = true;
+                    break;
+                }
+            }
+            passed &= inside;
+        }
+        // every merged quad is covered by separate quads on its row, with no gaps
+        for (float[] a : added) {
+            float covered = a[0];
+            boolean grew = true;
+            while (grew && covered < a[10] - 1e-3f) {
+                grew = false;
+                for (float[] r : removed) {
+                    if (sameRow(r, a) && r[0] <= covered + 1e-3f && r[10] > covered) {
+                        covered = r[10];
+                        grew = true;
+                    }
+                }
+            }
+            passed &= covered >= a[10] - 1e-3f;
+        }
+        System.out.printf("Separate underlines and strikethrough: %d quads; merged: %d quads (%d line quads became %d)%n",
+                separateQuads.size, mergedQuads.size, removed.size, added.size);
+        font.dispose();
+        SelfCheck.finish(passed);
+    }
+
+    private static Array<float[]> quads(RecordingBatch batch) {
+        Array<float[]> quads = new Array<>();
+        for (int i = 0; i + 20 <= batch.vertices.size; i += 20) {
+            quads.add(Arrays.copyOfRange(batch.vertices.items, i, i + 20));
+        }
+        return quads;
+    }
+
+    private static boolean sameRow(float[] a, float[] b) {
+        for (int i = 0; i < 20; i += 5) {
+            if (a[i + 1] != b[i + 1] || a[i + 2] != b[i + 2] || a[i + 3] != b[i + 3] || a[i + 4] != b[i + 4])
+                return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,126 @@
+package com.github.tommyettinger;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.lwjgl3.Lwjgl3Application;
+import com.badlogic.gdx.backends.lwjgl3.Lwjgl3ApplicationConfiguration;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.utils.Align;
+import com.github.tommyettinger.textra.Font;
+import com.github.tommyettinger.textra.Layout;
+import com.github.tommyettinger.textra.Line;
+
+/**
+ * Times the draw path of {@link Font} on a full screen of mixed Latin and Cyrillic text, with some markup. Results are
+ * printed to stdout, and the app closes itself when done.
+ */
+public class DrawBenchmark extends ApplicationAdapter {
+
+    private static final int WARMUP = 200, RUNS = 1000;
+
+    private static final String PARAGRAPH = "The [*]quick[*] brown fox jumps over the [_]lazy[_] dog. "
+            + "[/]Съешь же ещё этих мягких французских булок[/], да выпей чаю. "
+            + "Pchnąć w tę łódź [BROWN]jeża[] lub ośm skrzyń fig. "
+            + "[~]Широкая электрификация южных губерний[~] даст мощный толчок подъёму сельского хозяйства. ";
+
+    Font font;
+    SpriteBatch batch;
+    Layout layout;
+    long sink;
+
+    public static void main(String[] args){
+        Lwjgl3ApplicationConfiguration config = new Lwjgl3ApplicationConfiguration();
+        config.setTitle("textramode draw benchmark");
+        config.setWindowedMode(1280, 720);
+        config.disableAudio(true);
+        config.useVsync(false);
+        new Lwjgl3Application(new DrawBenchmark(), config);
+    }
+
+    @Override
+    public void create() {
+        batch = new SpriteBatch(8000);
+        font = new Font("Gentium.fnt", Font.DistanceFieldType.STANDARD, -1f, 0f, -4.5f, 0f).scale(0.42f, 0.42f);
+        layout = new Layout(font).setTargetWidth(Gdx.graphics.getWidth());
+        layout.setMaxLines((int) (Gdx.graphics.getHeight() / font.cellHeight));
+        StringBuilder sb = new StringBuilder(PARAGRAPH.length() * 24);
+        for (int i = 0; i < 24; i++) {
+            sb.append(PARAGRAPH).append('\n');
+        }
+        font.markup(sb.toString(), layout);
+
+        glyphLookup();
+        drawLayout();
+        Gdx.app.exit();
+    }
+
+    /**
+     * Compares looking up every glyph on the screen in {@link Font#mapping} with using {@link Font#getGlyph(char)}.
+     */
+    private void glyphLookup() {
+        for (int i = 0; i < WARMUP; i++) {
+            sink += lookupMapping() + lookupTable();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) {
+            sink += lookupMapping();
+        }
+        long mapping = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) {
+            sink += lookupTable();
+        }
+        long table = System.nanoTime() - start;
+        System.out.printf("Glyph lookup per screen: IntMap %.2f us, paged table %.2f us%n",
+                mapping / 1000.0 / RUNS, table / 1000.0 / RUNS);
+    }
+
+    private int lookupMapping() {
+        int found = 0;
+        for (int ln = 0, lines = layout.lines(); ln < lines; ln++) {
+            Line line = layout.getLine(ln);
+            for (int i = 0, n = line.glyphs.size; i < n; i++) {
+                if (font.mapping.get((char) line.glyphs.get(i)) != null) found++;
+            }
+        }
+        return found;
+    }
+
+    private int lookupTable() {
+        int found = 0;
+        for (int ln = 0, lines = layout.lines(); ln < lines; ln++) {
+            Line line = layout.getLine(ln);
+            for (int i = 0, n = line.glyphs.size; i < n; i++) {
+                if (font.getGlyph((char) line.glyphs.get(i)) != null) found++;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Times {@link Font#drawGlyphs(com.badlogic.gdx.graphics.g2d.Batch, Layout, float, float, int)} on the full
+     * screen of text, including the cost of flushing the SpriteBatch.
+     */
+    private void drawLayout() {
+        float y = Gdx.graphics.getHeight() - font.cellHeight;
+        for (int i = 0; i < WARMUP; i++) {
+            batch.begin();
+            sink += font.drawGlyphs(batch, layout, 0, y, Align.left);
+            batch.end();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) {
+            batch.begin();
+            sink += font.drawGlyphs(batch, layout, 0, y, Align.left);
+            batch.end();
+        }
+        System.out.printf("drawGlyphs per screen: %.2f us%n", (System.nanoTime() - start) / 1000.0 / RUNS);
+    }
+
+    @Override
+    public void dispose() {
+        System.out.println("(ignore) " + sink);
+        batch.dispose();
+        font.dispose();
+    }
+}
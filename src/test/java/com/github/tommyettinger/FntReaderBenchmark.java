@@ -0,0 +1,260 @@
+package com.github.tommyettinger;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.backends.lwjgl3.Lwjgl3ApplicationConfiguration;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntMap;
+import com.github.tommyettinger.textra.FntReader;
+import com.github.tommyettinger.textra.Font;
+import com.github.tommyettinger.textra.KerningTable;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Compares {@link FntReader}, which Font now uses to read .fnt files, to the parser Font used before, which read the
+ * whole file into a String and searched it with indexOf() for each attribute in a fixed order. Both build the same
+ * GlyphRegions and kerning from a synthesized .fnt file with 30000 chars (mostly CJK) and 3000 kerning pairs, and are
+ * timed and measured for how many bytes they allocate. Also checks that both parsers read the same glyphs, and that a
+ * Font loaded from a second file with the same records, but with attributes shuffled, extra attributes, and CRLF line
+ * endings, has the same glyphs as one loaded from the first. Results are printed to stdout, and the app closes itself
+ * when done.
+ */
+public class FntReaderBenchmark extends ApplicationAdapter {
+
+    private static final int CHARS = 30000, KERNINGS = 3000, WARMUP = 10, RUNS = 20;
+
+    public static void main(String[] args){
+        Lwjgl3ApplicationConfiguration config = new Lwjgl3ApplicationConfiguration();
+        config.setTitle("textramode .fnt reader benchmark");
+        config.setWindowedMode(400, 100);
+        config.disableAudio(true);
+        SelfCheck.launch(new FntReaderBenchmark(), config);
+    }
+
+    @Override
+    public void create() {
+        Texture texture = new Texture("Gentium1.png");
+        Array<TextureRegion> pages = Array.with(new TextureRegion(texture));
+        FileHandle ordered = FileHandle.tempFile("textramode"), shuffled = FileHandle.tempFile("textramode");
+        ordered.writeString(synthesize(false), false, "UTF8");
+        shuffled.writeString(synthesize(true), false, "UTF8");
+        System.out.printf("Synthesized a .fnt file with %d chars and %d kerning pairs: %d KiB%n",
+                CHARS, KERNINGS, ordered.length() >> 10);
+
+        IntMap<Font.GlyphRegion> expected = new IntMap<>();
+        KerningTable expectedKerning = parseString(ordered, pages, expected);
+        IntMap<Font.GlyphRegion> actual = new IntMap<>();
+        boolean passed = expected.size == CHARS && same(expected, expectedKerning, actual, parseStream(ordered, pages, actual));
+        Font font = new Font(ordered.file().getAbsolutePath(), pages, 0f, 0f, 0f, 0f),
+                shuffledFont = new Font(shuffled.file().getAbsolutePath(), pages, 0f, 0f, 0f, 0f);
+        passed &= font.mapping.size == CHARS && same(font.mapping, font.kerning, shuffledFont.mapping, shuffledFont.kerning);
+        System.out.println(passed ? "Both parsers and both files gave the same glyphs and kerning."
+                : "FAIL: the parsers or files gave different glyphs or kerning.");
+
+        for (int i = 0; i < WARMUP; i++) {
+            parseString(ordered, pages, new IntMap<Font.GlyphRegion>());
+            parseStream(ordered, pages, new IntMap<Font.GlyphRegion>());
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) parseString(ordered, pages, new IntMap<Font.GlyphRegion>());
+        final long stringTime = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) parseStream(ordered, pages, new IntMap<Font.GlyphRegion>());
+        final long streamTime = System.nanoTime() - start;
+        System.out.printf("Parsing: String and indexOf() %.3f ms, FntReader %.3f ms%n",
+                stringTime / 1e6 / RUNS, streamTime / 1e6 / RUNS);
+
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+            long id = Thread.currentThread().getId();
+            long before = threads.getThreadAllocatedBytes(id);
+            parseString(ordered, pages, new IntMap<Font.GlyphRegion>());
+            final long stringBytes = threads.getThreadAllocatedBytes(id) - before;
+            before = threads.getThreadAllocatedBytes(id);
+            parseStream(ordered, pages, new IntMap<Font.GlyphRegion>());
+            final long streamBytes = threads.getThreadAllocatedBytes(id) - before;
+            System.out.printf("Allocated, including the GlyphRegions: String and indexOf() %d KiB, FntReader %d KiB%n",
+                    stringBytes >> 10, streamBytes >> 10);
+        }
+
+        ordered.delete();
+        shuffled.delete();
+        texture.dispose();
+        SelfCheck.finish(passed);
+    }
+
+    private static String synthesize(boolean shuffle) {
+        RandomXS128 random = new RandomXS128(123456789L), shuffler = new RandomXS128(987654321L);
+        String newline = shuffle ? "\r\n" : "\n";
+        StringBuilder sb = new StringBuilder(CHARS * 100);
+        sb.append("info face=\"Synthetic CJK\" size=32 bold=0 italic=0 charset=\"\" unicode=1 stretchH=100 smooth=1 aa=1 "
+                + "padding=0,0,0,0 spacing=1,1").append(newline);
+        if (shuffle) sb.append("common pages=1 packed=0 scaleH=2048 scaleW=2048 base=26 lineHeight=32").append(newline)
+                .append("page file=\"Gentium1.png\" id=0").append(newline);
+        else sb.append("common lineHeight=32 base=26 scaleW=2048 scaleH=2048 pages=1 packed=0").append(newline)
+                .append("page id=0 file=\"Gentium1.png\"").append(newline);
+        sb.append("chars count=").append(CHARS).append(newline);
+        String[] attributes = {"x", "y", "width", "height", "xoffset", "yoffset", "xadvance", "page"};
+        int[] values = new int[8];
+        for (int i = 0; i < CHARS; i++) {
+            int c = i < 95 ? 32 + i : 0x4E00 + i;
+            values[0] = random.nextInt(2000);
+            values[1] = random.nextInt(2000);
+            values[2] = random.nextInt(33);
+            values[3] = random.nextInt(33);
+            values[4] = random.nextInt(5) - 2;
+            values[5] = random.nextInt(9) - 2;
+            values[6] = 8 + random.nextInt(26);
+            values[7] = 0;
+            if (shuffle) {
+                int[] order = {0, 1, 2, 3, 4, 5, 6, 7, 8};
+                for (int j = order.length - 1; j > 0; j--) {
+                    final int k = shuffler.nextInt(j + 1), t = order[j];
+                    order[j] = order[k];
+                    order[k] = t;
+                }
+                sb.append("char  ");
+                for (int o : order) {
+                    if (o == 8) sb.append("id=").append(c).append(" letter=\"x y\" ");
+                    else sb.append(attributes[o]).append('=').append(values[o]).append("  ");
+                }
+                sb.append("chnl=15").append(newline);
+            } else {
+                sb.append("char id=").append(c);
+                for (int j = 0; j < 8; j++) {
+                    sb.append(' ').append(attributes[j]).append('=').append(values[j]);
+                }
+                sb.append(" chnl=15").append(newline);
+            }
+        }
+        sb.append("kernings count=").append(KERNINGS).append(newline);
+        for (int i = 0; i < KERNINGS; i++) {
+            int first = 32 + random.nextInt(95), second = 32 + random.nextInt(95), amount = random.nextInt(9) - 6;
+            if (shuffle) sb.append("kerning amount=").append(amount).append(" second=").append(second)
+                    .append(" first=").append(first).append(newline);
+            else sb.append("kerning first=").append(first).append(" second=").append(second)
+                    .append(" amount=").append(amount).append(newline);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * The parser Font used before FntReader, with the texture loading left out.
+     */
+    private static KerningTable parseString(FileHandle fntHandle, Array<TextureRegion> parents,
+                                            IntMap<Font.GlyphRegion> mapping) {
+        String fnt = fntHandle.readString("UTF8");
+        int idx = indexAfter(fnt, " pages=", 0);
+        int pages = intFromDec(fnt, idx, idx = indexAfter(fnt, "\npage id=", idx));
+        for (int i = 0; i < pages; i++) {
+            fnt.substring(idx = indexAfter(fnt, "file=\"", idx), idx = fnt.indexOf('"', idx));
+        }
+        int size = intFromDec(fnt, idx = indexAfter(fnt, "\nchars count=", idx), idx = indexAfter(fnt, "\nchar id=", idx));
+        mapping.ensureCapacity(size);
+        for (int i = 0; i < size; i++) {
+            int c = intFromDec(fnt, idx, idx = indexAfter(fnt, " x=", idx));
+            int x = intFromDec(fnt, idx, idx = indexAfter(fnt, " y=", idx));
+            int y = intFromDec(fnt, idx, idx = indexAfter(fnt, " width=", idx));
+            int w = intFromDec(fnt, idx, idx = indexAfter(fnt, " height=", idx));
+            int h = intFromDec(fnt, idx, idx = indexAfter(fnt, " xoffset=", idx));
+            int xo = intFromDec(fnt, idx, idx = indexAfter(fnt, " yoffset=", idx));
+            int yo = intFromDec(fnt, idx, idx = indexAfter(fnt, " xadvance=", idx));
+            int a = intFromDec(fnt, idx, idx = indexAfter(fnt, " page=", idx));
+            int p = intFromDec(fnt, idx, idx = indexAfter(fnt, "\nchar id=", idx));
+            Font.GlyphRegion gr = new Font.GlyphRegion(parents.get(p), x, y, w, h);
+            gr.offsetX = xo;
+            gr.offsetY = yo;
+            gr.xAdvance = a;
+            mapping.put(c, gr);
+        }
+        KerningTable kerning = null;
+        idx = indexAfter(fnt, "\nkernings count=", 0);
+        if (idx < fnt.length()) {
+            int kernings = intFromDec(fnt, idx, idx = indexAfter(fnt, "\nkerning first=", idx));
+            kerning = new KerningTable(kernings);
+            for (int i = 0; i < kernings; i++) {
+                int first = intFromDec(fnt, idx, idx = indexAfter(fnt, " second=", idx));
+                int second = intFromDec(fnt, idx, idx = indexAfter(fnt, " amount=", idx));
+                int amount = intFromDec(fnt, idx, idx = indexAfter(fnt, "\nkerning first=", idx));
+                kerning.put(first << 16 | second, amount);
+            }
+        }
+        return kerning;
+    }
+
+    private static KerningTable parseStream(FileHandle fntHandle, Array<TextureRegion> parents,
+                                            IntMap<Font.GlyphRegion> mapping) {
+        KerningTable kerning = null;
+        FntReader reader = new FntReader(fntHandle.read());
+        try {
+            for (int record = reader.next(); record != FntReader.END; record = reader.next()) {
+                switch (record) {
+                    case FntReader.CHARS:
+                        mapping.ensureCapacity(reader.count);
+                        break;
+                    case FntReader.CHAR:
+                        Font.GlyphRegion gr = new Font.GlyphRegion(parents.get(reader.page), reader.x, reader.y,
+                                reader.width, reader.height);
+                        gr.offsetX = reader.xoffset;
+                        gr.offsetY = reader.yoffset;
+                        gr.xAdvance = reader.xadvance;
+                        mapping.put(reader.id, gr);
+                        break;
+                    case FntReader.KERNINGS:
+                        kerning = new KerningTable(reader.count);
+                        break;
+                    case FntReader.KERNING:
+                        kerning.put(reader.first << 16 | reader.second, reader.amount);
+                        break;
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        return kerning;
+    }
+
+    private static boolean same(IntMap<Font.GlyphRegion> expected, KerningTable expectedKerning,
+                                IntMap<Font.GlyphRegion> actual, KerningTable actualKerning) {
+        if (expected.size != actual.size || expectedKerning.size != actualKerning.size) return false;
+        for (IntMap.Entry<Font.GlyphRegion> e : expected) {
+            Font.GlyphRegion g = e.value, o = actual.get(e.key);
+            if (o == null || o.getRegionX() != g.getRegionX() || o.getRegionY() != g.getRegionY()
+                    || o.getRegionWidth() != g.getRegionWidth() || o.getRegionHeight() != g.getRegionHeight()
+                    || o.offsetX != g.offsetX || o.offsetY != g.offsetY || o.xAdvance != g.xAdvance
+                    || o.getTexture() != g.getTexture())
+                return false;
+        }
+        for (int first = 32; first < 127; first++) {
+            for (int second = 32; second < 127; second++) {
+                final int pair = first << 16 | second;
+                if (expectedKerning.get(pair, 0) != actualKerning.get(pair, 0)) return false;
+            }
+        }
+        return true;
+    }
+
+    private static int indexAfter(String text, String search, int from) {
+        return ((from = text.indexOf(search, from)) < 0 ? text.length() : from + search.length());
+    }
+
+    private static int intFromDec(final CharSequence cs, final int start, int end) {
+        int sign = 1, data = 0, i = start;
+        if (start >= end || start >= cs.length()) return 0;
+        char c = cs.charAt(i);
+        if (c == '-' || c == '+') {
+            sign = c == '-' ? -1 : 1;
+            i++;
+        }
+        for (; i < end && i < start + 11 && (c = cs.charAt(i)) >= '0' && c <= '9'; i++) {
+            data = data * 10 + c - '0';
+        }
+        return data * sign;
+    }
+}
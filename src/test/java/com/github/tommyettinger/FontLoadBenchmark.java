@@ -0,0 +1,64 @@
+package com.github.tommyettinger;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.lwjgl3.Lwjgl3Application;
+import com.badlogic.gdx.backends.lwjgl3.Lwjgl3ApplicationConfiguration;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Array;
+import com.github.tommyettinger.textra.Font;
+
+/**
+ * Compares how long it takes to load each .fnt file in the test resources using the text parser against loading the
+ * same font after compiling it with {@link Font#compileFNT(FileHandle, FileHandle, float, float, float, float)}.
+ * Textures are loaded once per font and shared by every timed load, so only glyph and kerning parsing is measured.
+ * Results are printed to stdout, and the app closes itself when done.
+ */
+public class FontLoadBenchmark extends ApplicationAdapter {
+
+    private static final int WARMUP = 20, RUNS = 50;
+
+    public static void main(String[] args){
+        Lwjgl3ApplicationConfiguration config = new Lwjgl3ApplicationConfiguration();
+        config.setTitle("textramode font loading benchmark");
+        config.setWindowedMode(400, 100);
+        config.disableAudio(true);
+        new Lwjgl3Application(new FontLoadBenchmark(), config);
+    }
+
+    @Override
+    public void create() {
+        System.out.printf("%-36s %10s %10s %10s %8s%n", "font", "text (us)", "binary (us)", "bytes", "speedup");
+        for (FileHandle fnt : Gdx.files.internal(".").list(".fnt")) {
+            Array<TextureRegion> pages;
+            try {
+                pages = new Font(fnt.path()).parents;
+            } catch (RuntimeException e) {
+                System.out.println("Skipping " + fnt.name() + ": " + e.getMessage());
+                continue;
+            }
+            FileHandle compiled = FileHandle.tempFile("textramode");
+            Font.compileFNT(fnt, compiled, 0f, 0f, 0f, 0f);
+
+            for (int i = 0; i < WARMUP; i++) {
+                new Font(fnt.path(), pages, 0f, 0f, 0f, 0f);
+                new Font(compiled, pages, Font.DistanceFieldType.STANDARD);
+            }
+            long start = System.nanoTime();
+            for (int i = 0; i < RUNS; i++) {
+                new Font(fnt.path(), pages, 0f, 0f, 0f, 0f);
+            }
+            long text = (System.nanoTime() - start) / RUNS;
+            start = System.nanoTime();
+            for (int i = 0; i < RUNS; i++) {
+                new Font(compiled, pages, Font.DistanceFieldType.STANDARD);
+            }
+            long binary = (System.nanoTime() - start) / RUNS;
+            System.out.printf("%-36s %10d %10d %10d %7.2fx%n", fnt.name(), text / 1000, binary / 1000,
+                    compiled.length(), text / (double) binary);
+            compiled.delete();
+        }
+        Gdx.app.exit();
+    }
+}
@@ -0,0 +1,100 @@
+package com.github.tommyettinger;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.backends.lwjgl3.Lwjgl3ApplicationConfiguration;
+import com.badlogic.gdx.utils.Align;
+import com.github.tommyettinger.textra.Font;
+import com.github.tommyettinger.textra.FontRegistry;
+import com.github.tommyettinger.textra.Layout;
+
+/**
+ * Checks that a {@link FontRegistry} loads each source once, that the Fonts it hands out share their glyphs but draw
+ * exactly like Fonts loaded on their own, even when scaled separately, that changing one Font's glyphs copies them
+ * instead of changing the others, and that the registry counts references correctly as Fonts are disposed. Then times
+ * getting a Font from the registry against copying one with {@link Font#Font(Font)}.
+ */
+public class FontRegistryTest extends ApplicationAdapter {
+
+    private static final int COPIES = 200;
+
+    private static final String TEXT = "[_]Shared[_] glyphs, [*]AVAST[*] To Wave! [RED]łódź[] and [/]Pchnąć[/], "
+            + "[~]well-known[~] 0123456789.";
+
+    public static void main(String[] args){
+        Lwjgl3ApplicationConfiguration config = new Lwjgl3ApplicationConfiguration();
+        config.setTitle("textramode font registry test");
+        config.setWindowedMode(400, 100);
+        config.disableAudio(true);
+        SelfCheck.launch(new FontRegistryTest(), config);
+    }
+
+    @Override
+    public void create() {
+        FontRegistry registry = new FontRegistry();
+        Font a = registry.obtain("Gentium.fnt", Font.DistanceFieldType.STANDARD, -1f, 0f, -4.5f, 0f);
+        Font b = registry.obtain("Gentium.fnt", Font.DistanceFieldType.STANDARD, -1f, 0f, -4.5f, 0f);
+        Font c = registry.obtain("Gentium.fnt");
+        boolean passed = registry.getLoadedCount() == 2 && registry.getReferenceCount(a) == 2
+                && a.mapping == b.mapping && a.kerning == b.kerning && a.parents == b.parents
+                && a.getMetrics().regions == b.getMetrics().regions && c.mapping != a.mapping;
+        System.out.println("After obtaining 3 Fonts: " + registry.getLoadedCount() + " loaded, "
+                + registry.getReferenceCount(a) + " references to the first.");
+
+        Font alone = new Font("Gentium.fnt", Font.DistanceFieldType.STANDARD, -1f, 0f, -4.5f, 0f).scale(0.42f, 0.42f),
+                wide = new Font("Gentium.fnt", Font.DistanceFieldType.STANDARD, -1f, 0f, -4.5f, 0f).scale(0.75f, 0.5f);
+        a.scale(0.42f, 0.42f);
+        b.scale(0.75f, 0.5f);
+        passed &= sameDrawing(a, alone) && sameDrawing(b, wide) && !sameDrawing(b, alone);
+
+        // changing one Font's glyphs must not change the others
+        b.putGlyph('A', b.getGlyph('V'));
+        passed &= b.mapping != a.mapping && b.getGlyph('A') != a.getGlyph('A') && !sameDrawing(b, wide)
+                && sameDrawing(a, alone);
+
+        b.dispose();
+        b.dispose();
+        passed &= registry.getReferenceCount(a) == 1 && registry.getLoadedCount() == 2;
+        a.dispose();
+        passed &= registry.getLoadedCount() == 1;
+        c.dispose();
+        passed &= registry.getLoadedCount() == 0;
+        System.out.println("After disposing them: " + registry.getLoadedCount() + " loaded.");
+
+        Font d = registry.obtainDefault(), e = registry.obtainDefault();
+        passed &= registry.getLoadedCount() == 1 && d.mapping == e.mapping;
+        d.dispose();
+        e.dispose();
+        passed &= registry.getLoadedCount() == 0;
+
+        Font base = registry.obtain("Gentium.fnt");
+        Font[] fonts = new Font[COPIES];
+        long start = System.nanoTime();
+        for (int i = 0; i < COPIES; i++) {
+            fonts[i] = new Font(base);
+        }
+        final long copyTime = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (int i = 0; i < COPIES; i++) {
+            fonts[i] = registry.obtain("Gentium.fnt");
+        }
+        final long shareTime = System.nanoTime() - start;
+        System.out.printf("Copying with new Font(Font): %.3f us each; obtaining from the registry: %.3f us each%n",
+                copyTime / 1e3 / COPIES, shareTime / 1e3 / COPIES);
+        passed &= registry.getReferenceCount(base) == COPIES + 1;
+        registry.dispose();
+        alone.dispose();
+        wide.dispose();
+        SelfCheck.finish(passed);
+    }
+
+    private static boolean sameDrawing(Font first, Font second) {
+        RecordingBatch one = new RecordingBatch(), two = new RecordingBatch();
+        Layout layout = new Layout(first).setTargetWidth(300);
+        first.markup(TEXT, layout);
+        first.drawGlyphs(one, layout, 10, 400, Align.center);
+        layout = new Layout(second).setTargetWidth(300);
+        second.markup(TEXT, layout);
+        second.drawGlyphs(two, layout, 10, 400, Align.center);
+        return one.vertices.equals(two.vertices);
+    }
+}
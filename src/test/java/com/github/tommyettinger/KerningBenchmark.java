@@ -0,0 +1,234 @@
+package com.github.tommyettinger;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.lwjgl3.Lwjgl3ApplicationConfiguration;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.IntIntMap;
+import com.github.tommyettinger.textra.Font;
+import com.github.tommyettinger.textra.KerningTable;
+
+/**
+ * Compares {@link KerningTable} to libGDX's IntIntMap, which Font used to store kerning in, on every kerned font in the
+ * test resources: how long building each takes from the pairs in the .fnt file and from the kerning pages of a
+ * {@link BitmapFont}, and how long looking up pairs takes, both for the pairs in sample text (mostly not kerned) and
+ * for every kerned pair. A KerningTable is built from a BitmapFont both by letting it grow and by counting the pairs
+ * first to size it, as Font does. Also checks that both give the same amount for every pair looked up, and that the
+ * kerning of a Font loaded from the file or from the BitmapFont matches the file. Results are printed to stdout, and
+ * the app closes itself when done.
+ */
+public class KerningBenchmark extends ApplicationAdapter {
+
+    private static final String[] FONTS = {"Gentium.fnt", "Gentium-sdf.fnt", "LibertinusSerif.fnt", "OpenSans.fnt"};
+
+    private static final int WARMUP = 50, RUNS = 200;
+
+    private static final String TEXT = "AVAST, To Wave! The quick brown fox jumps over the lazy dog. \"Yo,\" LT Ty Pa. "
+            + "Pchnąć w tę łódź jeża lub ośm skrzyń fig. Falsches Üben von Xylophonmusik quält jeden größeren Zwerg.";
+
+    public static void main(String[] args){
+        Lwjgl3ApplicationConfiguration config = new Lwjgl3ApplicationConfiguration();
+        config.setTitle("textramode kerning benchmark");
+        config.setWindowedMode(400, 100);
+        config.disableAudio(true);
+        SelfCheck.launch(new KerningBenchmark(), config);
+    }
+
+    @Override
+    public void create() {
+        boolean passed = true;
+        RandomXS128 random = new RandomXS128(123456789L);
+        for (String name : FONTS) {
+            IntArray pairs = new IntArray(), amounts = new IntArray();
+            FileHandle file = Gdx.files.internal(name);
+            if (!file.exists()) file = Gdx.files.classpath(name);
+            readPairs(file.readString("UTF8"), pairs, amounts);
+            IntIntMap map = buildMap(pairs, amounts);
+            KerningTable table = buildTable(pairs, amounts);
+
+            // lookups in the order text would do them, plus every kerned pair in a random order
+            int[] textKeys = new int[TEXT.length() - 1], allKeys = pairs.toArray();
+            for (int i = 1; i < TEXT.length(); i++) {
+                textKeys[i - 1] = TEXT.charAt(i - 1) << 16 | TEXT.charAt(i);
+            }
+            for (int i = allKeys.length - 1; i > 0; i--) {
+                final int j = random.nextInt(i + 1), t = allKeys[i];
+                allKeys[i] = allKeys[j];
+                allKeys[j] = t;
+            }
+            passed &= table.size == map.size;
+            for (int key : textKeys) passed &= table.get(key, 0) == map.get(key, 0);
+            for (int key : allKeys) passed &= table.get(key, 0) == map.get(key, 0);
+            Font font = new Font(name);
+            for (int key : allKeys) passed &= font.kerning.get(key, 0) == map.get(key, 0);
+            font.dispose();
+
+            // libGDX can't parse every .fnt file that Font can, so some fonts skip the BitmapFont comparison
+            BitmapFont bmFont = null;
+            try {
+                bmFont = new BitmapFont(file);
+                final int kerned = scanMap(bmFont).size;
+                passed &= scanTable(bmFont, false).size == kerned && scanTable(bmFont, true).size == kerned;
+                Font fromBitmap = new Font(bmFont, Font.DistanceFieldType.STANDARD, 0, 0, 0, 0);
+                passed &= fromBitmap.kerning.size == kerned;
+                for (int key : allKeys) passed &= fromBitmap.kerning.get(key, 0) == map.get(key, 0);
+            } catch (GdxRuntimeException ignored) {
+            }
+
+            for (int i = 0; i < WARMUP; i++) {
+                buildMap(pairs, amounts);
+                buildTable(pairs, amounts);
+                if (bmFont != null) {
+                    scanMap(bmFont);
+                    scanTable(bmFont, false);
+                    scanTable(bmFont, true);
+                }
+                sumMap(map, textKeys);
+                sumTable(table, textKeys);
+                sumMap(map, allKeys);
+                sumTable(table, allKeys);
+            }
+            long start = System.nanoTime();
+            for (int i = 0; i < RUNS; i++) buildMap(pairs, amounts);
+            final long buildMap = System.nanoTime() - start;
+            start = System.nanoTime();
+            for (int i = 0; i < RUNS; i++) buildTable(pairs, amounts);
+            final long buildTable = System.nanoTime() - start;
+            long scanMap = 0, scanTable = 0, scanCounted = 0;
+            if (bmFont != null) {
+                start = System.nanoTime();
+                for (int i = 0; i < RUNS; i++) scanMap(bmFont);
+                scanMap = System.nanoTime() - start;
+                start = System.nanoTime();
+                for (int i = 0; i < RUNS; i++) scanTable(bmFont, false);
+                scanTable = System.nanoTime() - start;
+                start = System.nanoTime();
+                for (int i = 0; i < RUNS; i++) scanTable(bmFont, true);
+                scanCounted = System.nanoTime() - start;
+            }
+            long sum = 0;
+            start = System.nanoTime();
+            for (int i = 0; i < RUNS * 20; i++) sum += sumMap(map, textKeys);
+            final long textMap = System.nanoTime() - start;
+            start = System.nanoTime();
+            for (int i = 0; i < RUNS * 20; i++) sum -= sumTable(table, textKeys);
+            final long textTable = System.nanoTime() - start;
+            start = System.nanoTime();
+            for (int i = 0; i < RUNS; i++) sum += sumMap(map, allKeys);
+            final long allMap = System.nanoTime() - start;
+            start = System.nanoTime();
+            for (int i = 0; i < RUNS; i++) sum -= sumTable(table, allKeys);
+            final long allTable = System.nanoTime() - start;
+            passed &= sum == 0;
+            if (bmFont != null) bmFont.dispose();
+
+            System.out.printf("%-20s %5d pairs; IntIntMap / KerningTable:%n", name, pairs.size);
+            System.out.printf("    build from .fnt pairs   %9.3f us / %9.3f us%n", buildMap / 1e3 / RUNS, buildTable / 1e3 / RUNS);
+            if (bmFont != null)
+                System.out.printf("    build from BitmapFont   %9.3f us / %9.3f us, or %9.3f us counting pairs first%n",
+                        scanMap / 1e3 / RUNS, scanTable / 1e3 / RUNS, scanCounted / 1e3 / RUNS);
+            System.out.printf("    get, sample text        %9.3f ns / %9.3f ns%n",
+                    textMap / (double) RUNS / 20 / textKeys.length, textTable / (double) RUNS / 20 / textKeys.length);
+            System.out.printf("    get, every kerned pair  %9.3f ns / %9.3f ns%n",
+                    allMap / (double) RUNS / allKeys.length, allTable / (double) RUNS / allKeys.length);
+        }
+        SelfCheck.finish(passed);
+    }
+
+    private static void readPairs(String fnt, IntArray pairs, IntArray amounts) {
+        for (String line : fnt.split("\n")) {
+            if (!line.startsWith("kerning ")) continue;
+            int first = 0, second = 0, amount = 0;
+            for (String part : line.trim().split(" +")) {
+                if (part.startsWith("first=")) first = Integer.parseInt(part.substring(6));
+                else if (part.startsWith("second=")) second = Integer.parseInt(part.substring(7));
+                else if (part.startsWith("amount=")) amount = Integer.parseInt(part.substring(7));
+            }
+            pairs.add(first << 16 | second);
+            amounts.add(amount);
+        }
+    }
+
+    private static IntIntMap buildMap(IntArray pairs, IntArray amounts) {
+        IntIntMap map = new IntIntMap(pairs.size);
+        for (int i = 0; i < pairs.size; i++) {
+            map.put(pairs.get(i), amounts.get(i));
+        }
+        return map;
+    }
+
+    private static KerningTable buildTable(IntArray pairs, IntArray amounts) {
+        KerningTable table = new KerningTable(pairs.size);
+        for (int i = 0; i < pairs.size; i++) {
+            table.put(pairs.get(i), amounts.get(i));
+        }
+        return table;
+    }
+
+    private static IntIntMap scanMap(BitmapFont bmFont) {
+        IntIntMap map = new IntIntMap(128);
+        for (BitmapFont.Glyph[] page : bmFont.getData().glyphs) {
+            if (page == null) continue;
+            for (BitmapFont.Glyph glyph : page) {
+                if (glyph == null || glyph.kerning == null) continue;
+                for (int b = 0; b < glyph.kerning.length; b++) {
+                    final byte[] kern = glyph.kerning[b];
+                    if (kern == null) continue;
+                    for (int i = 0; i < 512; i++) {
+                        if (kern[i] != 0) map.put(glyph.id << 16 | (b << 9 | i), kern[i]);
+                    }
+                }
+            }
+        }
+        return map;
+    }
+
+    private static KerningTable scanTable(BitmapFont bmFont, boolean counted) {
+        int kerned = 0;
+        if (counted) {
+            for (BitmapFont.Glyph[] page : bmFont.getData().glyphs) {
+                if (page == null) continue;
+                for (BitmapFont.Glyph glyph : page) {
+                    if (glyph == null || glyph.kerning == null) continue;
+                    for (byte[] kern : glyph.kerning) {
+                        if (kern == null) continue;
+                        for (int i = 0; i < 512; i++) {
+                            if (kern[i] != 0) kerned++;
+                        }
+                    }
+                }
+            }
+        }
+        KerningTable table = counted ? new KerningTable(kerned) : new KerningTable();
+        for (BitmapFont.Glyph[] page : bmFont.getData().glyphs) {
+            if (page == null) continue;
+            for (BitmapFont.Glyph glyph : page) {
+                if (glyph == null || glyph.kerning == null) continue;
+                for (int b = 0; b < glyph.kerning.length; b++) {
+                    final byte[] kern = glyph.kerning[b];
+                    if (kern == null) continue;
+                    for (int i = 0; i < 512; i++) {
+                        if (kern[i] != 0) table.put(glyph.id << 16 | (b << 9 | i), kern[i]);
+                    }
+                }
+            }
+        }
+        return table;
+    }
+
+    private static long sumMap(IntIntMap map, int[] keys) {
+        long sum = 0;
+        for (int key : keys) sum += map.get(key, 0);
+        return sum;
+    }
+
+    private static long sumTable(KerningTable table, int[] keys) {
+        long sum = 0;
+        for (int key : keys) sum += table.get(key, 0);
+        return sum;
+    }
+}
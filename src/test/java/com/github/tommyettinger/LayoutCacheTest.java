@@ -0,0 +1,96 @@
+package com.github.tommyettinger;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.lwjgl3.Lwjgl3Application;
+import com.badlogic.gdx.backends.lwjgl3.Lwjgl3ApplicationConfiguration;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Align;
+import com.github.tommyettinger.textra.Font;
+import com.github.tommyettinger.textra.Layout;
+import com.github.tommyettinger.textra.LayoutCache;
+
+/**
+ * Checks that a {@link LayoutCache} produces exactly the same vertices as drawing its Layout directly, using a
+ * {@link RecordingBatch} for both, then shows the cached text moving and changing tint.
+ */
+public class LayoutCacheTest extends ApplicationAdapter {
+
+    private static final String TEXT = "Fonts can be rendered normally, but using [[tags], you can..."
+            + "\n[#E74200]...use CSS-style hex colors like #E74200..."
+            + "\n[FOREST]...use named colors from the Colors class, like FOREST...[]"
+            + "\nNormal, [*]bold[*], [/]oblique[/] (like italic), [*][/]bold oblique[],"
+            + "\n[_]underline (even for multiple words)[_], [~]strikethrough (same)[],"
+            + "\nvarious heights: [.]sub-[.], [=]mid-[=], and [^]super-[^]script,"
+            + "\ncapitalization changes: [;]Each cap, [,]All lower, [!]Caps lock[],"
+            + "\nUnicode support: Pchnąć w tę łódź [BROWN]jeża[] lub ośm skrzyń [PURPLE]fig[].";
+
+    Font font;
+    SpriteBatch batch;
+    Layout layout;
+    LayoutCache cache;
+    final Color tint = new Color();
+
+    public static void main(String[] args){
+        Lwjgl3ApplicationConfiguration config = new Lwjgl3ApplicationConfiguration();
+        config.setTitle("textramode LayoutCache test");
+        config.setWindowedMode(800, 400);
+        config.disableAudio(true);
+        config.useVsync(true);
+        new Lwjgl3Application(new LayoutCacheTest(), config);
+    }
+
+    @Override
+    public void create() {
+        batch = new SpriteBatch();
+        compare("Gentium.fnt", new Font("Gentium.fnt", Font.DistanceFieldType.STANDARD, -1f, 0f, -4.5f, 0f).scale(0.42f, 0.42f));
+        compare("LibertinusSerif-Regular-msdf.fnt", new Font("LibertinusSerif-Regular-msdf.fnt", Font.DistanceFieldType.MSDF, 5, 0, -2, 0).scaleTo(165, 40));
+        compare("Iosevka-distance.fnt", new Font("Iosevka-distance.fnt", "Iosevka-distance.png", Font.DistanceFieldType.SDF, 0, 0, 0, 0).scaleTo(7f, 19f));
+
+        font = new Font("Gentium.fnt", Font.DistanceFieldType.STANDARD, -1f, 0f, -4.5f, 0f).scale(0.42f, 0.42f).setTextureFilter();
+        layout = new Layout(font).setTargetWidth(750);
+        layout.setBaseColor(Color.DARK_GRAY);
+        font.markup(TEXT, layout);
+        cache = new LayoutCache(font, layout, 400, font.cellHeight * layout.lines(), Align.center);
+    }
+
+    private void compare(String name, Font font) {
+        Layout layout = new Layout(font).setTargetWidth(750);
+        font.markup(TEXT, layout);
+        RecordingBatch direct = new RecordingBatch(), cached = new RecordingBatch();
+        int directCount = font.drawGlyphs(direct, layout, 400, 300, Align.center);
+        LayoutCache cache = new LayoutCache(font, layout, 400, 300, Align.center);
+        cache.draw(cached);
+        boolean same = direct.samePages(cached) && directCount == cache.getGlyphCount();
+        cache.tint(Color.WHITE);
+        cached.reset();
+        cache.draw(cached);
+        same &= direct.samePages(cached);
+        System.out.printf("%-36s %s: %d glyphs, %d draw calls direct, %d draw calls cached%n", name,
+                same ? "same vertices" : "DIFFERENT VERTICES", directCount, direct.drawCalls, cached.drawCalls);
+        font.dispose();
+    }
+
+    @Override
+    public void render() {
+        Gdx.gl.glClearColor(0.8f, 0.8f, 0.8f, 1);
+        Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+        float time = (System.currentTimeMillis() & 0xFFFFFL) * 0.001f;
+        cache.setPosition(400 + MathUtils.sin(time) * 20f, font.cellHeight * layout.lines());
+        cache.tint(tint.set(1f, 0.75f + 0.25f * MathUtils.cos(time), 1f, 1f));
+        batch.begin();
+        font.enableShader(batch);
+        cache.draw(batch);
+        batch.end();
+        Gdx.graphics.setTitle(Gdx.graphics.getFramesPerSecond() + " FPS");
+    }
+
+    @Override
+    public void dispose() {
+        batch.dispose();
+        font.dispose();
+    }
+}
@@ -0,0 +1,124 @@
+package com.github.tommyettinger;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.backends.lwjgl3.Lwjgl3ApplicationConfiguration;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Colors;
+import com.github.tommyettinger.textra.Font;
+import com.github.tommyettinger.textra.Layout;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Checks that {@link Font#markup(String, Layout)} allocates nothing once it has warmed up, when parsing text with
+ * many color tags into a Layout that is cleared and reused, and that color tags still see changes made to
+ * {@link Colors} after they were first used. The same is checked for HUD-style text that is rebuilt in a reused
+ * StringBuilder each time, passed both as a CharSequence and as a char array. This measures allocation with the HotSpot-specific
+ * {@code com.sun.management.ThreadMXBean}, and skips the allocation check on JVMs that don't have it.
+ */
+public class MarkupAllocationTest extends ApplicationAdapter {
+
+    private static final int WARMUP = 20000, RUNS = 1000, ATTEMPTS = 3;
+
+    private static final String TEXT = "[RED]Ruby[]: are you [*]there[*]? [|CHAT_NAME]Opal[] whispers: "
+            + "[#E74200]orange[] and [#22BB22FF]green[] and [SKY]sky[] and [|FOREST]forest[] and [NOT_A_COLOR]none[]. "
+            + "[_][GOLD]Welcome to the [TEAL]Textra Zone[]! [/][SALMON]Pchnąć w tę łódź jeża[] lub ośm skrzyń fig.";
+
+    public static void main(String[] args){
+        Lwjgl3ApplicationConfiguration config = new Lwjgl3ApplicationConfiguration();
+        config.setTitle("textramode markup allocation test");
+        config.setWindowedMode(400, 100);
+        config.disableAudio(true);
+        SelfCheck.launch(new MarkupAllocationTest(), config);
+    }
+
+    @Override
+    public void create() {
+        Font font = new Font("Gentium.fnt", Font.DistanceFieldType.STANDARD, -1f, 0f, -4.5f, 0f).scale(0.42f, 0.42f);
+        Layout layout = new Layout(font).setTargetWidth(300);
+        boolean passed = true;
+
+        Colors.put("CHAT_NAME", new Color(0x11223344));
+        font.markup(TEXT, layout);
+        Colors.put("CHAT_NAME", new Color(0x55667788));
+        layout.clear();
+        font.markup(TEXT, layout);
+        if (!hasColor(layout, 0x55667788)) {
+            System.out.println("FAIL: a color changed in Colors was not used by markup");
+            passed = false;
+        }
+
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+            long id = Thread.currentThread().getId();
+            for (int i = 0; i < WARMUP; i++) {
+                layout.clear();
+                font.markup(TEXT, layout);
+            }
+            long allocated = Long.MAX_VALUE;
+            for (int attempt = 0; attempt < ATTEMPTS && allocated > 0; attempt++) {
+                long start = threads.getThreadAllocatedBytes(id);
+                for (int i = 0; i < RUNS; i++) {
+                    layout.clear();
+                    font.markup(TEXT, layout);
+                }
+                allocated = threads.getThreadAllocatedBytes(id) - start;
+            }
+            System.out.printf("Allocated %d bytes over %d calls to markup(String)%n", allocated, RUNS);
+            if (allocated > 0) {
+                System.out.println("FAIL: markup allocated in steady state");
+                passed = false;
+            }
+
+            StringBuilder hud = new StringBuilder(64);
+            char[] chars = new char[64];
+            for (int i = 0; i < WARMUP; i++) {
+                hudText(hud, i);
+                layout.clear();
+                font.markup(hud, layout);
+                hud.getChars(0, hud.length(), chars, 0);
+                layout.clear();
+                font.markup(chars, 0, hud.length(), layout);
+            }
+            allocated = Long.MAX_VALUE;
+            for (int attempt = 0; attempt < ATTEMPTS && allocated > 0; attempt++) {
+                long start = threads.getThreadAllocatedBytes(id);
+                for (int i = 0; i < RUNS; i++) {
+                    hudText(hud, i);
+                    layout.clear();
+                    font.markup(hud, layout);
+                    hud.getChars(0, hud.length(), chars, 0);
+                    layout.clear();
+                    font.markup(chars, 0, hud.length(), layout);
+                }
+                allocated = threads.getThreadAllocatedBytes(id) - start;
+            }
+            System.out.printf("Allocated %d bytes over %d calls to markup(CharSequence) and markup(char[])%n", allocated, RUNS);
+            if (allocated > 0) {
+                System.out.println("FAIL: markup from a reused buffer allocated in steady state");
+                passed = false;
+            }
+        } else {
+            System.out.println("Skipping allocation check; this JVM can't measure allocation per thread.");
+        }
+        font.dispose();
+        SelfCheck.finish(passed);
+    }
+
+    private static void hudText(StringBuilder hud, int frame) {
+        hud.setLength(0);
+        hud.append("[GOLD]Score:[] ").append(frame * 10).append("  [|SKY]Time:[] ")
+                .append(frame / 3600).append(':').append(frame / 60 % 60).append('.').append(frame % 60);
+    }
+
+    private static boolean hasColor(Layout layout, int rgba) {
+        for (int ln = 0; ln < layout.lines(); ln++) {
+            for (int i = 0, n = layout.getLine(ln).glyphs.size; i < n; i++) {
+                if ((int) (layout.getLine(ln).glyphs.get(i) >>> 32) == rgba) return true;
+            }
+        }
+        return false;
+    }
+}
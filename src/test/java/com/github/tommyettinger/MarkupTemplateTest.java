@@ -0,0 +1,121 @@
+package com.github.tommyettinger;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.backends.lwjgl3.Lwjgl3ApplicationConfiguration;
+import com.badlogic.gdx.graphics.Color;
+import com.github.tommyettinger.textra.Font;
+import com.github.tommyettinger.textra.Layout;
+import com.github.tommyettinger.textra.MarkupTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Locale;
+
+/**
+ * Checks that laying out a compiled {@link MarkupTemplate} with {@link Font#markup(MarkupTemplate, Layout)} gives
+ * exactly the same Layout as {@link Font#markup(String, Layout)} on the same text with the values written in, for
+ * ints, negative numbers, and floats, and that it allocates nothing once warmed up. Also times both ways.
+ */
+public class MarkupTemplateTest extends ApplicationAdapter {
+
+    private static final int FRAMES = 20000, RUNS = 1000;
+
+    private static final String HUD = "[GOLD]Gold:[] {0}  [RED]HP:[] [*]{1}[*]/{2}  [|SKY]Speed:[] {3} m/s\n"
+            + "[_]Position[_] ({4}, {5}) {0}";
+
+    public static void main(String[] args){
+        Lwjgl3ApplicationConfiguration config = new Lwjgl3ApplicationConfiguration();
+        config.setTitle("textramode markup template test");
+        config.setWindowedMode(400, 100);
+        config.disableAudio(true);
+        SelfCheck.launch(new MarkupTemplateTest(), config);
+    }
+
+    @Override
+    public void create() {
+        Font font = new Font("Gentium.fnt", Font.DistanceFieldType.STANDARD, -1f, 0f, -4.5f, 0f).scale(0.42f, 0.42f);
+        MarkupTemplate template = font.compile(HUD, Color.WHITE);
+        Layout fromTemplate = new Layout(font).setTargetWidth(250), fromMarkup = new Layout(font).setTargetWidth(250);
+        int mismatches = 0;
+        for (int frame = 0; frame < FRAMES; frame++) {
+            setValues(template, frame);
+            fromTemplate.clear();
+            font.markup(template, fromTemplate);
+            fromMarkup.clear();
+            font.markup(expand(frame), fromMarkup);
+            if (!same(fromTemplate, fromMarkup)) {
+                if (mismatches++ == 0)
+                    System.out.println("First mismatch: " + fromTemplate + " vs. " + fromMarkup);
+            }
+        }
+        System.out.println(mismatches + " mismatches in " + FRAMES + " frames.");
+
+        long start = System.nanoTime();
+        for (int frame = 0; frame < RUNS; frame++) {
+            fromMarkup.clear();
+            font.markup(expand(frame), fromMarkup);
+        }
+        long markupTime = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (int frame = 0; frame < RUNS; frame++) {
+            setValues(template, frame);
+            fromTemplate.clear();
+            font.markup(template, fromTemplate);
+        }
+        long templateTime = System.nanoTime() - start;
+        System.out.printf("String building plus markup: %.3f us/frame; template: %.3f us/frame%n",
+                markupTime / 1e3 / RUNS, templateTime / 1e3 / RUNS);
+
+        long allocated = 0;
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+            long id = Thread.currentThread().getId();
+            allocated = Long.MAX_VALUE;
+            for (int attempt = 0; attempt < 3 && allocated > 0; attempt++) {
+                long before = threads.getThreadAllocatedBytes(id);
+                for (int frame = 0; frame < RUNS; frame++) {
+                    setValues(template, frame);
+                    fromTemplate.clear();
+                    font.markup(template, fromTemplate);
+                }
+                allocated = threads.getThreadAllocatedBytes(id) - before;
+            }
+            System.out.printf("Allocated %d bytes over %d template frames%n", allocated, RUNS);
+        } else {
+            System.out.println("Skipping allocation check; this JVM can't measure allocation per thread.");
+        }
+        font.dispose();
+        boolean passed = mismatches == 0 && allocated == 0;
+        SelfCheck.finish(passed);
+    }
+
+    private static void setValues(MarkupTemplate template, int frame) {
+        template.set(0, frame * 37)
+                .set(1, 100 - frame % 250)
+                .set(2, 100)
+                .set(3, frame * 0.173f, 2)
+                .set(4, -frame * 1.5f, 1)
+                .set(5, frame % 7 == 0 ? "?" : "north");
+    }
+
+    private static String expand(int frame) {
+        return HUD.replace("{0}", String.valueOf(frame * 37))
+                .replace("{1}", String.valueOf(100 - frame % 250))
+                .replace("{2}", "100")
+                .replace("{3}", String.format(Locale.ROOT, "%.2f", frame * 0.173f))
+                .replace("{4}", String.format(Locale.ROOT, "%.1f", -frame * 1.5f))
+                .replace("{5}", frame % 7 == 0 ? "?" : "north");
+    }
+
+    private static boolean same(Layout a, Layout b) {
+        if (a.lines() != b.lines()) return false;
+        for (int ln = 0; ln < a.lines(); ln++) {
+            if (!a.getLine(ln).glyphs.equals(b.getLine(ln).glyphs)
+                    || !a.getLine(ln).kerning.equals(b.getLine(ln).kerning)
+                    || a.getLine(ln).width != b.getLine(ln).width)
+                return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,96 @@
+package com.github.tommyettinger;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.backends.lwjgl3.Lwjgl3ApplicationConfiguration;
+import com.badlogic.gdx.math.RandomXS128;
+import com.github.tommyettinger.textra.Font;
+import com.github.tommyettinger.textra.Layout;
+import com.github.tommyettinger.textra.Measurement;
+
+/**
+ * Compares {@link Font#measure(CharSequence, Measurement)} with {@link Font#markup(String, Layout)} on 10,000 short
+ * table-cell strings, checking that both report the same width, height, and line count, and timing each. Results
+ * are printed to stdout, and the app closes itself when done.
+ */
+public class MeasureBenchmark extends ApplicationAdapter {
+
+    private static final int COUNT = 10000, WARMUP = 20, RUNS = 20;
+
+    private static final String[] WORDS = {"Name", "Score", "[GOLD]Gold[]", "12345", "Level", "[*]Boss[*]",
+            "Inventory", "Sword of Truth", "x", "[/]Potion[/]", "well-known", "Pchnąć", "łódź", "[#E74200]fire[]"};
+
+    public static void main(String[] args){
+        Lwjgl3ApplicationConfiguration config = new Lwjgl3ApplicationConfiguration();
+        config.setTitle("textramode measuring benchmark");
+        config.setWindowedMode(400, 100);
+        config.disableAudio(true);
+        SelfCheck.launch(new MeasureBenchmark(), config);
+    }
+
+    @Override
+    public void create() {
+        RandomXS128 random = new RandomXS128(123456789L);
+        String[] cells = new String[COUNT];
+        StringBuilder sb = new StringBuilder(128);
+        for (int i = 0; i < COUNT; i++) {
+            sb.setLength(0);
+            for (int j = 0, n = 1 + random.nextInt(8); j < n; j++) {
+                sb.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+            }
+            cells[i] = sb.toString();
+        }
+
+        Font[] fonts = {
+                new Font("Gentium.fnt", Font.DistanceFieldType.STANDARD, -1f, 0f, -4.5f, 0f).scale(0.42f, 0.42f),
+                new Font("Cozette.fnt", "Cozette.png", Font.DistanceFieldType.STANDARD, 2, 2, 0, 0),
+        };
+        String[] names = {"Gentium (kerned)", "Cozette (monospace)"};
+        Layout layout = new Layout();
+        layout.setTargetWidth(120);
+        layout.setMaxLines(2);
+        layout.setEllipsis("...");
+        Measurement measurement = new Measurement(layout);
+        int mismatches = 0;
+        double sink = 0;
+        System.out.printf("%-20s %14s %14s %8s%n", "font", "ms/markup", "ms/measure", "speedup");
+        for (int f = 0; f < fonts.length; f++) {
+            Font font = fonts[f];
+            for (String cell : cells) {
+                layout.clear();
+                font.markup(cell, layout);
+                font.measure(cell, measurement);
+                if (layout.getWidth() != measurement.getWidth() || layout.getHeight() != measurement.getHeight()
+                        || layout.lines() != measurement.lines())
+                    mismatches++;
+            }
+            for (int i = 0; i < WARMUP; i++) {
+                for (String cell : cells) {
+                    layout.clear();
+                    sink += font.markup(cell, layout).getWidth();
+                    sink += font.measure(cell, measurement).getWidth();
+                }
+            }
+            long start = System.nanoTime();
+            for (int i = 0; i < RUNS; i++) {
+                for (String cell : cells) {
+                    layout.clear();
+                    sink += font.markup(cell, layout).getWidth();
+                }
+            }
+            long markupTime = System.nanoTime() - start;
+            start = System.nanoTime();
+            for (int i = 0; i < RUNS; i++) {
+                for (String cell : cells) {
+                    sink += font.measure(cell, measurement).getWidth();
+                }
+            }
+            long measureTime = System.nanoTime() - start;
+            System.out.printf("%-20s %14.3f %14.3f %8.2f%n", names[f], markupTime / 1e6 / RUNS,
+                    measureTime / 1e6 / RUNS, (double) markupTime / measureTime);
+            font.dispose();
+        }
+        System.out.println("(ignore) " + sink);
+        System.out.println(mismatches == 0 ? "All sizes matched." : "FAIL: " + mismatches + " sizes differed.");
+        SelfCheck.finish(mismatches == 0);
+    }
+}
@@ -0,0 +1,109 @@
+package com.github.tommyettinger;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.backends.lwjgl3.Lwjgl3ApplicationConfiguration;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.utils.Align;
+import com.github.tommyettinger.textra.Font;
+import com.github.tommyettinger.textra.Layout;
+import com.github.tommyettinger.textra.PackedLayout;
+
+/**
+ * Compares {@link PackedLayout} to {@link Layout} for text panels of about 500 lines each: how much heap 100 panels
+ * retain in each form, and how fast each form draws into a {@link RecordingBatch}. Also checks that a PackedLayout
+ * filled by {@link Font#markup(CharSequence, PackedLayout)} draws exactly the same vertices as the Layout, with each
+ * alignment. Results are printed to stdout, and the app closes itself when done.
+ */
+public class PackedLayoutBenchmark extends ApplicationAdapter {
+
+    private static final int PANELS = 100, WARMUP = 20, RUNS = 100;
+
+    private static final String[] WORDS = {"the", "quick", "brown", "fox", "jumps", "over", "lazy", "dog", "and",
+            "[*]bold[*]", "[/]oblique[/]", "[_]underlined[_]", "[RED]red[]", "[#E74200]orange[]", "well-known",
+            "extraordinarily", "AV", "To", "Pchnąć", "łódź", "jeża", "\n"};
+
+    public static void main(String[] args){
+        Lwjgl3ApplicationConfiguration config = new Lwjgl3ApplicationConfiguration();
+        config.setTitle("textramode packed layout benchmark");
+        config.setWindowedMode(400, 100);
+        config.disableAudio(true);
+        SelfCheck.launch(new PackedLayoutBenchmark(), config);
+    }
+
+    @Override
+    public void create() {
+        Font font = new Font("Gentium.fnt", Font.DistanceFieldType.STANDARD, -1f, 0f, -4.5f, 0f).scale(0.42f, 0.42f);
+        RandomXS128 random = new RandomXS128(123456789L);
+        StringBuilder sb = new StringBuilder(1 << 16);
+        for (int i = 0; i < 1300; i++) {
+            sb.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+        }
+        final String text = sb.toString();
+
+        Layout layout = new Layout(font).setTargetWidth(250);
+        font.markup(text, layout);
+        PackedLayout packed = new PackedLayout(font).setTargetWidth(250);
+        font.markup(text, packed);
+        System.out.println("Each panel has " + packed.lines() + " lines and " + packed.getGlyphCount() + " glyphs.");
+
+        boolean passed = packed.toString().equals(layout.toString());
+        RecordingBatch expected = new RecordingBatch(), actual = new RecordingBatch();
+        int[] aligns = {Align.left, Align.center, Align.right};
+        for (int align : aligns) {
+            expected.reset();
+            actual.reset();
+            font.drawGlyphs(expected, layout, 10, 400, align);
+            font.drawGlyphs(actual, packed, 10, 400, align);
+            passed &= expected.vertices.equals(actual.vertices);
+        }
+        System.out.println(passed ? "PackedLayout drew the same vertices as Layout."
+                : "FAIL: PackedLayout drew different vertices than Layout.");
+
+        long before = usedMemory();
+        Layout[] layouts = new Layout[PANELS];
+        for (int i = 0; i < PANELS; i++) {
+            font.markup(text, layouts[i] = new Layout(font).setTargetWidth(250));
+        }
+        final long layoutBytes = usedMemory() - before;
+        before = usedMemory();
+        PackedLayout[] packs = new PackedLayout[PANELS];
+        for (int i = 0; i < PANELS; i++) {
+            font.markup(text, packs[i] = new PackedLayout(font).setTargetWidth(250));
+        }
+        final long packedBytes = usedMemory() - before;
+        System.out.printf("Retained heap for %d panels: Layout %d KiB, PackedLayout %d KiB (%.2fx smaller)%n",
+                PANELS, layoutBytes >> 10, packedBytes >> 10, layoutBytes / (double) Math.max(1, packedBytes));
+
+        for (int i = 0; i < WARMUP; i++) {
+            expected.reset();
+            font.drawGlyphs(expected, layouts[i], 0, 400);
+            expected.reset();
+            font.drawGlyphs(expected, packs[i], 0, 400);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) {
+            expected.reset();
+            font.drawGlyphs(expected, layouts[i % PANELS], 0, 400);
+        }
+        final long layoutTime = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) {
+            expected.reset();
+            font.drawGlyphs(expected, packs[i % PANELS], 0, 400);
+        }
+        final long packedTime = System.nanoTime() - start;
+        System.out.printf("Drawing one panel: Layout %.3f us, PackedLayout %.3f us%n",
+                layoutTime / 1e3 / RUNS, packedTime / 1e3 / RUNS);
+
+        font.dispose();
+        SelfCheck.finish(passed);
+    }
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 4; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
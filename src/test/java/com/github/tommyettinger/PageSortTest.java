@@ -0,0 +1,70 @@
+package com.github.tommyettinger;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.backends.lwjgl3.Lwjgl3ApplicationConfiguration;
+import com.badlogic.gdx.utils.Align;
+import com.github.tommyettinger.textra.Font;
+import com.github.tommyettinger.textra.Layout;
+import com.github.tommyettinger.textra.LayoutCache;
+
+/**
+ * Draws text that mixes glyphs from both pages of Gentium, first in text order with
+ * {@link Font#drawGlyphs(com.badlogic.gdx.graphics.g2d.Batch, Layout, float, float, int)} and then sorted by page with
+ * {@link Font#drawGlyphsByPage(com.badlogic.gdx.graphics.g2d.Batch, Layout, float, float, int)}, recording both with
+ * a {@link RecordingBatch}. Checks that each page gets the same quads either way, that the sorted draw only switches
+ * texture between pages, and that {@link LayoutCache#getTextureSwitches()} matches the switches of the unsorted draw.
+ * Prints the texture switch counts and times both ways of drawing.
+ */
+public class PageSortTest extends ApplicationAdapter {
+
+    private static final int RUNS = 2000;
+
+    private static final String TEXT = "AVAST, To Wave! 0123456789 łódź ąę [*]bold[*] [_]underlined[_] "
+            + "[RED]Pchnąć[] w tę łódź jeża lub ośm skrzyń fig. Съешь же ещё этих мягких французских булок. "
+            + "Ταχίστη αλώπηξ βαφής ψημένη γη, δρασκελίζει υπέρ νωθρού κυνός. The quick brown fox, 1234567890.";
+
+    public static void main(String[] args){
+        Lwjgl3ApplicationConfiguration config = new Lwjgl3ApplicationConfiguration();
+        config.setTitle("textramode page sort test");
+        config.setWindowedMode(400, 100);
+        config.disableAudio(true);
+        SelfCheck.launch(new PageSortTest(), config);
+    }
+
+    @Override
+    public void create() {
+        Font font = new Font("Gentium.fnt", Font.DistanceFieldType.STANDARD, -1f, 0f, -4.5f, 0f).scale(0.42f, 0.42f);
+        Layout layout = new Layout(font).setTargetWidth(300);
+        font.markup(TEXT, layout);
+
+        RecordingBatch ordered = new RecordingBatch(), sorted = new RecordingBatch();
+        ordered.setColor(1f, 1f, 1f, 0.5f);
+        sorted.setColor(1f, 1f, 1f, 0.5f);
+        final int orderedCount = font.drawGlyphs(ordered, layout, 10, 400, Align.center);
+        final int sortedCount = font.drawGlyphsByPage(sorted, layout, 10, 400, Align.center);
+        LayoutCache cache = new LayoutCache(font, layout, 10, 400, Align.center);
+
+        boolean passed = orderedCount == sortedCount && ordered.samePages(sorted)
+                && sorted.textureSwitches == sorted.textures.size - 1
+                && cache.getTextureSwitches() == ordered.textureSwitches && ordered.textures.size > 1;
+        System.out.printf("%d glyphs on %d pages: %d texture switches in text order, %d sorted by page%n",
+                orderedCount, ordered.textures.size, ordered.textureSwitches, sorted.textureSwitches);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) {
+            ordered.reset();
+            font.drawGlyphs(ordered, layout, 10, 400, Align.center);
+        }
+        final long orderedTime = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) {
+            sorted.reset();
+            font.drawGlyphsByPage(sorted, layout, 10, 400, Align.center);
+        }
+        final long sortedTime = System.nanoTime() - start;
+        System.out.printf("In text order: %.3f us; sorted by page: %.3f us (not counting flushes)%n",
+                orderedTime / 1e3 / RUNS, sortedTime / 1e3 / RUNS);
+        font.dispose();
+        SelfCheck.finish(passed);
+    }
+}
@@ -0,0 +1,106 @@
+package com.github.tommyettinger;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.backends.lwjgl3.Lwjgl3ApplicationConfiguration;
+import com.badlogic.gdx.math.RandomXS128;
+import com.github.tommyettinger.textra.Font;
+import com.github.tommyettinger.textra.Layout;
+import com.github.tommyettinger.textra.ParallelMarkup;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Times {@link ParallelMarkup#markupAll(ForkJoinPool, Font, CharSequence[], Layout, Layout[])} on 20,000 strings of
+ * varying length, like a localization table, with pools of 1, 2, 4, and 8 threads, and compares the time to calling
+ * {@link Font#markup(String, Layout)} on each string in order. Every result is checked against the sequential one.
+ * Results are printed to stdout, and the app closes itself when done.
+ */
+public class ParallelMarkupBenchmark extends ApplicationAdapter {
+
+    private static final int COUNT = 20000, WARMUP = 5, RUNS = 10;
+    private static final int[] THREADS = {1, 2, 4, 8};
+
+    private static final String[] WORDS = {"the", "quick", "brown", "fox", "jumps", "over", "lazy", "dog", "and",
+            "[*]bold[*]", "[/]oblique[/]", "[_]underlined[_]", "[RED]red[]", "[#E74200]orange[]", "well-known",
+            "extraordinarily", "Pchnąć", "łódź", "jeża", "%d", "{0}", "\n"};
+
+    public static void main(String[] args){
+        Lwjgl3ApplicationConfiguration config = new Lwjgl3ApplicationConfiguration();
+        config.setTitle("textramode parallel markup benchmark");
+        config.setWindowedMode(400, 100);
+        config.disableAudio(true);
+        SelfCheck.launch(new ParallelMarkupBenchmark(), config);
+    }
+
+    @Override
+    public void create() {
+        RandomXS128 random = new RandomXS128(123456789L);
+        String[] texts = new String[COUNT];
+        StringBuilder sb = new StringBuilder(1024);
+        for (int i = 0; i < COUNT; i++) {
+            sb.setLength(0);
+            // mostly short strings, with a few long paragraphs
+            for (int j = 0, n = random.nextInt(20) == 0 ? 100 + random.nextInt(100) : 1 + random.nextInt(12); j < n; j++) {
+                sb.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+            }
+            texts[i] = sb.toString();
+        }
+
+        Font font = new Font("Gentium.fnt", Font.DistanceFieldType.STANDARD, -1f, 0f, -4.5f, 0f).scale(0.42f, 0.42f);
+        Layout settings = new Layout(font).setTargetWidth(300);
+        Layout[] expected = new Layout[COUNT], results = new Layout[COUNT];
+        for (int i = 0; i < COUNT; i++) {
+            expected[i] = new Layout(font).setTargetWidth(300);
+        }
+
+        for (int i = 0; i < WARMUP; i++) {
+            for (int t = 0; t < COUNT; t++) {
+                expected[t].clear();
+                font.markup(texts[t], expected[t]);
+            }
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) {
+            for (int t = 0; t < COUNT; t++) {
+                expected[t].clear();
+                font.markup(texts[t], expected[t]);
+            }
+        }
+        final double sequential = (System.nanoTime() - start) / 1e6 / RUNS;
+        System.out.printf("%-12s %12s %8s%n", "threads", "ms/table", "speedup");
+        System.out.printf("%-12s %12.3f %8.2f%n", "sequential", sequential, 1.0);
+
+        int mismatches = 0;
+        for (int threads : THREADS) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            for (int i = 0; i < WARMUP; i++) {
+                ParallelMarkup.markupAll(pool, font, texts, settings, results);
+            }
+            start = System.nanoTime();
+            for (int i = 0; i < RUNS; i++) {
+                ParallelMarkup.markupAll(pool, font, texts, settings, results);
+            }
+            final double time = (System.nanoTime() - start) / 1e6 / RUNS;
+            pool.shutdown();
+            System.out.printf("%-12d %12.3f %8.2f%n", threads, time, sequential / time);
+            for (int t = 0; t < COUNT; t++) {
+                if (!same(expected[t], results[t])) mismatches++;
+            }
+        }
+        font.dispose();
+        System.out.println(mismatches == 0 ? "All Layouts matched." : "FAIL: " + mismatches + " Layouts differed.");
+        SelfCheck.finish(mismatches == 0);
+    }
+
+    private static boolean same(Layout a, Layout b) {
+        if (a.lines() != b.lines()) return false;
+        for (int ln = 0; ln < a.lines(); ln++) {
+            if (!a.getLine(ln).glyphs.equals(b.getLine(ln).glyphs)
+                    || !a.getLine(ln).kerning.equals(b.getLine(ln).kerning)
+                    || a.getLine(ln).width != b.getLine(ln).width
+                    || a.getLine(ln).height != b.getLine(ln).height)
+                return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,265 @@
+package com.github.tommyettinger;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.math.Affine2;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+
+/**
+ * A {@link Batch} that doesn't render anything, and instead records every call to
+ * {@link #draw(Texture, float[], int, int)} (the only draw method {@link com.github.tommyettinger.textra.Font} uses), so
+ * the vertices different drawing paths produce can be compared. Vertices are also grouped by texture, since cached
+ * drawing emits quads grouped by page. This doesn't need an OpenGL context.
+ */
+public class RecordingBatch implements Batch {
+    /**
+     * Every vertex float passed to {@link #draw(Texture, float[], int, int)}, in order.
+     */
+    public final FloatArray vertices = new FloatArray();
+    /**
+     * The textures used by each draw call, in the order they were first used; parallel to {@link #pages}.
+     */
+    public final Array<Texture> textures = new Array<>();
+    /**
+     * The vertex floats drawn with each texture in {@link #textures}, in order.
+     */
+    public final Array<FloatArray> pages = new Array<>();
+    /**
+     * How many calls to {@link #draw(Texture, float[], int, int)} were made.
+     */
+    public int drawCalls;
+    /**
+     * How many times the texture changed between one draw call and the next.
+     */
+    public int textureSwitches;
+
+    private Texture lastTexture;
+    private final Color color = new Color(1, 1, 1, 1);
+    private final Matrix4 projection = new Matrix4(), transform = new Matrix4();
+    private ShaderProgram shader;
+    private boolean drawing;
+
+    public void reset() {
+        vertices.clear();
+        textures.clear();
+        pages.clear();
+        drawCalls = 0;
+        textureSwitches = 0;
+        lastTexture = null;
+    }
+
+    /**
+     * Gets the vertices drawn with the given texture, or null if it wasn't used.
+     * @param texture a Texture that may have been drawn with
+     * @return the recorded vertices for texture, or null
+     */
+    public FloatArray verticesFor(Texture texture) {
+        int i = textures.indexOf(texture, true);
+        return i < 0 ? null : pages.get(i);
+    }
+
+    /**
+     * Checks if this recorded exactly the same vertices for each texture as {@code other}, ignoring the order that
+     * different textures were drawn in.
+     * @param other another RecordingBatch
+     * @return true if both batches drew the same quads from the same textures
+     */
+    public boolean samePages(RecordingBatch other) {
+        if (textures.size != other.textures.size) return false;
+        for (int i = 0; i < textures.size; i++) {
+            FloatArray mine = pages.get(i), theirs = other.verticesFor(textures.get(i));
+            if (theirs == null || !mine.equals(theirs)) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public void draw(Texture texture, float[] spriteVertices, int offset, int count) {
+        drawCalls++;
+        if (texture != lastTexture) {
+            if (lastTexture != null) textureSwitches++;
+            lastTexture = texture;
+        }
+        vertices.addAll(spriteVertices, offset, count);
+        int i = textures.indexOf(texture, true);
+        if (i < 0) {
+            textures.add(texture);
+            pages.add(new FloatArray(true, spriteVertices, offset, count));
+        } else {
+            pages.get(i).addAll(spriteVertices, offset, count);
+        }
+    }
+
+    @Override
+    public void begin() {
+        drawing = true;
+    }
+
+    @Override
+    public void end() {
+        drawing = false;
+    }
+
+    @Override
+    public void setColor(Color tint) {
+        color.set(tint);
+    }
+
+    @Override
+    public void setColor(float r, float g, float b, float a) {
+        color.set(r, g, b, a);
+    }
+
+    @Override
+    public Color getColor() {
+        return color;
+    }
+
+    @Override
+    public void setPackedColor(float packedColor) {
+        Color.abgr8888ToColor(color, packedColor);
+    }
+
+    @Override
+    public float getPackedColor() {
+        return color.toFloatBits();
+    }
+
+    @Override
+    public void draw(Texture texture, float x, float y, float originX, float originY, float width, float height,
+                     float scaleX, float scaleY, float rotation, int srcX, int srcY, int srcWidth, int srcHeight,
+                     boolean flipX, boolean flipY) {
+    }
+
+    @Override
+    public void draw(Texture texture, float x, float y, float width, float height, int srcX, int srcY, int srcWidth,
+                     int srcHeight, boolean flipX, boolean flipY) {
+    }
+
+    @Override
+    public void draw(Texture texture, float x, float y, int srcX, int srcY, int srcWidth, int srcHeight) {
+    }
+
+    @Override
+    public void draw(Texture texture, float x, float y, float width, float height, float u, float v, float u2, float v2) {
+    }
+
+    @Override
+    public void draw(Texture texture, float x, float y) {
+    }
+
+    @Override
+    public void draw(Texture texture, float x, float y, float width, float height) {
+    }
+
+    @Override
+    public void draw(TextureRegion region, float x, float y) {
+    }
+
+    @Override
+    public void draw(TextureRegion region, float x, float y, float width, float height) {
+    }
+
+    @Override
+    public void draw(TextureRegion region, float x, float y, float originX, float originY, float width, float height,
+                     float scaleX, float scaleY, float rotation) {
+    }
+
+    @Override
+    public void draw(TextureRegion region, float x, float y, float originX, float originY, float width, float height,
+                     float scaleX, float scaleY, float rotation, boolean clockwise) {
+    }
+
+    @Override
+    public void draw(TextureRegion region, float width, float height, Affine2 transform) {
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void disableBlending() {
+    }
+
+    @Override
+    public void enableBlending() {
+    }
+
+    @Override
+    public void setBlendFunction(int srcFunc, int dstFunc) {
+    }
+
+    @Override
+    public void setBlendFunctionSeparate(int srcFuncColor, int dstFuncColor, int srcFuncAlpha, int dstFuncAlpha) {
+    }
+
+    @Override
+    public int getBlendSrcFunc() {
+        return 0;
+    }
+
+    @Override
+    public int getBlendDstFunc() {
+        return 0;
+    }
+
+    @Override
+    public int getBlendSrcFuncAlpha() {
+        return 0;
+    }
+
+    @Override
+    public int getBlendDstFuncAlpha() {
+        return 0;
+    }
+
+    @Override
+    public Matrix4 getProjectionMatrix() {
+        return projection;
+    }
+
+    @Override
+    public Matrix4 getTransformMatrix() {
+        return transform;
+    }
+
+    @Override
+    public void setProjectionMatrix(Matrix4 projection) {
+        this.projection.set(projection);
+    }
+
+    @Override
+    public void setTransformMatrix(Matrix4 transform) {
+        this.transform.set(transform);
+    }
+
+    @Override
+    public void setShader(ShaderProgram shader) {
+        this.shader = shader;
+    }
+
+    @Override
+    public ShaderProgram getShader() {
+        return shader;
+    }
+
+    @Override
+    public boolean isBlendingEnabled() {
+        return true;
+    }
+
+    @Override
+    public boolean isDrawing() {
+        return drawing;
+    }
+
+    @Override
+    public void dispose() {
+    }
+}
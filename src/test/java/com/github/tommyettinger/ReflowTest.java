@@ -0,0 +1,132 @@
+package com.github.tommyettinger;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.lwjgl3.Lwjgl3ApplicationConfiguration;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.utils.Align;
+import com.github.tommyettinger.textra.Font;
+import com.github.tommyettinger.textra.Layout;
+
+/**
+ * Shows a Layout being reflowed with {@link Layout#reflow()} whenever the window is resized, without calling
+ * {@link Font#markup(String, Layout)} again. Resize the window to see the text wrap to the new width. Before showing
+ * anything, this checks that reflowing from every width in {@link #WIDTHS} to every other one, with and without a max
+ * line count and ellipsis, gives the same Lines as a fresh markup() with those settings.
+ */
+public class ReflowTest extends ApplicationAdapter {
+
+    private static final String TEXT = "Fonts can be rendered normally, but using [[tags], you can..."
+            + "\n[#E74200]...use CSS-style hex colors like #E74200..."
+            + "\n[FOREST]...use named colors from the Colors class, like FOREST...[]"
+            + "\nNormal, [*]bold[*], [/]oblique[/] (like italic), [*][/]bold oblique[],"
+            + " [_]underline (even for multiple words)[_], [~]strikethrough (same)[],"
+            + " various heights: [.]sub-[.], [=]mid-[=], and [^]super-[^]script,"
+            + " capitalization changes: [;]Each cap, [,]All lower, [!]Caps lock[],"
+            + "\nUnicode support: Pchnąć w tę łódź [BROWN]jeża[] lub ośm skrzyń [PURPLE]fig[].";
+
+    private static final float[] WIDTHS = {0f, 780f, 400f, 250f, 90f, 30f};
+    private static final int[] MAX_LINES = {Integer.MAX_VALUE, 4, 1};
+
+    Font font;
+    SpriteBatch batch;
+    Layout layout;
+
+    public static void main(String[] args){
+        Lwjgl3ApplicationConfiguration config = new Lwjgl3ApplicationConfiguration();
+        config.setTitle("textramode reflow test");
+        config.setWindowedMode(800, 400);
+        config.setResizable(true);
+        config.disableAudio(true);
+        config.useVsync(true);
+        SelfCheck.launch(new ReflowTest(), config);
+    }
+
+    @Override
+    public void create() {
+        batch = new SpriteBatch();
+        font = new Font("Gentium.fnt", Font.DistanceFieldType.STANDARD, -1f, 0f, -4.5f, 0f).scale(0.42f, 0.42f).setTextureFilter();
+        layout = new Layout(font).setTargetWidth(Gdx.graphics.getWidth() - 20);
+        layout.setBaseColor(Color.DARK_GRAY);
+        font.markup(TEXT, layout);
+
+        boolean passed = true;
+        Layout reflowed = new Layout(font), fresh = new Layout(font);
+        reflowed.setBaseColor(Color.DARK_GRAY);
+        fresh.setBaseColor(Color.DARK_GRAY);
+        for (float from : WIDTHS) {
+            for (float to : WIDTHS) {
+                for (int maxLines : MAX_LINES) {
+                    // text cut off by maxLines can't come back, so every reflow starts from an unlimited Layout
+                    reflowed.setMaxLines(Integer.MAX_VALUE);
+                    reflowed.setEllipsis(null);
+                    font.markup(TEXT, reflowed.clear().setTargetWidth(from));
+                    reflowed.setMaxLines(maxLines);
+                    reflowed.setEllipsis(maxLines == Integer.MAX_VALUE ? null : "...");
+                    reflowed.setTargetWidth(to).reflow();
+
+                    fresh.setMaxLines(maxLines);
+                    fresh.setEllipsis(maxLines == Integer.MAX_VALUE ? null : "...");
+                    font.markup(TEXT, fresh.clear().setTargetWidth(to));
+                    if (!same(fresh, reflowed)) {
+                        System.out.println("FAIL: reflowing from width " + from + " to " + to + " with max lines "
+                                + maxLines + " didn't match markup.");
+                        passed = false;
+                    }
+                }
+            }
+        }
+        // reflowing one Layout again and again shouldn't gain or lose any glyphs
+        reflowed.setMaxLines(Integer.MAX_VALUE);
+        reflowed.setEllipsis(null);
+        fresh.setMaxLines(Integer.MAX_VALUE);
+        fresh.setEllipsis(null);
+        font.markup(TEXT, reflowed.clear().setTargetWidth(0f));
+        for (float to : WIDTHS) {
+            reflowed.setTargetWidth(to).reflow();
+            font.markup(TEXT, fresh.clear().setTargetWidth(to));
+            if (!same(fresh, reflowed)) {
+                System.out.println("FAIL: reflowing one Layout repeatedly didn't match markup at width " + to + ".");
+                passed = false;
+            }
+        }
+        SelfCheck.report(passed);
+    }
+
+    private static boolean same(Layout a, Layout b) {
+        if (a.lines() != b.lines()) return false;
+        for (int ln = 0; ln < a.lines(); ln++) {
+            if (!a.getLine(ln).glyphs.equals(b.getLine(ln).glyphs)
+                    || !a.getLine(ln).kerning.equals(b.getLine(ln).kerning)
+                    || a.getLine(ln).width != b.getLine(ln).width
+                    || a.getLine(ln).height != b.getLine(ln).height)
+                return false;
+        }
+        return true;
+    }
+
+    @Override
+    public void resize(int width, int height) {
+        batch.getProjectionMatrix().setToOrtho2D(0, 0, width, height);
+        layout.setTargetWidth(width - 20).reflow();
+    }
+
+    @Override
+    public void render() {
+        Gdx.gl.glClearColor(0.8f, 0.8f, 0.8f, 1);
+        Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+        batch.begin();
+        font.enableShader(batch);
+        font.drawGlyphs(batch, layout, 10, Gdx.graphics.getHeight() - font.cellHeight, Align.left);
+        batch.end();
+        Gdx.graphics.setTitle(Gdx.graphics.getFramesPerSecond() + " FPS, " + layout.lines() + " lines");
+    }
+
+    @Override
+    public void dispose() {
+        batch.dispose();
+        font.dispose();
+    }
+}
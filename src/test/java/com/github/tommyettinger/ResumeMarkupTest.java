@@ -0,0 +1,83 @@
+package com.github.tommyettinger;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.backends.lwjgl3.Lwjgl3ApplicationConfiguration;
+import com.badlogic.gdx.math.RandomXS128;
+import com.github.tommyettinger.textra.Font;
+import com.github.tommyettinger.textra.Layout;
+
+/**
+ * Appends chat messages one at a time to a Layout with {@link Font#resumeMarkup(CharSequence, Layout)}, and checks that
+ * the result is identical to one {@link Font#markup(String, Layout)} call on all the messages joined together, even
+ * when a color or style is left open at the end of a message. Then appends 50,000 messages to one Layout and times
+ * each batch of 10,000, which should take about the same time no matter how long the Layout already is.
+ */
+public class ResumeMarkupTest extends ApplicationAdapter {
+
+    private static final int CHECKED = 500, BATCHES = 5, BATCH = 10000;
+
+    private static final String[] NAMES = {"[RED]Ruby[]", "[|SKY]Opal[]", "[GOLD]Topaz[]", "[#22BB22]Jade[]"};
+    private static final String[] WORDS = {"hello", "anyone", "there?", "[*]help[*]", "well-known", "[RED]", "[]",
+            "[/]", "[_]", "dragon", "Pchnąć", "łódź", "AV", "To", "[;]", "[!]"};
+
+    public static void main(String[] args){
+        Lwjgl3ApplicationConfiguration config = new Lwjgl3ApplicationConfiguration();
+        config.setTitle("textramode resumed markup test");
+        config.setWindowedMode(400, 100);
+        config.disableAudio(true);
+        SelfCheck.launch(new ResumeMarkupTest(), config);
+    }
+
+    @Override
+    public void create() {
+        Font font = new Font("Gentium.fnt", Font.DistanceFieldType.STANDARD, -1f, 0f, -4.5f, 0f).scale(0.42f, 0.42f);
+        RandomXS128 random = new RandomXS128(123456789L);
+        String[] messages = new String[BATCH];
+        StringBuilder sb = new StringBuilder(256);
+        for (int i = 0; i < BATCH; i++) {
+            sb.setLength(0);
+            sb.append(NAMES[random.nextInt(NAMES.length)]).append(": ");
+            for (int j = 0, n = 1 + random.nextInt(10); j < n; j++) {
+                sb.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+            }
+            // some messages continue on the same line, and any open style carries into the next message
+            if (random.nextInt(4) != 0) sb.append('\n');
+            messages[i] = sb.toString();
+        }
+
+        StringBuilder all = new StringBuilder();
+        Layout incremental = new Layout(font).setTargetWidth(250);
+        for (int i = 0; i < CHECKED; i++) {
+            font.resumeMarkup(messages[i], incremental);
+            all.append(messages[i]);
+        }
+        Layout whole = new Layout(font).setTargetWidth(250);
+        font.markup(all.toString(), whole);
+        boolean passed = same(whole, incremental);
+        System.out.println(passed ? "Appending " + CHECKED + " messages matched one markup call."
+                : "FAIL: appending " + CHECKED + " messages didn't match one markup call.");
+
+        Layout log = new Layout(font).setTargetWidth(250);
+        for (int b = 0; b < BATCHES; b++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < BATCH; i++) {
+                font.resumeMarkup(messages[i], log);
+            }
+            System.out.printf("Batch %d: %.3f ms for %d messages, %d lines so far%n", b,
+                    (System.nanoTime() - start) / 1e6, BATCH, log.lines());
+        }
+        font.dispose();
+        SelfCheck.finish(passed);
+    }
+
+    private static boolean same(Layout a, Layout b) {
+        if (a.lines() != b.lines()) return false;
+        for (int ln = 0; ln < a.lines(); ln++) {
+            if (!a.getLine(ln).glyphs.equals(b.getLine(ln).glyphs)
+                    || !a.getLine(ln).kerning.equals(b.getLine(ln).kerning)
+                    || a.getLine(ln).width != b.getLine(ln).width)
+                return false;
+        }
+        return true;
+    }
+}
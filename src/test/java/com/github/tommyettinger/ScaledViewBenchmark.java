@@ -0,0 +1,149 @@
+package com.github.tommyettinger;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.backends.lwjgl3.Lwjgl3ApplicationConfiguration;
+import com.badlogic.gdx.utils.Align;
+import com.github.tommyettinger.textra.Font;
+import com.github.tommyettinger.textra.Layout;
+
+/**
+ * Compares two ways to get one typeface at 10 sizes, using Iosevka Slab, which has 3280 glyphs: copying it with
+ * {@link Font#Font(Font)} and scaling each copy, or making views with {@link Font#scaledView(float, float)}. Measures
+ * how much heap the 10 sizes retain each way and how long creating them takes, and checks that each view draws exactly
+ * the same vertices as the copy at the same size. Also checks that views are copy-on-write: adding and removing glyphs
+ * in the source Font afterwards doesn't change what a view draws, and changing the texture coordinates of a shared
+ * GlyphRegion is seen by the view. Results are printed to stdout, and the app closes itself when done.
+ */
+public class ScaledViewBenchmark extends ApplicationAdapter {
+
+    private static final int SIZES = 10, WARMUP = 5, RUNS = 20;
+
+    private static final String TEXT = "[_]Ten sizes[_] of one [*]typeface[*], AVAST To Wave! [RED]łódź[] "
+            + "Съешь же ещё этих мягких французских булок. 0123456789 {}[[]()<>";
+
+    public static void main(String[] args){
+        Lwjgl3ApplicationConfiguration config = new Lwjgl3ApplicationConfiguration();
+        config.setTitle("textramode scaled view benchmark");
+        config.setWindowedMode(400, 100);
+        config.disableAudio(true);
+        SelfCheck.launch(new ScaledViewBenchmark(), config);
+    }
+
+    @Override
+    public void create() {
+        Font font = new Font("Iosevka-Slab.fnt", Font.DistanceFieldType.STANDARD, 0f, 0f, 0f, 0f);
+        System.out.println("The font has " + font.mapping.size + " glyphs.");
+
+        long before = usedMemory();
+        Font[] copies = copies(font);
+        final long copyBytes = usedMemory() - before;
+        before = usedMemory();
+        Font[] views = views(font);
+        final long viewBytes = usedMemory() - before;
+        System.out.printf("Retained heap for %d sizes: copies %d KiB, views %d KiB (%.2fx smaller)%n",
+                SIZES, copyBytes >> 10, viewBytes >> 10, copyBytes / (double) Math.max(1, viewBytes));
+
+        boolean passed = true;
+        RecordingBatch expected = new RecordingBatch(), actual = new RecordingBatch();
+        for (int i = 0; i < SIZES; i++) {
+            expected.reset();
+            actual.reset();
+            Layout layout = new Layout(copies[i]).setTargetWidth(200);
+            copies[i].markup(TEXT, layout);
+            copies[i].drawGlyphs(expected, layout, 10, 400, Align.center);
+            layout = new Layout(views[i]).setTargetWidth(200);
+            views[i].markup(TEXT, layout);
+            views[i].drawGlyphs(actual, layout, 10, 400, Align.center);
+            passed &= expected.vertices.size > 0 && expected.vertices.equals(actual.vertices);
+        }
+        System.out.println(passed ? "Every view drew the same vertices as the copy at its size."
+                : "FAIL: a view drew different vertices than the copy at its size.");
+
+        for (int i = 0; i < WARMUP; i++) {
+            copies(font);
+            views(font);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) {
+            copies(font);
+        }
+        final long copyTime = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) {
+            views(font);
+        }
+        final long viewTime = System.nanoTime() - start;
+        System.out.printf("Creating %d sizes: copies %.3f ms, views %.3f ms%n",
+                SIZES, copyTime / 1e6 / RUNS, viewTime / 1e6 / RUNS);
+
+        passed &= copyOnWrite();
+
+        font.dispose();
+        SelfCheck.finish(passed);
+    }
+
+    private static boolean copyOnWrite() {
+        Font source = new Font("Iosevka-Slab.fnt", Font.DistanceFieldType.STANDARD, 0f, 0f, 0f, 0f);
+        Font view = source.scaledView(0.5f, 0.5f);
+        RecordingBatch before = new RecordingBatch(), after = new RecordingBatch();
+        drawView(view, before);
+
+        // new glyphs get slots past the end of the view's arrays, and removing glyphs must not reach the view
+        for (char c = '\u4E00'; c < '\u4E40'; c++) {
+            source.putGlyph(c, new Font.GlyphRegion(source.getGlyph('W')));
+        }
+        source.putGlyph('A', null);
+        source.putGlyph('e', null);
+        boolean passed = source.getGlyph('A') == null && view.getGlyph('A') != null && view.getGlyph('\u4E00') == null;
+        drawView(view, after);
+        passed &= after.vertices.equals(before.vertices);
+        view.markup("[*]A\u4E00e", new Layout(view));
+
+        // a texture coordinate change on a GlyphRegion the view still shares is seen by the view
+        Font.GlyphRegion shared = view.getGlyph('e');
+        shared.setRegionWidth(shared.getRegionWidth() + 4);
+        after.reset();
+        drawView(view, after);
+        passed &= !after.vertices.equals(before.vertices)
+                && view.getMetrics().width[view.getMetrics().slot('e')] == shared.getRegionWidth() * 0.5f;
+        System.out.println(passed ? "Views kept their glyphs when the source changed, and saw shared region changes."
+                : "FAIL: a view was affected by the source's glyph changes, or missed a shared region change.");
+        view.dispose();
+        source.dispose();
+        return passed;
+    }
+
+    private static void drawView(Font view, RecordingBatch batch) {
+        Layout layout = new Layout(view).setTargetWidth(200);
+        view.markup(TEXT + " Are e e", layout);
+        view.drawGlyphs(batch, layout, 10, 400, Align.center);
+    }
+
+    private static float size(int i) {
+        return 0.25f + i * 0.125f;
+    }
+
+    private static Font[] copies(Font font) {
+        Font[] fonts = new Font[SIZES];
+        for (int i = 0; i < SIZES; i++) {
+            fonts[i] = new Font(font).scale(size(i), size(i));
+        }
+        return fonts;
+    }
+
+    private static Font[] views(Font font) {
+        Font[] fonts = new Font[SIZES];
+        for (int i = 0; i < SIZES; i++) {
+            fonts[i] = font.scaledView(size(i), size(i));
+        }
+        return fonts;
+    }
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 4; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
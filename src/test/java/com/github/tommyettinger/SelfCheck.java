@@ -0,0 +1,48 @@
+package com.github.tommyettinger;
+
+import com.badlogic.gdx.ApplicationListener;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.lwjgl3.Lwjgl3Application;
+import com.badlogic.gdx.backends.lwjgl3.Lwjgl3ApplicationConfiguration;
+
+/**
+ * Reports the result of a test app that checks its own output, the same way for every such test. The app is started
+ * with {@link #launch(ApplicationListener, Lwjgl3ApplicationConfiguration)}, and reports whether it passed with
+ * {@link #finish(boolean)} or {@link #report(boolean)}, which print PASS or FAIL. The app always closes normally, so
+ * its {@code dispose()} runs; only after that does launch() exit with status 1 if anything failed, so scripts can tell.
+ */
+public final class SelfCheck {
+    private static boolean failed;
+
+    private SelfCheck() {
+    }
+
+    /**
+     * Runs {@code test} until its window closes, then exits with status 1 if it reported a failure.
+     * @param test an app that calls {@link #finish(boolean)} or {@link #report(boolean)}
+     * @param config the window settings to use
+     */
+    public static void launch(ApplicationListener test, Lwjgl3ApplicationConfiguration config) {
+        new Lwjgl3Application(test, config);
+        if (failed) System.exit(1);
+    }
+
+    /**
+     * Prints PASS or FAIL and remembers a failure, but leaves the app running, for tests that show something
+     * afterwards.
+     * @param passed true if every check passed
+     */
+    public static void report(boolean passed) {
+        System.out.println(passed ? "PASS" : "FAIL");
+        failed |= !passed;
+    }
+
+    /**
+     * Prints PASS or FAIL, remembers a failure, and asks the app to close.
+     * @param passed true if every check passed
+     */
+    public static void finish(boolean passed) {
+        report(passed);
+        Gdx.app.exit();
+    }
+}
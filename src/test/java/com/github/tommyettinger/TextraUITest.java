@@ -37,6 +37,7 @@ import com.badlogic.gdx.scenes.scene2d.utils.ChangeListener;
 import com.badlogic.gdx.scenes.scene2d.utils.TextureRegionDrawable;
 import com.badlogic.gdx.utils.Align;
 import com.badlogic.gdx.utils.viewport.ScreenViewport;
+import com.github.tommyettinger.textra.FontRegistry;
 import com.github.tommyettinger.textra.TextraLabel;
 
 public class TextraUITest extends InputAdapter implements ApplicationListener {
@@ -47,6 +48,7 @@ public class TextraUITest extends InputAdapter implements ApplicationListener {
 		"Is hard to come by5"};
 
 	Skin skin;
+	FontRegistry fonts;
 	Stage stage;
 	Texture texture1;
 	Texture texture2;
@@ -55,6 +57,7 @@ public class TextraUITest extends InputAdapter implements ApplicationListener {
 	@Override
 	public void create () {
 		skin = new Skin(Gdx.files.internal("uiskin.json"));
+		fonts = new FontRegistry();
 		texture1 = new Texture(Gdx.files.internal("badlogicsmall.jpg"));
 		texture2 = new Texture(Gdx.files.internal("badlogic.jpg"));
 		TextureRegion image = new TextureRegion(texture1);
@@ -76,7 +79,7 @@ public class TextraUITest extends InputAdapter implements ApplicationListener {
 		Button imgButton = new Button(new Image(image), skin);
 		Button imgToggleButton = new Button(new Image(image), skin, "toggle");
 
-		TextraLabel myLabel = new TextraLabel("This is some text.", skin);
+		TextraLabel myLabel = new TextraLabel("This is some text.", skin, fonts);
 
 		Table t = new Table();
 		t.row();
@@ -114,15 +117,15 @@ public class TextraUITest extends InputAdapter implements ApplicationListener {
 		// list.getSelection().setToggle(true);
 		ScrollPane scrollPane2 = new ScrollPane(list, skin);
 		scrollPane2.setFlickScroll(false);
-		TextraLabel minSizeLabel = new TextraLabel("minWidth cell", skin); // demos SplitPane respecting widget's minWidth
+		TextraLabel minSizeLabel = new TextraLabel("minWidth cell", skin, fonts); // demos SplitPane respecting widget's minWidth
 		Table rightSideTable = new Table(skin);
 		rightSideTable.add(minSizeLabel).growX().row();
 		rightSideTable.add(scrollPane2).grow();
 		SplitPane splitPane = new SplitPane(scrollPane, rightSideTable, false, skin, "default-horizontal");
-		fpsLabel = new TextraLabel("fps:", skin);
+		fpsLabel = new TextraLabel("fps:", skin, fonts);
 		fpsLabel.setAlignment(Align.left);
 		// configures an example of a TextField in password mode.
-		final TextraLabel passwordLabel = new TextraLabel("Textfield in [~]secure[] password mode: ", skin);
+		final TextraLabel passwordLabel = new TextraLabel("Textfield in [~]secure[] password mode: ", skin, fonts);
 		final TextField passwordTextField = new TextField("", skin);
 		passwordTextField.setMessageText("password");
 		passwordTextField.setPasswordCharacter('*');
@@ -222,6 +225,7 @@ public class TextraUITest extends InputAdapter implements ApplicationListener {
 	@Override
 	public void dispose () {
 		stage.dispose();
+		fonts.dispose();
 		skin.dispose();
 		texture1.dispose();
 		texture2.dispose();
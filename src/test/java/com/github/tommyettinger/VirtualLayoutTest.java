@@ -0,0 +1,108 @@
+package com.github.tommyettinger;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.backends.lwjgl3.Lwjgl3ApplicationConfiguration;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.utils.Align;
+import com.badlogic.gdx.utils.Array;
+import com.github.tommyettinger.textra.Font;
+import com.github.tommyettinger.textra.Layout;
+import com.github.tommyettinger.textra.Line;
+import com.github.tommyettinger.textra.VirtualLayout;
+
+/**
+ * Checks that drawing windows of lines from a {@link VirtualLayout} with Font's drawGlyphs() gives the same vertices
+ * as laying out every entry up front and drawing the same lines, while scrolling both gradually and in big jumps, and
+ * that only the entries near the visible window stay laid out. Then fills a VirtualLayout with 500,000 log entries and times adding
+ * them and drawing a screenful at random scroll positions.
+ */
+public class VirtualLayoutTest extends ApplicationAdapter {
+
+    private static final int CHECKED = 3000, SCROLLS = 400, VISIBLE = 30, LOG = 500000, FRAMES = 2000;
+
+    private static final String[] WORDS = {"hit", "missed", "the", "goblin", "for", "[RED]12[]", "[*]critical[*]",
+            "damage", "[|SKY]frost[]", "well-known", "[_]poisoned[_]", "AV", "To", "Pchnąć", "łódź", "\n"};
+
+    public static void main(String[] args){
+        Lwjgl3ApplicationConfiguration config = new Lwjgl3ApplicationConfiguration();
+        config.setTitle("textramode virtual layout test");
+        config.setWindowedMode(400, 100);
+        config.disableAudio(true);
+        SelfCheck.launch(new VirtualLayoutTest(), config);
+    }
+
+    @Override
+    public void create() {
+        Font font = new Font("Gentium.fnt", Font.DistanceFieldType.STANDARD, -1f, 0f, -4.5f, 0f).scale(0.42f, 0.42f);
+        RandomXS128 random = new RandomXS128(123456789L);
+        String[] entries = new String[CHECKED];
+        for (int i = 0; i < CHECKED; i++) {
+            entries[i] = entry(random, i);
+        }
+
+        VirtualLayout log = new VirtualLayout(font).setTargetWidth(250).setMargin(10);
+        Array<Line> reference = new Array<>();
+        for (String entry : entries) {
+            log.add(entry);
+            Layout layout = new Layout(font).setTargetWidth(250);
+            font.markup(entry, layout);
+            for (int ln = 0; ln < layout.lines(); ln++) {
+                reference.add(layout.getLine(ln));
+            }
+        }
+        boolean passed = log.lines() == reference.size;
+        System.out.println(log.size() + " entries wrap to " + log.lines() + " lines; laying out each gave "
+                + reference.size + ".");
+
+        RecordingBatch expected = new RecordingBatch(), actual = new RecordingBatch();
+        int mismatches = 0, mostLaidOut = 0, first = 0;
+        for (int s = 0; s < SCROLLS && passed; s++) {
+            // mostly scroll a few lines at a time, sometimes jump far away
+            first = random.nextInt(5) == 0 ? random.nextInt(reference.size)
+                    : Math.max(0, Math.min(reference.size - 1, first + random.nextInt(9) - 4));
+            final int end = Math.min(reference.size, first + VISIBLE);
+            expected.reset();
+            actual.reset();
+            float y = 400;
+            for (int ln = first; ln < end; ln++, y -= font.cellHeight) {
+                font.drawGlyphs(expected, reference.get(ln), 10, y, Align.center);
+            }
+            font.drawGlyphs(actual, log, 10, 400, first, end, Align.center);
+            if (!expected.vertices.equals(actual.vertices)) mismatches++;
+            mostLaidOut = Math.max(mostLaidOut, log.getLaidOutCount());
+        }
+        for (int line = 0; line < reference.size && passed; line++) {
+            final int entry = log.entryAtLine(line);
+            passed = log.firstLineOf(entry) <= line && (entry + 1 == log.size() || log.firstLineOf(entry + 1) > line);
+        }
+        passed &= mismatches == 0 && mostLaidOut <= VISIBLE + 20;
+        System.out.println(mismatches + " mismatches in " + SCROLLS + " scrolls; at most " + mostLaidOut
+                + " entries were laid out at once.");
+
+        VirtualLayout big = new VirtualLayout(font).setTargetWidth(250);
+        long start = System.nanoTime();
+        for (int i = 0; i < LOG; i++) {
+            big.add(entries[i % CHECKED]);
+        }
+        System.out.printf("Added %d entries (%d lines) in %.3f ms%n", big.size(), big.lines(),
+                (System.nanoTime() - start) / 1e6);
+        start = System.nanoTime();
+        for (int f = 0; f < FRAMES; f++) {
+            actual.reset();
+            final int line = big.lineAt(random.nextFloat() * big.getHeight());
+            font.drawGlyphs(actual, big, 10, 400, line, line + VISIBLE, Align.left);
+        }
+        System.out.printf("Drawing %d lines at a random scroll position: %.3f us/frame, %d entries laid out%n",
+                VISIBLE, (System.nanoTime() - start) / 1e3 / FRAMES, big.getLaidOutCount());
+        font.dispose();
+        SelfCheck.finish(passed);
+    }
+
+    private static String entry(RandomXS128 random, int index) {
+        StringBuilder sb = new StringBuilder(128).append("[GRAY]").append(index).append("[] ");
+        for (int j = 0, n = 1 + random.nextInt(random.nextInt(10) == 0 ? 60 : 12); j < n; j++) {
+            sb.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+        }
+        return sb.toString();
+    }
+}
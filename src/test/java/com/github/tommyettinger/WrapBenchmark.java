@@ -0,0 +1,73 @@
+package com.github.tommyettinger;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.lwjgl3.Lwjgl3Application;
+import com.badlogic.gdx.backends.lwjgl3.Lwjgl3ApplicationConfiguration;
+import com.badlogic.gdx.math.RandomXS128;
+import com.github.tommyettinger.textra.Font;
+import com.github.tommyettinger.textra.Layout;
+
+/**
+ * Times {@link Font#markup(String, Layout)} on one paragraph of about 100 KB, with no line breaks of its own, wrapped
+ * at several target widths. With linear-time wrapping, the time per paragraph should stay roughly the same as the
+ * width shrinks, even though the number of lines grows. Results are printed to stdout, and the app closes itself when
+ * done.
+ */
+public class WrapBenchmark extends ApplicationAdapter {
+
+    private static final int WARMUP = 10, RUNS = 20;
+    private static final float[] WIDTHS = {0f, 2000f, 800f, 300f, 100f, 40f};
+
+    private static final String[] WORDS = {"the", "quick", "brown", "fox", "jumps", "over", "lazy", "dog", "and",
+            "[*]bold[*]", "[/]oblique[/]", "[_]underlined[_]", "[RED]red[]", "well-known", "extraordinarily",
+            "Pchnąć", "łódź", "jeża", "Съешь", "французских", "булок", "антидисэстаблишментарианизм", "a", "I"};
+
+    public static void main(String[] args){
+        Lwjgl3ApplicationConfiguration config = new Lwjgl3ApplicationConfiguration();
+        config.setTitle("textramode wrapping benchmark");
+        config.setWindowedMode(400, 100);
+        config.disableAudio(true);
+        new Lwjgl3Application(new WrapBenchmark(), config);
+    }
+
+    @Override
+    public void create() {
+        RandomXS128 random = new RandomXS128(123456789L);
+        StringBuilder sb = new StringBuilder(102400 + 64);
+        while (sb.length() < 102400) {
+            sb.append(WORDS[random.nextInt(WORDS.length)]).append(random.nextInt(12) == 0 ? ", " : " ");
+        }
+        String paragraph = sb.toString();
+
+        Font[] fonts = {
+                new Font("Gentium.fnt", Font.DistanceFieldType.STANDARD, -1f, 0f, -4.5f, 0f).scale(0.42f, 0.42f),
+                new Font("Cozette.fnt", "Cozette.png", Font.DistanceFieldType.STANDARD, 2, 2, 0, 0),
+        };
+        String[] names = {"Gentium (kerned)", "Cozette (monospace)"};
+        Layout layout = new Layout();
+        long sink = 0;
+        System.out.printf("Paragraph length: %d chars%n", paragraph.length());
+        System.out.printf("%-20s %8s %8s %12s%n", "font", "width", "lines", "ms/markup");
+        for (int f = 0; f < fonts.length; f++) {
+            Font font = fonts[f];
+            for (float width : WIDTHS) {
+                layout.setTargetWidth(width);
+                for (int i = 0; i < WARMUP; i++) {
+                    layout.clear();
+                    sink += font.markup(paragraph, layout).lines();
+                }
+                long start = System.nanoTime();
+                for (int i = 0; i < RUNS; i++) {
+                    layout.clear();
+                    sink += font.markup(paragraph, layout).lines();
+                }
+                long time = System.nanoTime() - start;
+                System.out.printf("%-20s %8.0f %8d %12.3f%n", names[f], width, layout.lines(), time / 1e6 / RUNS);
+            }
+            font.dispose();
+        }
+        System.out.println("(ignore) " + sink);
+        Gdx.app.exit();
+    }
+}